@@ -0,0 +1,30 @@
+package com.onlinestore.inventory.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GrpcServerConfig {
+
+  /**
+   * При spring.threads.virtual.enabled=true каждый gRPC-вызов обрабатывается в своём виртуальном
+   * потоке вместо общего cached pool gRPC - блокирующий JPA в checkAvailability не держит потоки
+   * платформы. Executor - отдельный бин, чтобы закрыться вместе с контекстом.
+   */
+  @Bean(destroyMethod = "shutdown")
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public ExecutorService grpcServerExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  @Bean
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public GrpcServerConfigurer virtualThreadGrpcServerConfigurer(ExecutorService grpcServerExecutor) {
+    return serverBuilder -> serverBuilder.executor(grpcServerExecutor);
+  }
+}
@@ -0,0 +1,18 @@
+package com.onlinestore.inventory.config;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+  /** Спаны gRPC и HTTP в лог - для локального запуска без коллектора трасс. */
+  @Bean
+  @ConditionalOnProperty(name = "tracing.logging-exporter.enabled", havingValue = "true")
+  public SpanExporter loggingSpanExporter() {
+    return LoggingSpanExporter.create();
+  }
+}
@@ -1,16 +1,34 @@
 package com.onlinestore.inventory.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onlinestore.inventory.controller.api.ProductApi;
 import com.onlinestore.inventory.dto.CreateProductRequest;
+import com.onlinestore.inventory.dto.ProductFilter;
+import com.onlinestore.inventory.dto.ProductImportResponse;
+import com.onlinestore.inventory.dto.ProductPageResponse;
 import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSearchResponse;
+import com.onlinestore.inventory.dto.ProductSort;
+import com.onlinestore.inventory.dto.StockAdjustmentRequest;
+import com.onlinestore.inventory.dto.StockAdjustmentResponse;
+import com.onlinestore.inventory.dto.UpdateProductRequest;
+import com.onlinestore.inventory.service.ProductImportService;
+import com.onlinestore.inventory.service.ProductSearchService;
 import com.onlinestore.inventory.service.ProductService;
+import com.onlinestore.inventory.service.StockAdjustmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
 @RestController
@@ -18,12 +36,51 @@ import java.util.UUID;
 @RequestMapping("/api/products")
 public class ProductController implements ProductApi {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final StockAdjustmentService stockAdjustmentService;
+    private final ProductSearchService productSearchService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     @Override
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<ProductPageResponse> getProducts(@ModelAttribute ProductFilter filter,
+                                                           @RequestParam(defaultValue = "name") String sort,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(productService.getProducts(filter, ProductSort.fromParam(sort), cursor, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportProducts(@ModelAttribute ProductFilter filter) {
+        // Пишем по одному JSON-объекту на строку прямо в ответ, не собирая каталог в память
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+            productService.exportProducts(filter, product -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(product));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    @Override
+    public ResponseEntity<ProductSearchResponse> searchProducts(@RequestParam String q,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productSearchService.search(q, page, size));
     }
 
     @GetMapping("/{id}")
@@ -39,10 +96,41 @@ public class ProductController implements ProductApi {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Override
+    public ResponseEntity<ProductImportResponse> importProductsJson(InputStream body) {
+        return importResult(productImportService.importJson(body));
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @Override
+    public ResponseEntity<ProductImportResponse> importProductsCsv(InputStream body) {
+        return importResult(productImportService.importCsv(body));
+    }
+
+    @PostMapping("/stock-adjustments")
+    @Override
+    public ResponseEntity<StockAdjustmentResponse> adjustStock(@Valid @RequestBody StockAdjustmentRequest request) {
+        return ResponseEntity.ok(stockAdjustmentService.adjustStock(request.getItems()));
+    }
+
+    @PatchMapping("/{id}")
+    @Override
+    public ResponseEntity<ProductResponse> updateProduct(@PathVariable UUID id,
+                                                         @Valid @RequestBody UpdateProductRequest request) {
+        return ResponseEntity.ok(productService.updateProduct(id, request));
+    }
+
     @DeleteMapping("/{id}")
     @Override
     public ResponseEntity<Void> deleteProduct(@PathVariable UUID id) {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Файл не дочитан - уже записанные пачки остаются, клиент видит их в теле ответа
+    private static ResponseEntity<ProductImportResponse> importResult(ProductImportResponse response) {
+        HttpStatus status = response.getError() != null ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
 }
@@ -1,32 +1,80 @@
 package com.onlinestore.inventory.controller.api;
 
 import com.onlinestore.inventory.dto.CreateProductRequest;
+import com.onlinestore.inventory.dto.ProductFilter;
+import com.onlinestore.inventory.dto.ProductImportRecord;
+import com.onlinestore.inventory.dto.ProductImportResponse;
+import com.onlinestore.inventory.dto.ProductPageResponse;
 import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSearchResponse;
+import com.onlinestore.inventory.dto.StockAdjustmentRequest;
+import com.onlinestore.inventory.dto.StockAdjustmentResponse;
+import com.onlinestore.inventory.dto.UpdateProductRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
 import java.util.UUID;
 
 @Tag(name = "Products", description = "API for product inventory management")
 @RequestMapping("/api/products")
 public interface ProductApi {
 
-    @Operation(summary = "Get all products", description = "Returns a list of all products in the inventory")
+    @Operation(summary = "Get products page",
+            description = "Returns a page of products. Pass nextCursor from the previous page to get the next one")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or limit")
+    })
+    ResponseEntity<ProductPageResponse> getProducts(
+            @ParameterObject ProductFilter filter,
+            @Parameter(description = "Sort order: name or id", example = "name")
+            String sort,
+            @Parameter(description = "nextCursor from the previous page")
+            String cursor,
+            @Parameter(description = "Page size, at most 500", example = "50")
+            int limit);
+
+
+    @Operation(summary = "Export products",
+            description = "Streams all matching products as NDJSON, one product per line, ordered by id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products stream",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
                             schema = @Schema(implementation = ProductResponse.class)))
     })
-    ResponseEntity<List<ProductResponse>> getAllProducts();
+    ResponseEntity<StreamingResponseBody> exportProducts(@ParameterObject ProductFilter filter);
+
+
+    @Operation(summary = "Search products",
+            description = "Full-text search by product name, most relevant first. Every word matches as a "
+                    + "prefix, and names with small typos are found too")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search results",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductSearchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Blank query or page out of range")
+    })
+    ResponseEntity<ProductSearchResponse> searchProducts(
+            @Parameter(description = "Search query", required = true, example = "iphone 15")
+            String q,
+            @Parameter(description = "0-based page number", example = "0")
+            int page,
+            @Parameter(description = "Page size, at most 50", example = "20")
+            int size);
 
 
     @Operation(summary = "Get product by ID", description = "Returns a single product by its unique identifier")
@@ -53,6 +101,75 @@ public interface ProductApi {
     ResponseEntity<ProductResponse> createProduct(CreateProductRequest request);
 
 
+    @Operation(summary = "Import products from JSON",
+            description = "Creates or updates products from a JSON array of records. Records with an id "
+                    + "update the existing product, records without an id create a new one. The array is "
+                    + "read as a stream and written in chunks, one transaction per chunk")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload processed, see per-chunk summary",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductImportResponse.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Upload is malformed; chunks in the summary before the error are committed",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductImportResponse.class)))
+    })
+    ResponseEntity<ProductImportResponse> importProductsJson(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "JSON array of products",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ProductImportRecord.class))))
+            InputStream body);
+
+
+    @Operation(summary = "Import products from CSV",
+            description = "Same as JSON import. CSV header: id,name,quantity,price,sale "
+                    + "(id and sale columns are optional)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload processed, see per-chunk summary",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductImportResponse.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Upload is malformed; chunks in the summary before the error are committed",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductImportResponse.class)))
+    })
+    ResponseEntity<ProductImportResponse> importProductsCsv(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "CSV file with header",
+                    content = @Content(mediaType = "text/csv"))
+            InputStream body);
+
+
+    @Operation(summary = "Adjust stock",
+            description = "Applies signed quantity deltas to many products in one transaction. "
+                    + "Adjustments that would make stock negative or target unknown products are skipped "
+                    + "and returned as rejected")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Adjustments processed",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = StockAdjustmentResponse.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid input data, or a product's total delta or resulting stock "
+                            + "exceeds the integer range; nothing is applied")
+    })
+    ResponseEntity<StockAdjustmentResponse> adjustStock(StockAdjustmentRequest request);
+
+
+    @Operation(summary = "Update product",
+            description = "Partially updates a product: name, price, discount and/or quantity")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product updated successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    ResponseEntity<ProductResponse> updateProduct(
+            @Parameter(description = "Product UUID", required = true,
+                    example = "123e4567-e89b-12d3-a456-426614174000")
+            UUID id,
+            UpdateProductRequest request);
+
+
     @Operation(summary = "Delete product", description = "Deletes a product from the inventory")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Product deleted successfully"),
@@ -0,0 +1,21 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Applied stock adjustment")
+public class AdjustedStock {
+
+  private UUID productId;
+
+  @Schema(description = "Quantity after the adjustment", example = "35")
+  private int quantity;
+}
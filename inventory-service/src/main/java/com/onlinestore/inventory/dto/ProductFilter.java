@@ -0,0 +1,29 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Фильтры листинга товаров: null-поля не ограничивают выборку. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Product listing filters")
+public class ProductFilter {
+
+  @Schema(description = "Only products with quantity > 0 (true) or out of stock (false)")
+  private Boolean inStock;
+
+  @Schema(description = "Minimum price, inclusive", example = "100.00")
+  private BigDecimal minPrice;
+
+  @Schema(description = "Maximum price, inclusive", example = "1500.00")
+  private BigDecimal maxPrice;
+
+  @Schema(description = "Only discounted products (true) or products without discount (false)")
+  private Boolean hasSale;
+}
@@ -0,0 +1,51 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of one import chunk, written in its own transaction")
+public class ProductImportChunkSummary {
+
+  public enum Status {
+    COMMITTED,
+    FAILED
+  }
+
+  @Schema(description = "1-based chunk number", example = "1")
+  private int chunk;
+
+  @Schema(description = "First record number in the chunk", example = "1")
+  private long firstRecord;
+
+  @Schema(description = "Last record number in the chunk", example = "1000")
+  private long lastRecord;
+
+  private Status status;
+
+  private int created;
+
+  private int updated;
+
+  @Schema(description = "Records identical to the stored product, not written")
+  private int unchanged;
+
+  private int rejected;
+
+  @Schema(description = "Why the chunk transaction was rolled back")
+  private String error;
+
+  @Schema(description = "Rejected records, at most inventory.import.max-errors-per-chunk")
+  @Builder.Default
+  private List<ProductImportError> errors = new ArrayList<>();
+
+  private long durationMillis;
+}
@@ -0,0 +1,21 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Rejected import record")
+public class ProductImportError {
+
+  @Schema(description = "1-based record number in the uploaded file", example = "42")
+  private long record;
+
+  @Schema(description = "Why the record was rejected", example = "price: Price is required")
+  private String message;
+}
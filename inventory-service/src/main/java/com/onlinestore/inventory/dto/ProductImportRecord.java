@@ -0,0 +1,50 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Строка массового импорта. Товар с указанным id обновляется, без id - создаётся новый. Ограничения
+ * те же, что у CreateProductRequest, плюс разрядность колонок products, чтобы неверная строка
+ * отбраковывалась при валидации, а не роняла запись всей пачки.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Product record for bulk import")
+@Builder
+public class ProductImportRecord {
+
+  @Schema(
+      description = "Product identifier: existing product is updated, new one is created with it",
+      example = "123e4567-e89b-12d3-a456-426614174000")
+  private UUID id;
+
+  @NotBlank(message = "Product name is required")
+  @Size(min = 2, max = 100, message = "Product name must be between 2 and 100 characters")
+  @Schema(description = "Product name", example = "iPhone 15 Pro")
+  private String name;
+
+  @NotNull(message = "Quantity is required")
+  @Min(value = 0, message = "Quantity cannot be negative")
+  @Schema(description = "Available quantity in stock", example = "10")
+  private Integer quantity;
+
+  @NotNull(message = "Price is required")
+  @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+  @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 integer and 2 fraction digits")
+  @Schema(description = "Product price", example = "1299.99")
+  private BigDecimal price;
+
+  @DecimalMin(value = "0.00", message = "Sale cannot be negative")
+  @DecimalMax(value = "100.00", message = "Sale cannot exceed 100%")
+  @Digits(integer = 3, fraction = 2, message = "Sale must have at most 2 fraction digits")
+  @Schema(description = "Discount percentage", example = "15.50")
+  private BigDecimal sale;
+}
@@ -0,0 +1,40 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Bulk import result")
+public class ProductImportResponse {
+
+  private long records;
+
+  private int created;
+
+  private int updated;
+
+  private int unchanged;
+
+  private int rejected;
+
+  @Schema(description = "Records of rolled back chunks")
+  private int failed;
+
+  @Schema(
+      description =
+          "Why reading the upload stopped early; chunks listed before it are already committed")
+  private String error;
+
+  @Builder.Default
+  private List<ProductImportChunkSummary> chunks = new ArrayList<>();
+
+  private long durationMillis;
+}
@@ -0,0 +1,24 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of products")
+public class ProductPageResponse {
+
+  @Schema(description = "Products of the current page")
+  private List<ProductResponse> items;
+
+  @Schema(
+      description = "Cursor for the next page, null on the last page",
+      example = "TkFNRQppUGhvbmUgMTUKMTIzZTQ1NjctZTg5Yi0xMmQzLWE0NTYtNDI2NjE0MTc0MDAw")
+  private String nextCursor;
+}
@@ -0,0 +1,30 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Product search results, most relevant first")
+public class ProductSearchResponse {
+
+  @Schema(description = "Normalized query", example = "iphone 15")
+  private String query;
+
+  @Schema(description = "0-based page number", example = "0")
+  private int page;
+
+  @Schema(description = "Page size", example = "20")
+  private int size;
+
+  @Schema(description = "Whether the next page has results")
+  private boolean hasNext;
+
+  private List<ProductResponse> items;
+}
@@ -0,0 +1,18 @@
+package com.onlinestore.inventory.dto;
+
+import com.onlinestore.inventory.exception.InvalidProductQueryException;
+import java.util.Locale;
+
+/** Порядок листинга. Вторым ключом всегда идёт id, чтобы keyset-курсор был однозначным. */
+public enum ProductSort {
+  ID,
+  NAME;
+
+  public static ProductSort fromParam(String value) {
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidProductQueryException("Unsupported sort: " + value + ", expected id or name");
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stock adjustment that was not applied")
+public class RejectedStockAdjustment {
+
+  public enum Reason {
+    NOT_FOUND,
+    INSUFFICIENT_STOCK
+  }
+
+  private UUID productId;
+
+  @Schema(description = "Requested delta, summed over entries for the product", example = "-40")
+  private int delta;
+
+  @Schema(description = "Current quantity in stock", example = "10")
+  private int availableQuantity;
+
+  private Reason reason;
+}
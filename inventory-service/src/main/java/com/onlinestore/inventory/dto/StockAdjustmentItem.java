@@ -0,0 +1,25 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Signed stock change for one product")
+public class StockAdjustmentItem {
+
+  @NotNull(message = "Product id is required")
+  @Schema(description = "Product UUID", example = "123e4567-e89b-12d3-a456-426614174000")
+  private UUID productId;
+
+  @NotNull(message = "Delta is required")
+  @Schema(description = "Quantity change: positive for receipts, negative for write-offs", example = "25")
+  private Integer delta;
+}
@@ -0,0 +1,24 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch of stock adjustments applied in one transaction")
+public class StockAdjustmentRequest {
+
+  @NotEmpty(message = "Adjustments are required")
+  @Size(max = 10000, message = "At most 10000 adjustments per request")
+  @Schema(description = "Adjustments; several entries for one product are summed")
+  private List<@Valid StockAdjustmentItem> items;
+}
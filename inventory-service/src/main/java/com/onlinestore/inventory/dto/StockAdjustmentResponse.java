@@ -0,0 +1,23 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stock adjustment result")
+public class StockAdjustmentResponse {
+
+  @Builder.Default private List<AdjustedStock> applied = new ArrayList<>();
+
+  @Schema(description = "Adjustments that would make stock negative or target unknown products")
+  @Builder.Default
+  private List<RejectedStockAdjustment> rejected = new ArrayList<>();
+}
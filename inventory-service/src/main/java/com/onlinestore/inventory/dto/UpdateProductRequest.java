@@ -0,0 +1,35 @@
+package com.onlinestore.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Частичное обновление товара: null-поля не меняются. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request for partially updating a product")
+@Builder
+public class UpdateProductRequest {
+
+  @Size(min = 2, max = 100, message = "Product name must be between 2 and 100 characters")
+  @Schema(description = "Product name", example = "iPhone 15 Pro")
+  private String name;
+
+  @Min(value = 0, message = "Quantity cannot be negative")
+  @Schema(description = "Available quantity in stock", example = "10")
+  private Integer quantity;
+
+  @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+  @Schema(description = "Product price", example = "1299.99")
+  private BigDecimal price;
+
+  @DecimalMin(value = "0.00", message = "Sale cannot be negative")
+  @DecimalMax(value = "100.00", message = "Sale cannot exceed 100%")
+  @Schema(description = "Discount percentage", example = "15.50")
+  private BigDecimal sale;
+}
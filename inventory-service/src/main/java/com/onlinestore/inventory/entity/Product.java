@@ -18,7 +18,7 @@ import lombok.*;
 public class Product {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   @EqualsAndHashCode.Include
   private UUID id;
 
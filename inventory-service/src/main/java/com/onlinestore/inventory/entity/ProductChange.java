@@ -0,0 +1,69 @@
+package com.onlinestore.inventory.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+/** Запись журнала изменений товаров. Для DELETED заполнен только productId. */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "product_changes")
+public class ProductChange {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @EqualsAndHashCode.Include
+  private Long sequence;
+
+  @Column(nullable = false)
+  private UUID productId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "change_type", nullable = false, length = 20)
+  private Type type;
+
+  private String name;
+
+  private Integer quantity;
+
+  @Column(precision = 10, scale = 2)
+  private BigDecimal price;
+
+  @Column(precision = 5, scale = 2)
+  private BigDecimal sale;
+
+  @CreationTimestamp
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime changedAt;
+
+  public enum Type {
+    CREATED,
+    DELETED,
+    PRICE_CHANGED,
+    QUANTITY_CHANGED
+  }
+
+  public static ProductChange of(Product product, Type type) {
+    return ProductChange.builder()
+        .productId(product.getId())
+        .type(type)
+        .name(product.getName())
+        .quantity(product.getQuantity())
+        .price(product.getPrice())
+        .sale(product.getSale())
+        .build();
+  }
+
+  public static ProductChange deleted(UUID productId) {
+    return ProductChange.builder().productId(productId).type(Type.DELETED).build();
+  }
+}
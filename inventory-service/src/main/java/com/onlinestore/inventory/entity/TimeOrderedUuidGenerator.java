@@ -0,0 +1,13 @@
+package com.onlinestore.inventory.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/** Генератор Hibernate для {@link TimeOrderedUuid}. */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+  @Override
+  public Object generate(SharedSessionContractImplementor session, Object object) {
+    return UuidV7.next();
+  }
+}
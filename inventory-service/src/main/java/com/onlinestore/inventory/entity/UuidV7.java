@@ -0,0 +1,29 @@
+package com.onlinestore.inventory.entity;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID версии 7 (RFC 9562): 48 бит миллисекунд Unix-времени, затем 12-битный счётчик и 62
+ * случайных бита. Новые ключи больше предыдущих и вставляются в правый край B-tree индекса, а не
+ * в случайную страницу, как v4. Счётчик держит порядок и внутри одной миллисекунды.
+ */
+public final class UuidV7 {
+
+  private static final long VERSION = 0x7000L;
+  private static final long VARIANT = 0x8000000000000000L;
+  private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+  // Миллисекунды << 12 | счётчик последнего выданного ключа
+  private static final AtomicLong LAST = new AtomicLong();
+
+  private UuidV7() {}
+
+  public static UUID next() {
+    long stamp = LAST.updateAndGet(last -> Math.max(System.currentTimeMillis() << 12, last + 1));
+    long mostSigBits = (stamp >>> 12) << 16 | VERSION | (stamp & 0xFFF);
+    long leastSigBits = ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+    return new UUID(mostSigBits, leastSigBits);
+  }
+}
@@ -0,0 +1,13 @@
+package com.onlinestore.inventory.exception;
+
+/** Загрузку нельзя дочитать: сломан JSON-массив или нет заголовка CSV. */
+public class InvalidProductImportException extends RuntimeException {
+
+  public InvalidProductImportException(String message) {
+    super(message);
+  }
+
+  public InvalidProductImportException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
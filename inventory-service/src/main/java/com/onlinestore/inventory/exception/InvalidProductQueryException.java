@@ -0,0 +1,9 @@
+package com.onlinestore.inventory.exception;
+
+/** Некорректные параметры листинга: курсор, сортировка или размер страницы. */
+public class InvalidProductQueryException extends RuntimeException {
+
+  public InvalidProductQueryException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,9 @@
+package com.onlinestore.inventory.exception;
+
+/** Изменение остатков, которое нельзя применить целиком: сумма delta или остаток вне диапазона int. */
+public class InvalidStockAdjustmentException extends RuntimeException {
+
+  public InvalidStockAdjustmentException(String message) {
+    super(message);
+  }
+}
@@ -1,16 +1,23 @@
 package com.onlinestore.inventory.grpc;
 
-import com.onlinestore.inventory.dto.ProductResponse;
-import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.dto.AdjustedStock;
+import com.onlinestore.inventory.dto.RejectedStockAdjustment;
+import com.onlinestore.inventory.dto.StockAdjustmentItem;
+import com.onlinestore.inventory.dto.StockAdjustmentResponse;
+import com.onlinestore.inventory.exception.InvalidStockAdjustmentException;
 import com.onlinestore.inventory.exception.ProductNotFoundException;
-import com.onlinestore.inventory.mapper.ProductMapper;
-import com.onlinestore.inventory.service.ProductService;
+import com.onlinestore.inventory.service.ProductCatalog;
+import com.onlinestore.inventory.service.ProductSnapshot;
+import com.onlinestore.inventory.service.StockAdjustmentService;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -18,7 +25,12 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class InventoryGrpcServiceImpl extends InventoryServiceGrpc.InventoryServiceImplBase {
 
-    private final ProductService productService;
+    // Как @Size у REST-запроса StockAdjustmentRequest
+    private static final int MAX_STOCK_ADJUSTMENTS = 10_000;
+
+    private final ProductCatalog productCatalog;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+    private final StockAdjustmentService stockAdjustmentService;
 
     @Override
     public void checkAvailability(ProductAvailabilityRequest request,
@@ -28,23 +40,21 @@ public class InventoryGrpcServiceImpl extends InventoryServiceGrpc.InventoryServ
             UUID productId = UUID.fromString(request.getProductId());
             int requestedQuantity = request.getRequestedQuantity();
 
-            // Получаем товар
-            Product product = productService.getProductEntityById(productId);
+            // Получаем товар из каталога (без обращения к БД, если он уже загружен)
+            ProductSnapshot product = productCatalog.get(productId);
 
             // Проверяем наличие
-            int availableQuantity = product.getQuantity();
+            int availableQuantity = product.quantity();
             boolean isAvailable = availableQuantity >= requestedQuantity;
 
-            // Считаем цену со скидкой
-            double price = product.getPrice().doubleValue();
-            double discount = product.getSale() != null ? product.getSale().doubleValue() : 0.0;
-
             // Формируем ответ
             ProductAvailabilityResponse response = ProductAvailabilityResponse.newBuilder()
                     .setProductId(productId.toString())
-                    .setProductName(product.getName())
-                    .setPrice(price)
-                    .setDiscount(discount)
+                    .setProductName(product.name())
+                    .setPriceCents(product.priceCents())
+                    .setDiscountBasisPoints(product.discountBasisPoints())
+                    .setPrice(product.price())
+                    .setDiscount(product.discountPercent())
                     .setAvailableQuantity(availableQuantity)
                     .setIsAvailable(isAvailable)
                     .setMessage(isAvailable ? "Available" : "Insufficient stock")
@@ -71,4 +81,68 @@ public class InventoryGrpcServiceImpl extends InventoryServiceGrpc.InventoryServ
                     .asRuntimeException());
         }
     }
+
+    /**
+     * Поток не завершается сервером - события приходят, пока клиент не отменит вызов.
+     */
+    @Override
+    public void watchProducts(WatchProductsRequest request,
+                              StreamObserver<ProductChangeEvent> responseObserver) {
+        productChangeBroadcaster.subscribe(
+                (ServerCallStreamObserver<ProductChangeEvent>) responseObserver, request.getFromSequence());
+    }
+
+    @Override
+    public void adjustStock(AdjustStockRequest request, StreamObserver<AdjustStockResponse> responseObserver) {
+        if (request.getAdjustmentsCount() > MAX_STOCK_ADJUSTMENTS) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("At most " + MAX_STOCK_ADJUSTMENTS + " adjustments per request")
+                    .asRuntimeException());
+            return;
+        }
+
+        try {
+            AdjustStockResponse.Builder response = AdjustStockResponse.newBuilder();
+            List<StockAdjustmentItem> items = new ArrayList<>(request.getAdjustmentsCount());
+            for (StockAdjustment adjustment : request.getAdjustmentsList()) {
+                try {
+                    UUID productId = UUID.fromString(adjustment.getProductId());
+                    items.add(new StockAdjustmentItem(productId, adjustment.getDelta()));
+                } catch (IllegalArgumentException e) {
+                    // Неверный UUID не валит всю пачку
+                    response.addRejected(AdjustStockResponse.Rejected.newBuilder()
+                            .setProductId(adjustment.getProductId())
+                            .setDelta(adjustment.getDelta())
+                            .setReason(AdjustStockResponse.Rejected.Reason.INVALID));
+                }
+            }
+
+            StockAdjustmentResponse result = stockAdjustmentService.adjustStock(items);
+            for (AdjustedStock applied : result.getApplied()) {
+                response.addApplied(AdjustStockResponse.Applied.newBuilder()
+                        .setProductId(applied.getProductId().toString())
+                        .setQuantity(applied.getQuantity()));
+            }
+            for (RejectedStockAdjustment rejected : result.getRejected()) {
+                response.addRejected(AdjustStockResponse.Rejected.newBuilder()
+                        .setProductId(rejected.getProductId().toString())
+                        .setDelta(rejected.getDelta())
+                        .setAvailableQuantity(rejected.getAvailableQuantity())
+                        .setReason(AdjustStockResponse.Rejected.Reason.valueOf(rejected.getReason().name())));
+            }
+
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+
+        } catch (InvalidStockAdjustmentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            log.error("gRPC error", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Internal error")
+                    .asRuntimeException());
+        }
+    }
 }
@@ -0,0 +1,205 @@
+package com.onlinestore.inventory.grpc;
+
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import com.onlinestore.inventory.service.ProductChangedEvent;
+import com.onlinestore.inventory.service.ProductSnapshot;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Рассылает изменения товаров открытым потокам WatchProducts.
+ * Новые события уходят только после коммита. Подписчик с from_sequence сначала получает
+ * пропущенные записи из product_changes, живые события на это время буферизуются.
+ *
+ * sequence выдаётся при вставке, а не при коммите: при параллельных изменениях живые события
+ * могут прийти не по порядку, поэтому клиент сравнивает sequence только в пределах одного товара
+ * и возобновляет поток не с наибольшего полученного, а с отстающей отметки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductChangeBroadcaster {
+
+    private static final int CATCH_UP_PAGE_SIZE = 500;
+
+    private final ProductChangeRepository productChangeRepository;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Больше событий не догоняем - клиенту дешевле сбросить свою копию каталога
+    @Value("${inventory.change-feed.max-catch-up:100000}")
+    private long maxCatchUp;
+
+    /**
+     * @param fromSequence последний полученный клиентом sequence; 0 - только новые события
+     */
+    public void subscribe(ServerCallStreamObserver<ProductChangeEvent> observer, long fromSequence) {
+        Subscriber subscriber = new Subscriber(observer);
+        observer.setOnCancelHandler(() -> {
+            subscribers.remove(subscriber);
+            log.debug("WatchProducts subscriber disconnected, {} left", subscribers.size());
+        });
+        // Регистрируем до чтения журнала, чтобы не потерять события, закоммиченные во время догонки
+        subscribers.add(subscriber);
+        log.debug("WatchProducts subscriber connected from sequence {}, {} total", fromSequence, subscribers.size());
+
+        if (fromSequence > 0 && !catchUp(subscriber, fromSequence)) {
+            subscribers.remove(subscriber);
+            return;
+        }
+        subscriber.goLive();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductChangeEvent message = toMessage(event.change());
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    private boolean catchUp(Subscriber subscriber, long fromSequence) {
+        Long minSequence = productChangeRepository.findMinSequence();
+        long missed = productChangeRepository.countBySequenceGreaterThan(fromSequence);
+        if ((minSequence != null && fromSequence < minSequence - 1) || missed > maxCatchUp) {
+            subscriber.observer.onError(Status.OUT_OF_RANGE
+                    .withDescription("Sequence " + fromSequence + " is no longer available, resubscribe from 0")
+                    .asRuntimeException());
+            return false;
+        }
+
+        long sequence = fromSequence;
+        List<ProductChange> page;
+        do {
+            page = productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                    sequence, PageRequest.of(0, CATCH_UP_PAGE_SIZE));
+            for (ProductChange change : page) {
+                if (subscriber.observer.isCancelled()) {
+                    return false;
+                }
+                subscriber.replay(toMessage(change));
+                sequence = change.getSequence();
+            }
+        } while (page.size() == CATCH_UP_PAGE_SIZE);
+
+        log.debug("WatchProducts subscriber caught up {} changes after sequence {}", missed, fromSequence);
+        return true;
+    }
+
+    private static ProductChangeEvent toMessage(ProductChange change) {
+        ProductChangeEvent.Builder builder = ProductChangeEvent.newBuilder()
+                .setSequence(change.getSequence())
+                .setProductId(change.getProductId().toString())
+                .setType(ProductChangeEvent.Type.valueOf(change.getType().name()));
+
+        if (change.getType() != ProductChange.Type.DELETED) {
+            ProductSnapshot product = ProductSnapshot.from(change);
+            builder.setName(product.name())
+                    .setQuantity(product.quantity())
+                    .setPriceCents(product.priceCents())
+                    .setDiscountBasisPoints(product.discountBasisPoints())
+                    .setPrice(product.price())
+                    .setDiscount(product.discountPercent());
+        }
+        return builder.build();
+    }
+
+    /**
+     * StreamObserver не потокобезопасен, а события приходят из разных транзакций -
+     * все отправки идут под lock подписчика. ReentrantLock, а не synchronized: onNext пишет
+     * в сеть, и виртуальный поток под монитором закрепился бы за потоком платформы.
+     */
+    private final class Subscriber {
+
+        private final ServerCallStreamObserver<ProductChangeEvent> observer;
+        private final List<ProductChangeEvent> pending = new ArrayList<>();
+        private final Set<Long> replayed = new HashSet<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean live;
+
+        private Subscriber(ServerCallStreamObserver<ProductChangeEvent> observer) {
+            this.observer = observer;
+        }
+
+        void replay(ProductChangeEvent event) {
+            lock.lock();
+            try {
+                replayed.add(event.getSequence());
+                observer.onNext(event);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void offer(ProductChangeEvent event) {
+            lock.lock();
+            try {
+                if (live) {
+                    send(event);
+                } else {
+                    pending.add(event);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void goLive() {
+            lock.lock();
+            try {
+                pending.sort(Comparator.comparingLong(ProductChangeEvent::getSequence));
+                for (ProductChangeEvent event : pending) {
+                    // Событие могло попасть и в буфер, и в прочитанный журнал
+                    if (!replayed.contains(event.getSequence())) {
+                        send(event);
+                    }
+                }
+                pending.clear();
+                replayed.clear();
+                live = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void send(ProductChangeEvent event) {
+            if (observer.isCancelled() || !subscribers.contains(this)) {
+                return;
+            }
+            try {
+                if (!observer.isReady()) {
+                    // Клиент не успевает читать - не копим события в буфере, а рвём поток:
+                    // клиент переподключится со своим последним sequence
+                    subscribers.remove(this);
+                    observer.onError(Status.RESOURCE_EXHAUSTED
+                            .withDescription("Subscriber is too slow")
+                            .asRuntimeException());
+                    return;
+                }
+                observer.onNext(event);
+            } catch (RuntimeException e) {
+                log.warn("Failed to send product change to subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+            }
+        }
+    }
+}
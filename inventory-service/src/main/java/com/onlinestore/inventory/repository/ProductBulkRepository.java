@@ -0,0 +1,29 @@
+package com.onlinestore.inventory.repository;
+
+import com.onlinestore.inventory.entity.Product;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/** Пакетные операции над products одним SQL-запросом на пачку, в обход persistence context. */
+public interface ProductBulkRepository {
+
+  /** Наибольшая пачка: PostgreSQL принимает до 32767 параметров, MERGE товаров берёт 5 на строку. */
+  int MAX_BATCH_SIZE = 32767 / 5;
+
+  /**
+   * Блокирует (FOR UPDATE) и возвращает существующие товары из ids. Возвращённые объекты не
+   * управляются Hibernate.
+   */
+  Map<UUID, Product> lockAllById(Collection<UUID> ids);
+
+  /** Вставляет новые и перезаписывает существующие товары одним MERGE. id должны быть заданы. */
+  void upsertAll(List<Product> products);
+
+  /**
+   * Прибавляет delta к остатку одним MERGE на всю пачку. Строки, где остаток ушёл бы в минус, не
+   * меняются.
+   */
+  void adjustQuantities(Map<UUID, Integer> deltas);
+}
@@ -0,0 +1,14 @@
+package com.onlinestore.inventory.repository;
+
+import com.onlinestore.inventory.entity.ProductChange;
+import java.util.List;
+
+public interface ProductChangeBulkRepository {
+
+  /**
+   * Пишет записи журнала многострочными INSERT и проставляет им sequence и changedAt. Через saveAll
+   * с IDENTITY Hibernate вставлял бы их по одной. Записей на товар бывает две (цена и остаток),
+   * поэтому при большой пачке INSERT делится так, чтобы не выйти за лимит параметров PostgreSQL.
+   */
+  void insertAll(List<ProductChange> changes);
+}
@@ -0,0 +1,68 @@
+package com.onlinestore.inventory.repository;
+
+import com.onlinestore.inventory.entity.ProductChange;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+@RequiredArgsConstructor
+public class ProductChangeBulkRepositoryImpl implements ProductChangeBulkRepository {
+
+  // 7 параметров на строку, лимит PostgreSQL - 32767 на запрос
+  private static final int MAX_ROWS_PER_INSERT = 32767 / 7;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void insertAll(List<ProductChange> changes) {
+    Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+    for (int from = 0; from < changes.size(); from += MAX_ROWS_PER_INSERT) {
+      insertBatch(
+          changes.subList(from, Math.min(from + MAX_ROWS_PER_INSERT, changes.size())), changedAt);
+    }
+  }
+
+  private void insertBatch(List<ProductChange> changes, Timestamp changedAt) {
+    String sql =
+        "INSERT INTO product_changes"
+            + " (product_id, change_type, name, quantity, price, sale, changed_at) VALUES "
+            + String.join(", ", Collections.nCopies(changes.size(), "(?, ?, ?, ?, ?, ?, ?)"));
+    GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+
+    jdbcTemplate.update(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql, new String[] {"sequence"});
+          int index = 1;
+          for (ProductChange change : changes) {
+            ps.setObject(index++, change.getProductId());
+            ps.setString(index++, change.getType().name());
+            ps.setString(index++, change.getName());
+            if (change.getQuantity() != null) {
+              ps.setInt(index++, change.getQuantity());
+            } else {
+              ps.setNull(index++, Types.INTEGER);
+            }
+            ps.setBigDecimal(index++, change.getPrice());
+            ps.setBigDecimal(index++, change.getSale());
+            ps.setTimestamp(index++, changedAt);
+          }
+          return ps;
+        },
+        keyHolder);
+
+    // Ключи возвращаются в порядке строк VALUES
+    List<Map<String, Object>> keys = keyHolder.getKeyList();
+    for (int i = 0; i < changes.size(); i++) {
+      ProductChange change = changes.get(i);
+      change.setSequence(((Number) keys.get(i).values().iterator().next()).longValue());
+      change.setChangedAt(changedAt.toLocalDateTime());
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.onlinestore.inventory.repository;
+
+import com.onlinestore.inventory.entity.ProductChange;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductChangeRepository
+    extends JpaRepository<ProductChange, Long>, ProductChangeBulkRepository {
+
+  List<ProductChange> findBySequenceGreaterThanOrderBySequenceAsc(long sequence, Pageable pageable);
+
+  long countBySequenceGreaterThan(long sequence);
+
+  @Query("select min(c.sequence) from ProductChange c")
+  Long findMinSequence();
+
+  @Query("select max(c.sequence) from ProductChange c where c.changedAt < :before")
+  Long findMaxSequenceChangedBefore(@Param("before") LocalDateTime before);
+
+  /** Последняя запись не удаляется - по ней клиент понимает, что журнал не обрезан после него. */
+  @Modifying
+  @Query(
+      "delete from ProductChange c where c.changedAt < :cutoff"
+          + " and c.sequence < (select max(m.sequence) from ProductChange m)")
+  int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,26 @@
+package com.onlinestore.inventory.repository;
+
+import com.onlinestore.inventory.dto.ProductFilter;
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSort;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Листинг товаров сразу в ProductResponse, без загрузки сущностей в persistence context.
+ */
+public interface ProductQueryRepository {
+
+  /**
+   * Страница после курсора: товары строго после (afterName, afterId) в порядке sort.
+   *
+   * @param afterName ключ name последнего товара предыдущей страницы, только для NAME
+   * @param afterId id последнего товара предыдущей страницы, null - первая страница
+   */
+  List<ProductResponse> findPage(
+      ProductFilter filter, ProductSort sort, String afterName, UUID afterId, int limit);
+
+  /** Поток всех подходящих товаров в порядке id. Закрывать обязательно, внутри открытой транзакции. */
+  Stream<ProductResponse> streamAll(ProductFilter filter);
+}
@@ -0,0 +1,123 @@
+package com.onlinestore.inventory.repository;
+
+import com.onlinestore.inventory.dto.ProductFilter;
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSort;
+import com.onlinestore.inventory.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+
+/**
+ * Запросы строятся через Criteria API: в SQL попадают только заданные фильтры, и планировщик
+ * видит конкретные условия вместо "(:param is null or ...)". Индексы под них - в
+ * V3__add_product_listing_indexes.sql.
+ */
+public class ProductQueryRepositoryImpl implements ProductQueryRepository {
+
+  private static final int EXPORT_FETCH_SIZE = 1000;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<ProductResponse> findPage(
+      ProductFilter filter, ProductSort sort, String afterName, UUID afterId, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductResponse> query = cb.createQuery(ProductResponse.class);
+    Root<Product> product = query.from(Product.class);
+    Path<UUID> id = product.get("id");
+    Path<String> name = product.get("name");
+
+    List<Predicate> predicates = filterPredicates(cb, product, filter);
+    if (afterId != null) {
+      if (sort == ProductSort.NAME) {
+        // name >= :afterName отдельным условием - чтобы индекс (name, id) использовался как range scan
+        predicates.add(cb.greaterThanOrEqualTo(name, afterName));
+        predicates.add(
+            cb.or(
+                cb.greaterThan(name, afterName),
+                cb.and(cb.equal(name, afterName), cb.greaterThan(id, afterId))));
+      } else {
+        predicates.add(cb.greaterThan(id, afterId));
+      }
+    }
+
+    query
+        .select(projection(cb, product))
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(
+            sort == ProductSort.NAME ? List.of(cb.asc(name), cb.asc(id)) : List.of(cb.asc(id)));
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public Stream<ProductResponse> streamAll(ProductFilter filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductResponse> query = cb.createQuery(ProductResponse.class);
+    Root<Product> product = query.from(Product.class);
+
+    query
+        .select(projection(cb, product))
+        .where(filterPredicates(cb, product, filter).toArray(Predicate[]::new))
+        .orderBy(cb.asc(product.get("id")));
+
+    return entityManager
+        .createQuery(query)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream();
+  }
+
+  private static CompoundSelection<ProductResponse> projection(
+      CriteriaBuilder cb, Root<Product> product) {
+    return cb.construct(
+        ProductResponse.class,
+        product.get("id"),
+        product.get("name"),
+        product.get("quantity"),
+        product.get("price"),
+        product.get("sale"));
+  }
+
+  private static List<Predicate> filterPredicates(
+      CriteriaBuilder cb, Root<Product> product, ProductFilter filter) {
+    List<Predicate> predicates = new ArrayList<>();
+    if (filter == null) {
+      return predicates;
+    }
+
+    Path<Integer> quantity = product.get("quantity");
+    Path<BigDecimal> price = product.get("price");
+    Path<BigDecimal> sale = product.get("sale");
+
+    if (filter.getInStock() != null) {
+      predicates.add(
+          filter.getInStock() ? cb.greaterThan(quantity, 0) : cb.lessThanOrEqualTo(quantity, 0));
+    }
+    if (filter.getMinPrice() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(price, filter.getMinPrice()));
+    }
+    if (filter.getMaxPrice() != null) {
+      predicates.add(cb.lessThanOrEqualTo(price, filter.getMaxPrice()));
+    }
+    if (filter.getHasSale() != null) {
+      predicates.add(
+          filter.getHasSale()
+              ? cb.greaterThan(sale, BigDecimal.ZERO)
+              : cb.or(cb.isNull(sale), cb.equal(sale, BigDecimal.ZERO)));
+    }
+    return predicates;
+  }
+}
@@ -6,4 +6,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {}
+public interface ProductRepository
+    extends JpaRepository<Product, UUID>,
+        ProductQueryRepository,
+        ProductBulkRepository,
+        ProductSearchRepository {}
@@ -0,0 +1,17 @@
+package com.onlinestore.inventory.repository;
+
+import com.onlinestore.inventory.dto.ProductResponse;
+import java.util.List;
+
+/** Поиск по названию на индексах из V4__add_product_search_indexes.sql (только PostgreSQL). */
+public interface ProductSearchRepository {
+
+  /**
+   * Товары, подходящие по полнотекстовому запросу или похожие по триграммам, по убыванию
+   * релевантности.
+   *
+   * @param tsQuery запрос для to_tsquery('simple', ...), например "iph:* &amp; 15:*"
+   * @param text нормализованная строка запроса для сравнения по триграммам
+   */
+  List<ProductResponse> search(String tsQuery, String text, int limit, int offset);
+}
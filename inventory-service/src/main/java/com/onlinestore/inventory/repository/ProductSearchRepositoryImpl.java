@@ -0,0 +1,48 @@
+package com.onlinestore.inventory.repository;
+
+import com.onlinestore.inventory.dto.ProductResponse;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Оба условия WHERE обслуживаются своими GIN-индексами (BitmapOr): name_tsv @@ - по словам и
+ * префиксам слов, &lt;% (word_similarity) - с опечатками. Ранг - сумма ts_rank и word_similarity,
+ * при равенстве порядок по id, чтобы страницы не перемешивались.
+ */
+@RequiredArgsConstructor
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+  private static final String SEARCH_SQL =
+      "SELECT id, name, quantity, price, sale FROM products"
+          + " WHERE name_tsv @@ to_tsquery('simple', :tsquery) OR :text <% lower(name)"
+          + " ORDER BY ts_rank(name_tsv, to_tsquery('simple', :tsquery))"
+          + " + word_similarity(:text, lower(name)) DESC, id"
+          + " LIMIT :limit OFFSET :offset";
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  @Override
+  public List<ProductResponse> search(String tsQuery, String text, int limit, int offset) {
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("tsquery", tsQuery)
+            .addValue("text", text)
+            .addValue("limit", limit)
+            .addValue("offset", offset);
+
+    return namedParameterJdbcTemplate.query(
+        SEARCH_SQL,
+        params,
+        (rs, rowNum) ->
+            ProductResponse.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .quantity(rs.getInt("quantity"))
+                .price(rs.getBigDecimal("price"))
+                .sale(rs.getBigDecimal("sale"))
+                .build());
+  }
+}
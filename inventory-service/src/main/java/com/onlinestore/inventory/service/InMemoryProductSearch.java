@@ -0,0 +1,181 @@
+package com.onlinestore.inventory.service;
+
+import com.onlinestore.inventory.dto.ProductFilter;
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSearchResponse;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import com.onlinestore.inventory.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Поиск товаров из ProductSearchIndex вместо PostgreSQL (inventory.search.index.enabled=true).
+ * Индекс строится из всех товаров при старте, до приёма запросов, и дальше обновляется двумя
+ * путями. Изменения этой реплики (ProductChangedEvent) копятся до конца транзакции и после коммита
+ * применяются одной пачкой - чанк импорта обновляет индекс один раз, а не на каждый товар.
+ * Изменения других реплик раз в poll-interval читаются из product_changes. Находит только по
+ * префиксам слов, без опечаток и без ранжирования по релевантности.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.search.index.enabled", havingValue = "true")
+public class InMemoryProductSearch {
+
+  private static final int POLL_PAGE_SIZE = 500;
+
+  private final ProductSearchIndex index = new ProductSearchIndex();
+
+  private final ProductRepository productRepository;
+  private final ProductChangeRepository productChangeRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  // Не меньше самой долгой транзакции изменения товаров: sequence выдаётся при вставке, и запись
+  // с меньшим номером может стать видна позже записей с большими
+  @Value("${inventory.search.index.resume-overlap:1m}")
+  private Duration resumeOverlap;
+
+  // Опрос журнала идёт только из потока планировщика
+  private final Deque<Poll> recentPolls = new ArrayDeque<>();
+  private long pollFrom;
+
+  @PostConstruct
+  public void load() {
+    long start = System.nanoTime();
+    Long changedBefore =
+        productChangeRepository.findMaxSequenceChangedBefore(
+            LocalDateTime.now().minus(resumeOverlap));
+    pollFrom = changedBefore != null ? changedBefore : 0;
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          try (Stream<ProductResponse> products =
+              productRepository.streamAll(new ProductFilter())) {
+            index.rebuild(products.map(ProductSnapshot::from).iterator());
+          }
+        });
+
+    ProductSearchIndex.Stats stats = index.stats();
+    log.info(
+        "Product search index built in {} ms: {} products, {} terms, {} postings, ~{} MB",
+        (System.nanoTime() - start) / 1_000_000,
+        stats.products(),
+        stats.terms(),
+        stats.postings(),
+        stats.estimatedBytes() / (1024 * 1024));
+  }
+
+  public ProductSearchResponse search(String query, int page, int size) {
+    List<ProductSnapshot> rows =
+        index.search(ProductSearchIndex.tokens(query), page * size, size + 1);
+
+    boolean hasNext = rows.size() > size;
+    return ProductSearchResponse.builder()
+        .query(query)
+        .page(page)
+        .size(size)
+        .hasNext(hasNext)
+        .items(
+            (hasNext ? rows.subList(0, size) : rows)
+                .stream().map(InMemoryProductSearch::toResponse).toList())
+        .build();
+  }
+
+  @EventListener
+  public void onProductChanged(ProductChangedEvent event) {
+    ProductSearchIndex.Update update = toUpdate(event.change());
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      index.apply(List.of(update));
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<ProductSearchIndex.Update> pending =
+        (List<ProductSearchIndex.Update>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      List<ProductSearchIndex.Update> batch = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(this, batch);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              index.apply(batch);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(
+                  InMemoryProductSearch.this);
+            }
+          });
+      pending = batch;
+    }
+    pending.add(update);
+  }
+
+  /**
+   * Применяет изменения из product_changes, в том числе сделанные другими репликами. Читает с
+   * наибольшего sequence, прочитанного раньше чем resume-overlap назад, поэтому изменение долгой
+   * транзакции, закоммиченной позже, не пропускается. Повторно прочитанные записи индекс
+   * пропускает по sequence.
+   */
+  @Scheduled(fixedDelayString = "${inventory.search.index.poll-interval:5s}")
+  public void pollChanges() {
+    long now = System.nanoTime();
+    long sequence = pollFrom;
+    List<ProductChange> page;
+    do {
+      page =
+          productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+              sequence, PageRequest.of(0, POLL_PAGE_SIZE));
+      index.apply(page.stream().map(InMemoryProductSearch::toUpdate).toList());
+      if (!page.isEmpty()) {
+        sequence = page.get(page.size() - 1).getSequence();
+      }
+    } while (page.size() == POLL_PAGE_SIZE);
+
+    recentPolls.addLast(new Poll(now, sequence));
+    while (!recentPolls.isEmpty()
+        && now - recentPolls.peekFirst().startedAt() >= resumeOverlap.toNanos()) {
+      pollFrom = Math.max(pollFrom, recentPolls.pollFirst().lastSequence());
+    }
+  }
+
+  private static ProductSearchIndex.Update toUpdate(ProductChange change) {
+    long sequence = change.getSequence() != null ? change.getSequence() : 0;
+    return new ProductSearchIndex.Update(
+        change.getProductId(),
+        change.getType() == ProductChange.Type.DELETED ? null : ProductSnapshot.from(change),
+        sequence);
+  }
+
+  private static ProductResponse toResponse(ProductSnapshot product) {
+    return ProductResponse.builder()
+        .id(product.id())
+        .name(product.name())
+        .quantity(product.quantity())
+        .price(BigDecimal.valueOf(product.priceCents(), 2))
+        .sale(BigDecimal.valueOf(product.discountBasisPoints(), 2))
+        .build();
+  }
+
+  private record Poll(long startedAt, long lastSequence) {}
+}
@@ -0,0 +1,88 @@
+package com.onlinestore.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.onlinestore.inventory.exception.ProductNotFoundException;
+import com.onlinestore.inventory.repository.ProductRepository;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-through кэш товаров для checkAvailability. Запрос в БД идёт только при промахе, повторные
+ * чтения отдают готовый ProductSnapshot без транзакции и Hibernate. Отсутствующие товары тоже
+ * кэшируются, чтобы запросы с несуществующими id не доходили до БД.
+ *
+ * <p>Запись сбрасывается после коммита любого изменения товара (ProductChangedEvent). Caffeine
+ * дожидается загрузки, идущей в этот момент, поэтому устаревший снимок не переживает сброс.
+ * События приходят только от изменений на этой реплике, изменения на других ограничивает TTL:
+ * ttl для найденных товаров и более короткий missing-ttl для отсутствующих - созданный на другой
+ * реплике товар не должен долго оставаться "не найден".
+ */
+@Slf4j
+@Component
+public class ProductCatalog {
+
+  private final ProductRepository productRepository;
+  private final Cache<UUID, Optional<ProductSnapshot>> snapshots;
+
+  public ProductCatalog(
+      ProductRepository productRepository,
+      @Value("${inventory.catalog.maximum-size:100000}") long maximumSize,
+      @Value("${inventory.catalog.ttl:5s}") Duration ttl,
+      @Value("${inventory.catalog.missing-ttl:1s}") Duration missingTtl) {
+    this.productRepository = productRepository;
+    this.snapshots =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new SnapshotExpiry(ttl.toNanos(), missingTtl.toNanos()))
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * @throws ProductNotFoundException если товара нет
+   */
+  public ProductSnapshot get(UUID id) {
+    return snapshots
+        .get(id, this::load)
+        .orElseThrow(() -> new ProductNotFoundException(id));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductChanged(ProductChangedEvent event) {
+    snapshots.invalidate(event.change().getProductId());
+  }
+
+  private Optional<ProductSnapshot> load(UUID id) {
+    log.debug("Loading product {} into catalog", id);
+    return productRepository.findById(id).map(ProductSnapshot::from);
+  }
+
+  /** Срок жизни считается от загрузки и не продлевается чтениями. */
+  private record SnapshotExpiry(long ttlNanos, long missingTtlNanos)
+      implements Expiry<UUID, Optional<ProductSnapshot>> {
+
+    @Override
+    public long expireAfterCreate(UUID id, Optional<ProductSnapshot> snapshot, long currentTime) {
+      return snapshot.isPresent() ? ttlNanos : missingTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        UUID id, Optional<ProductSnapshot> snapshot, long currentTime, long currentDuration) {
+      return expireAfterCreate(id, snapshot, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        UUID id, Optional<ProductSnapshot> snapshot, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
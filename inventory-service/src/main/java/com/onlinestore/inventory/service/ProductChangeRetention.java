@@ -0,0 +1,32 @@
+package com.onlinestore.inventory.service;
+
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Удаляет из product_changes записи старше retention - догнать с них клиент уже не сможет. */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductChangeRetention {
+
+  private final ProductChangeRepository productChangeRepository;
+
+  @Value("${inventory.change-feed.retention:7d}")
+  private Duration retention;
+
+  @Scheduled(fixedDelayString = "${inventory.change-feed.cleanup-interval:1h}")
+  @Transactional
+  public void purgeOldChanges() {
+    int deleted = productChangeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+    if (deleted > 0) {
+      log.info("Purged {} product changes older than {}", deleted, retention);
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.onlinestore.inventory.service;
+
+import com.onlinestore.inventory.entity.ProductChange;
+
+/**
+ * Изменение товара, уже записанное в журнал product_changes. Публикуется ProductService,
+ * рассылается подписчикам WatchProducts после коммита транзакции.
+ */
+public record ProductChangedEvent(ProductChange change) {}
@@ -0,0 +1,48 @@
+package com.onlinestore.inventory.service;
+
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSort;
+import com.onlinestore.inventory.exception.InvalidProductQueryException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция keyset-пагинации: ключ сортировки последнего товара страницы. Клиенту отдаётся как
+ * непрозрачная base64url-строка, в которую зашит и порядок - курсор от одной сортировки нельзя
+ * применить к другой.
+ */
+public record ProductCursor(ProductSort sort, String name, UUID id) {
+
+  private static final char SEPARATOR = '\n';
+
+  public static ProductCursor after(ProductSort sort, ProductResponse last) {
+    return new ProductCursor(sort, sort == ProductSort.NAME ? last.getName() : null, last.getId());
+  }
+
+  public String encode() {
+    String raw = sort.name() + SEPARATOR + (name != null ? name : "") + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @throws InvalidProductQueryException если курсор повреждён или выдан для другой сортировки
+   */
+  public static ProductCursor decode(String cursor, ProductSort expectedSort) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int first = raw.indexOf(SEPARATOR);
+      int last = raw.lastIndexOf(SEPARATOR);
+      ProductSort sort = ProductSort.valueOf(raw.substring(0, first));
+      if (sort != expectedSort) {
+        throw new InvalidProductQueryException("Cursor was issued for sort " + sort);
+      }
+      String name = sort == ProductSort.NAME ? raw.substring(first + 1, last) : null;
+      return new ProductCursor(sort, name, UUID.fromString(raw.substring(last + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new InvalidProductQueryException("Invalid cursor");
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package com.onlinestore.inventory.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.inventory.dto.ProductImportRecord;
+import com.onlinestore.inventory.exception.InvalidProductImportException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Потоковое чтение загрузки для массового импорта: записи разбираются по одной, файл целиком в
+ * память не читается. Ошибка в отдельной записи возвращается как Entry с error, а сломанная
+ * структура файла - как InvalidProductImportException.
+ */
+public final class ProductImportReader {
+
+  /**
+   * @param number 1-based номер записи в файле
+   * @param error почему запись не удалось разобрать, null - record заполнен
+   */
+  public record Entry(long number, ProductImportRecord record, String error) {}
+
+  private ProductImportReader() {}
+
+  /** JSON-массив объектов ProductImportRecord. */
+  public static Iterator<Entry> json(InputStream body, ObjectMapper objectMapper) {
+    return new JsonEntries(body, objectMapper);
+  }
+
+  /** CSV с заголовком: обязательные колонки name, quantity, price; необязательные id, sale. */
+  public static Iterator<Entry> csv(InputStream body) {
+    return new CsvEntries(body);
+  }
+
+  private abstract static class Entries implements Iterator<Entry> {
+
+    private Entry next;
+    private boolean finished;
+    protected long number;
+
+    @Override
+    public boolean hasNext() {
+      if (next == null && !finished) {
+        try {
+          next = readNext();
+        } catch (IOException e) {
+          throw new InvalidProductImportException(
+              "Failed to read record " + (number + 1) + ": " + e.getMessage(), e);
+        }
+        finished = next == null;
+      }
+      return next != null;
+    }
+
+    @Override
+    public Entry next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry entry = next;
+      next = null;
+      return entry;
+    }
+
+    /** @return следующая запись или null в конце файла */
+    protected abstract Entry readNext() throws IOException;
+  }
+
+  private static final class JsonEntries extends Entries {
+
+    private final InputStream body;
+    private final ObjectMapper objectMapper;
+    private JsonParser parser;
+
+    private JsonEntries(InputStream body, ObjectMapper objectMapper) {
+      this.body = body;
+      this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected Entry readNext() throws IOException {
+      if (parser == null) {
+        parser = objectMapper.getFactory().createParser(body);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+          throw new InvalidProductImportException("Expected a JSON array of products");
+        }
+      }
+
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.END_ARRAY || token == null) {
+        return null;
+      }
+      number++;
+      if (token != JsonToken.START_OBJECT) {
+        throw new InvalidProductImportException("Record " + number + " is not a JSON object");
+      }
+
+      // Сначала дерево, потом маппинг: ошибка типа в поле не сбивает парсер с позиции
+      JsonNode node = parser.readValueAsTree();
+      try {
+        return new Entry(number, objectMapper.treeToValue(node, ProductImportRecord.class), null);
+      } catch (JsonProcessingException e) {
+        return new Entry(number, null, e.getOriginalMessage());
+      }
+    }
+  }
+
+  private static final class CsvEntries extends Entries {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "quantity", "price");
+
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+
+    private CsvEntries(InputStream body) {
+      this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected Entry readNext() throws IOException {
+      if (columns == null) {
+        columns = readHeader();
+      }
+
+      String line;
+      do {
+        line = reader.readLine();
+        if (line == null) {
+          return null;
+        }
+      } while (line.isBlank());
+      number++;
+
+      try {
+        List<String> values = parseLine(line);
+        if (values.size() != columns.size()) {
+          return new Entry(
+              number, null, "Expected " + columns.size() + " columns, got " + values.size());
+        }
+        return new Entry(number, toRecord(values), null);
+      } catch (IllegalArgumentException e) {
+        return new Entry(number, null, e.getMessage());
+      }
+    }
+
+    private Map<String, Integer> readHeader() throws IOException {
+      String header = reader.readLine();
+      if (header == null) {
+        throw new InvalidProductImportException("CSV header is missing");
+      }
+      // BOM, который добавляет Excel
+      if (header.startsWith("\uFEFF")) {
+        header = header.substring(1);
+      }
+
+      List<String> names;
+      try {
+        names = parseLine(header);
+      } catch (IllegalArgumentException e) {
+        throw new InvalidProductImportException("Invalid CSV header: " + e.getMessage());
+      }
+      Map<String, Integer> result = new HashMap<>();
+      for (int i = 0; i < names.size(); i++) {
+        result.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+      }
+      for (String column : REQUIRED_COLUMNS) {
+        if (!result.containsKey(column)) {
+          throw new InvalidProductImportException("CSV header has no column " + column);
+        }
+      }
+      return result;
+    }
+
+    private ProductImportRecord toRecord(List<String> values) {
+      String id = value(values, "id");
+      String quantity = value(values, "quantity");
+      String price = value(values, "price");
+      String sale = value(values, "sale");
+      return ProductImportRecord.builder()
+          .id(id != null ? parse("id", id, UUID::fromString) : null)
+          .name(value(values, "name"))
+          .quantity(quantity != null ? parse("quantity", quantity, Integer::valueOf) : null)
+          .price(price != null ? parse("price", price, BigDecimal::new) : null)
+          .sale(sale != null ? parse("sale", sale, BigDecimal::new) : null)
+          .build();
+    }
+
+    private String value(List<String> values, String column) {
+      Integer index = columns.get(column);
+      if (index == null) {
+        return null;
+      }
+      String value = values.get(index).trim();
+      return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String column, String value, Function<String, T> parser) {
+      try {
+        return parser.apply(value);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid value in column " + column + ": " + value);
+      }
+    }
+
+    /** Поля через запятую, в кавычках допускаются запятые и "" как экранированная кавычка. */
+    private static List<String> parseLine(String line) {
+      List<String> values = new ArrayList<>();
+      StringBuilder current = new StringBuilder();
+      boolean quoted = false;
+      for (int i = 0; i < line.length(); i++) {
+        char c = line.charAt(i);
+        if (quoted) {
+          if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+            current.append('"');
+            i++;
+          } else if (c == '"') {
+            quoted = false;
+          } else {
+            current.append(c);
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          values.add(current.toString());
+          current.setLength(0);
+        } else {
+          current.append(c);
+        }
+      }
+      if (quoted) {
+        throw new IllegalArgumentException("Unterminated quoted value");
+      }
+      values.add(current.toString());
+      return values;
+    }
+  }
+}
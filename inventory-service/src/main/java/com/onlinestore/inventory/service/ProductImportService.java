@@ -0,0 +1,243 @@
+package com.onlinestore.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.inventory.dto.ProductImportChunkSummary;
+import com.onlinestore.inventory.dto.ProductImportError;
+import com.onlinestore.inventory.dto.ProductImportRecord;
+import com.onlinestore.inventory.dto.ProductImportResponse;
+import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.entity.UuidV7;
+import com.onlinestore.inventory.exception.InvalidProductImportException;
+import com.onlinestore.inventory.repository.ProductBulkRepository;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import com.onlinestore.inventory.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Массовый импорт товаров из ERP. Загрузка читается потоково и режется на пачки по chunk-size
+ * записей; каждая пачка пишется в своей транзакции тремя запросами: блокировка существующих строк,
+ * MERGE товаров и INSERT в журнал изменений. Ошибка пачки откатывает только её - уже
+ * закоммиченные пачки остаются, в ответе это видно по статусу каждой пачки.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+  private final ProductRepository productRepository;
+  private final ProductChangeRepository productChangeRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+
+  @Value("${inventory.import.chunk-size:1000}")
+  private int chunkSize;
+
+  @Value("${inventory.import.max-errors-per-chunk:100}")
+  private int maxErrorsPerChunk;
+
+  @PostConstruct
+  public void validateChunkSize() {
+    if (chunkSize < 1 || chunkSize > ProductBulkRepository.MAX_BATCH_SIZE) {
+      throw new IllegalStateException(
+          "inventory.import.chunk-size must be between 1 and "
+              + ProductBulkRepository.MAX_BATCH_SIZE
+              + ", got "
+              + chunkSize);
+    }
+  }
+
+  public ProductImportResponse importJson(InputStream body) {
+    return importEntries(ProductImportReader.json(body, objectMapper));
+  }
+
+  public ProductImportResponse importCsv(InputStream body) {
+    return importEntries(ProductImportReader.csv(body));
+  }
+
+  private ProductImportResponse importEntries(Iterator<ProductImportReader.Entry> entries) {
+    long start = System.nanoTime();
+    ProductImportResponse response = ProductImportResponse.builder().build();
+    List<ProductImportReader.Entry> chunk = new ArrayList<>(chunkSize);
+
+    try {
+      while (entries.hasNext()) {
+        chunk.add(entries.next());
+        if (chunk.size() == chunkSize) {
+          addChunk(response, importChunk(response.getChunks().size() + 1, chunk));
+          chunk.clear();
+        }
+      }
+    } catch (InvalidProductImportException e) {
+      log.warn("Product import stopped after {} records: {}", response.getRecords(), e.getMessage());
+      response.setError(e.getMessage());
+    }
+    // Записи, прочитанные до обрыва файла, тоже пишем
+    if (!chunk.isEmpty()) {
+      addChunk(response, importChunk(response.getChunks().size() + 1, chunk));
+    }
+
+    response.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+    log.info(
+        "Product import finished: {} records, {} created, {} updated, {} unchanged, {} rejected,"
+            + " {} failed in {} ms",
+        response.getRecords(),
+        response.getCreated(),
+        response.getUpdated(),
+        response.getUnchanged(),
+        response.getRejected(),
+        response.getFailed(),
+        response.getDurationMillis());
+    return response;
+  }
+
+  private ProductImportChunkSummary importChunk(int number, List<ProductImportReader.Entry> chunk) {
+    long start = System.nanoTime();
+    ProductImportChunkSummary summary =
+        ProductImportChunkSummary.builder()
+            .chunk(number)
+            .firstRecord(chunk.get(0).number())
+            .lastRecord(chunk.get(chunk.size() - 1).number())
+            .build();
+
+    List<ProductImportRecord> valid = new ArrayList<>(chunk.size());
+    Set<UUID> ids = new HashSet<>();
+    for (ProductImportReader.Entry entry : chunk) {
+      String error = entry.error() != null ? entry.error() : validate(entry.record());
+      // Две строки одного товара в одном MERGE PostgreSQL не примет - оставляем первую
+      if (error == null && entry.record().getId() != null && !ids.add(entry.record().getId())) {
+        error = "Duplicate product id " + entry.record().getId() + " in the same chunk";
+      }
+      if (error != null) {
+        reject(summary, entry.number(), error);
+      } else {
+        valid.add(entry.record());
+      }
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> write(valid, ids, summary));
+      summary.setStatus(ProductImportChunkSummary.Status.COMMITTED);
+    } catch (RuntimeException e) {
+      log.error("Product import chunk {} failed", number, e);
+      summary.setStatus(ProductImportChunkSummary.Status.FAILED);
+      summary.setError(e.getMessage());
+      summary.setCreated(0);
+      summary.setUpdated(0);
+      summary.setUnchanged(0);
+    }
+
+    summary.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+    log.debug(
+        "Product import chunk {} (records {}-{}): {}",
+        number,
+        summary.getFirstRecord(),
+        summary.getLastRecord(),
+        summary.getStatus());
+    return summary;
+  }
+
+  private void write(
+      List<ProductImportRecord> records, Set<UUID> ids, ProductImportChunkSummary summary) {
+    Map<UUID, Product> existing = productRepository.lockAllById(ids);
+    List<Product> products = new ArrayList<>(records.size());
+    List<ProductChange> changes = new ArrayList<>(records.size());
+
+    for (ProductImportRecord record : records) {
+      Product product =
+          Product.builder()
+              .id(record.getId() != null ? record.getId() : UuidV7.next())
+              .name(record.getName())
+              .quantity(record.getQuantity())
+              .price(record.getPrice())
+              .sale(record.getSale() != null ? record.getSale() : BigDecimal.ZERO)
+              .build();
+
+      Product current = existing.get(product.getId());
+      if (current == null) {
+        products.add(product);
+        changes.add(ProductChange.of(product, ProductChange.Type.CREATED));
+        summary.setCreated(summary.getCreated() + 1);
+        continue;
+      }
+
+      boolean metadataChanged =
+          !product.getName().equals(current.getName())
+              || product.getPrice().compareTo(current.getPrice()) != 0
+              || current.getSale() == null
+              || product.getSale().compareTo(current.getSale()) != 0;
+      boolean quantityChanged = !product.getQuantity().equals(current.getQuantity());
+      if (!metadataChanged && !quantityChanged) {
+        summary.setUnchanged(summary.getUnchanged() + 1);
+        continue;
+      }
+
+      products.add(product);
+      if (metadataChanged) {
+        changes.add(ProductChange.of(product, ProductChange.Type.PRICE_CHANGED));
+      }
+      if (quantityChanged) {
+        changes.add(ProductChange.of(product, ProductChange.Type.QUANTITY_CHANGED));
+      }
+      summary.setUpdated(summary.getUpdated() + 1);
+    }
+
+    productRepository.upsertAll(products);
+    productChangeRepository.insertAll(changes);
+    // Слушатели (каталог, WatchProducts) получат события после коммита пачки
+    changes.forEach(change -> eventPublisher.publishEvent(new ProductChangedEvent(change)));
+  }
+
+  private String validate(ProductImportRecord record) {
+    Set<ConstraintViolation<ProductImportRecord>> violations = validator.validate(record);
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining("; "));
+  }
+
+  private void reject(ProductImportChunkSummary summary, long record, String message) {
+    summary.setRejected(summary.getRejected() + 1);
+    if (summary.getErrors().size() < maxErrorsPerChunk) {
+      summary.getErrors().add(new ProductImportError(record, message));
+    }
+  }
+
+  private static void addChunk(ProductImportResponse response, ProductImportChunkSummary summary) {
+    response.getChunks().add(summary);
+    response.setRecords(response.getRecords() + summary.getLastRecord() - summary.getFirstRecord() + 1);
+    response.setRejected(response.getRejected() + summary.getRejected());
+    if (summary.getStatus() == ProductImportChunkSummary.Status.COMMITTED) {
+      response.setCreated(response.getCreated() + summary.getCreated());
+      response.setUpdated(response.getUpdated() + summary.getUpdated());
+      response.setUnchanged(response.getUnchanged() + summary.getUnchanged());
+    } else {
+      response.setFailed(
+          response.getFailed() + (int) (summary.getLastRecord() - summary.getFirstRecord() + 1)
+              - summary.getRejected());
+    }
+  }
+}
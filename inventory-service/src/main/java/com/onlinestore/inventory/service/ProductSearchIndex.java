@@ -0,0 +1,464 @@
+package com.onlinestore.inventory.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Инвертированный индекс названий товаров в памяти для поиска по префиксам слов.
+ *
+ * <p>Товары пронумерованы подряд (id интернируются в int), слово названия отображается в
+ * отсортированный int[] номеров товаров. Словарь - отсортированный массив, поэтому все слова с
+ * данным префиксом лежат одним диапазоном и находятся двоичным поиском.
+ *
+ * <p>Читатели работают без блокировок с неизменяемым State. Писатель (один, под монитором)
+ * собирает новый State, копируя только затронутые массивы: страницы товаров, списки изменившихся
+ * слов и при появлении или исчезновении слова - сам словарь. Изменения применяются пачками
+ * ({@link #apply}): словарь копируется один раз на пачку, а не на каждый товар. Номер удалённого
+ * товара не освобождается; rebuild уплотняет нумерацию.
+ */
+public final class ProductSearchIndex {
+
+  private static final int PAGE_BITS = 10;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int[] NO_DOCS = new int[0];
+
+  /**
+   * @param pages товары по номеру, страницами по PAGE_SIZE; null - товар удалён
+   * @param size сколько номеров выдано
+   */
+  private record State(
+      String[] terms, int[][] postings, ProductSnapshot[][] pages, int size, int products) {
+
+    ProductSnapshot product(int doc) {
+      return pages[doc >>> PAGE_BITS][doc & (PAGE_SIZE - 1)];
+    }
+  }
+
+  /**
+   * @param products товаров в индексе
+   * @param terms различных слов
+   * @param postings номеров товаров во всех списках слов
+   * @param estimatedBytes оценка занятой кучи для 64-битной JVM со сжатыми указателями
+   */
+  public record Stats(int products, int terms, long postings, long estimatedBytes) {}
+
+  /**
+   * @param product состояние товара после изменения; null - товар удалён
+   * @param sequence номер изменения из журнала
+   */
+  public record Update(UUID id, ProductSnapshot product, long sequence) {}
+
+  private volatile State state =
+      new State(new String[0], new int[0][], new ProductSnapshot[0][], 0, 0);
+
+  // Дальше - состояние только для писателя, под this
+
+  // Номер товара -> id; открытая адресация по id для поиска номера
+  private UUID[] ids = new UUID[0];
+  private int[] slots = emptySlots(16);
+  // sequence последнего применённого изменения товара: запоздавшее старое событие не откатит новое
+  private long[] sequences = new long[0];
+
+  /** Заменяет содержимое индекса. Товары с повторяющимся id пропускаются. */
+  public synchronized void rebuild(Iterator<ProductSnapshot> products) {
+    ids = new UUID[PAGE_SIZE];
+    slots = emptySlots(2 * PAGE_SIZE);
+    sequences = new long[PAGE_SIZE];
+
+    Map<String, IntList> postings = new HashMap<>();
+    ProductSnapshot[][] pages = new ProductSnapshot[0][];
+    int size = 0;
+    while (products.hasNext()) {
+      ProductSnapshot product = products.next();
+      int doc = intern(product.id(), size);
+      if (doc < size) {
+        continue;
+      }
+      size++;
+      if ((doc >>> PAGE_BITS) == pages.length) {
+        pages = Arrays.copyOf(pages, pages.length + 1);
+        pages[pages.length - 1] = new ProductSnapshot[PAGE_SIZE];
+      }
+      pages[doc >>> PAGE_BITS][doc & (PAGE_SIZE - 1)] = product;
+      for (String term : tokens(product.name())) {
+        postings.computeIfAbsent(term, t -> new IntList()).add(doc);
+      }
+    }
+
+    String[] terms = postings.keySet().toArray(new String[0]);
+    Arrays.sort(terms);
+    int[][] termPostings = new int[terms.length][];
+    for (int i = 0; i < terms.length; i++) {
+      termPostings[i] = postings.get(terms[i]).toArray();
+    }
+    state = new State(terms, termPostings, pages, size, size);
+  }
+
+  /**
+   * Добавляет товар или заменяет его прежнюю версию.
+   *
+   * @param sequence номер изменения из журнала; изменение старше уже применённого игнорируется
+   */
+  public void put(ProductSnapshot product, long sequence) {
+    apply(List.of(new Update(product.id(), product, sequence)));
+  }
+
+  public void remove(UUID id, long sequence) {
+    apply(List.of(new Update(id, null, sequence)));
+  }
+
+  /**
+   * Применяет изменения одной заменой State. Изменение старше уже применённого к тому же товару
+   * пропускается, повтор уже применённого состояния ничего не копирует.
+   */
+  public synchronized void apply(List<Update> updates) {
+    Batch batch = new Batch(state);
+    for (Update update : updates) {
+      int doc =
+          update.product() != null ? intern(update.id(), batch.size) : find(update.id());
+      if (doc >= 0 && advance(doc, update.sequence())) {
+        batch.set(doc, update.product());
+      }
+    }
+    if (batch.changed) {
+      state = batch.build();
+    }
+  }
+
+  /**
+   * Товары, в названии которых для каждого префикса есть слово, начинающееся с него. Кандидаты
+   * берутся из списков самого редкого префикса и проверяются по названию, поэтому время зависит
+   * от того, как быстро набирается offset + limit совпадений, а не от размера индекса.
+   *
+   * <p>Порядок: сначала товары с самим словом, затем с его продолжениями в алфавитном порядке,
+   * внутри слова - в порядке добавления в индекс.
+   *
+   * @param prefixes слова запроса в нижнем регистре, как их возвращает {@link #tokens}
+   */
+  public List<ProductSnapshot> search(List<String> prefixes, int offset, int limit) {
+    State current = state;
+    if (prefixes.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    int from = 0;
+    int to = 0;
+    long cost = Long.MAX_VALUE;
+    for (String prefix : prefixes) {
+      int prefixFrom = lowerBound(current.terms, prefix);
+      int prefixTo = lowerBound(current.terms, prefix + Character.MAX_VALUE);
+      if (prefixFrom == prefixTo) {
+        return List.of();
+      }
+      long prefixCost = 0;
+      for (int i = prefixFrom; i < prefixTo && prefixCost < cost; i++) {
+        prefixCost += current.postings[i].length;
+      }
+      if (prefixCost < cost) {
+        from = prefixFrom;
+        to = prefixTo;
+        cost = prefixCost;
+      }
+    }
+
+    int wanted = offset + limit;
+    List<ProductSnapshot> found = new ArrayList<>(Math.min(wanted, 64));
+    // Товар с несколькими словами на префикс встречается в нескольких списках
+    Set<Integer> seen = to - from > 1 ? new HashSet<>() : null;
+    for (int i = from; i < to; i++) {
+      for (int doc : current.postings[i]) {
+        ProductSnapshot product = current.product(doc);
+        if (!matchesAll(product.name(), prefixes) || (seen != null && !seen.add(doc))) {
+          continue;
+        }
+        found.add(product);
+        if (found.size() == wanted) {
+          return found.subList(offset, wanted);
+        }
+      }
+    }
+    return offset < found.size() ? found.subList(offset, found.size()) : List.of();
+  }
+
+  public synchronized Stats stats() {
+    State current = state;
+    long postings = 0;
+    long bytes =
+        align(16 + 4L * current.pages.length)
+            + current.pages.length * align(16 + 4L * PAGE_SIZE);
+    for (int i = 0; i < current.terms.length; i++) {
+      postings += current.postings[i].length;
+      // строка слова, её ссылки в двух массивах словаря, список номеров
+      bytes += stringBytes(current.terms[i]) + 8 + align(16 + 4L * current.postings[i].length);
+    }
+    for (int doc = 0; doc < current.size; doc++) {
+      ProductSnapshot product = current.product(doc);
+      if (product != null) {
+        // ProductSnapshot 40 + UUID 32 + название
+        bytes += 72 + stringBytes(product.name());
+      }
+    }
+    bytes +=
+        align(16 + 4L * ids.length)
+            + align(16 + 4L * slots.length)
+            + align(16 + 8L * sequences.length);
+    return new Stats(current.products, current.terms.length, postings, bytes);
+  }
+
+  /** Различные слова текста в нижнем регистре; разделитель - всё, кроме букв и цифр. */
+  public static List<String> tokens(String text) {
+    Set<String> tokens = new LinkedHashSet<>();
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+    return List.copyOf(tokens);
+  }
+
+  private boolean advance(int doc, long sequence) {
+    if (sequence < sequences[doc]) {
+      return false;
+    }
+    sequences[doc] = sequence;
+    return true;
+  }
+
+  /** Номер товара; новый id получает номер next. */
+  private int intern(UUID id, int next) {
+    int doc = find(id);
+    if (doc >= 0) {
+      return doc;
+    }
+    if (next == ids.length) {
+      ids = Arrays.copyOf(ids, ids.length * 2);
+      sequences = Arrays.copyOf(sequences, sequences.length * 2);
+    }
+    if (2 * (next + 1) > slots.length) {
+      int[] grown = emptySlots(slots.length * 2);
+      for (int i = 0; i < next; i++) {
+        grown[freeSlot(grown, ids[i])] = i;
+      }
+      slots = grown;
+    }
+    ids[next] = id;
+    slots[freeSlot(slots, id)] = next;
+    return next;
+  }
+
+  private int find(UUID id) {
+    int mask = slots.length - 1;
+    for (int slot = hash(id) & mask; slots[slot] >= 0; slot = (slot + 1) & mask) {
+      if (ids[slots[slot]].equals(id)) {
+        return slots[slot];
+      }
+    }
+    return -1;
+  }
+
+  private static int freeSlot(int[] slots, UUID id) {
+    int mask = slots.length - 1;
+    int slot = hash(id) & mask;
+    while (slots[slot] >= 0) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private static int hash(UUID id) {
+    int h = id.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int[] emptySlots(int size) {
+    int[] slots = new int[size];
+    Arrays.fill(slots, -1);
+    return slots;
+  }
+
+  /** Первый индекс, где terms[i] >= key. */
+  private static int lowerBound(String[] terms, String key) {
+    int i = Arrays.binarySearch(terms, key);
+    return i >= 0 ? i : -i - 1;
+  }
+
+  private static boolean matchesAll(String name, List<String> prefixes) {
+    for (String prefix : prefixes) {
+      if (!hasWordStartingWith(name, prefix)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasWordStartingWith(String name, String prefix) {
+    for (int i = 0; i + prefix.length() <= name.length(); i++) {
+      boolean wordStart =
+          Character.isLetterOrDigit(name.charAt(i))
+              && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+      if (wordStart && name.regionMatches(true, i, prefix, 0, prefix.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long stringBytes(String value) {
+    boolean latin1 = value.chars().allMatch(c -> c <= 0xFF);
+    return 24 + align(16 + (long) value.length() * (latin1 ? 1 : 2));
+  }
+
+  private static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+
+  /**
+   * Изменения пачки поверх исходного State. Списки слов собираются один раз в build, страницы
+   * товаров копируются при первом изменении в пачке.
+   */
+  private static final class Batch {
+
+    private final State base;
+    // Слово -> номер товара -> есть ли слово в его названии после пачки
+    private final TreeMap<String, Map<Integer, Boolean>> termChanges = new TreeMap<>();
+    private final Set<Integer> copiedPages = new HashSet<>();
+    private ProductSnapshot[][] pages;
+    private int size;
+    private int products;
+    private boolean changed;
+
+    Batch(State base) {
+      this.base = base;
+      this.pages = base.pages;
+      this.size = base.size;
+      this.products = base.products;
+    }
+
+    void set(int doc, ProductSnapshot product) {
+      ProductSnapshot previous = doc < size ? product(doc) : null;
+      size = Math.max(size, doc + 1);
+      if (Objects.equals(previous, product)) {
+        return;
+      }
+
+      List<String> oldTerms = previous != null ? tokens(previous.name()) : List.of();
+      List<String> newTerms = product != null ? tokens(product.name()) : List.of();
+      for (String term : oldTerms) {
+        if (!newTerms.contains(term)) {
+          termChanges.computeIfAbsent(term, t -> new HashMap<>()).put(doc, false);
+        }
+      }
+      for (String term : newTerms) {
+        if (!oldTerms.contains(term)) {
+          termChanges.computeIfAbsent(term, t -> new HashMap<>()).put(doc, true);
+        }
+      }
+
+      writablePage(doc >>> PAGE_BITS)[doc & (PAGE_SIZE - 1)] = product;
+      products += (product != null ? 1 : 0) - (previous != null ? 1 : 0);
+      changed = true;
+    }
+
+    State build() {
+      String[] terms = base.terms;
+      int[][] postings = base.postings;
+      if (!termChanges.isEmpty()) {
+        List<String> mergedTerms = new ArrayList<>(terms.length + termChanges.size());
+        List<int[]> mergedPostings = new ArrayList<>(terms.length + termChanges.size());
+        int i = 0;
+        for (Map.Entry<String, Map<Integer, Boolean>> entry : termChanges.entrySet()) {
+          while (i < terms.length && terms[i].compareTo(entry.getKey()) < 0) {
+            mergedTerms.add(terms[i]);
+            mergedPostings.add(postings[i]);
+            i++;
+          }
+          int[] posting = NO_DOCS;
+          if (i < terms.length && terms[i].equals(entry.getKey())) {
+            posting = postings[i];
+            i++;
+          }
+          posting = merge(posting, entry.getValue());
+          if (posting.length > 0) {
+            mergedTerms.add(entry.getKey());
+            mergedPostings.add(posting);
+          }
+        }
+        for (; i < terms.length; i++) {
+          mergedTerms.add(terms[i]);
+          mergedPostings.add(postings[i]);
+        }
+        terms = mergedTerms.toArray(new String[0]);
+        postings = mergedPostings.toArray(new int[0][]);
+      }
+      return new State(terms, postings, pages, size, products);
+    }
+
+    private ProductSnapshot product(int doc) {
+      int page = doc >>> PAGE_BITS;
+      return page < pages.length ? pages[page][doc & (PAGE_SIZE - 1)] : null;
+    }
+
+    private ProductSnapshot[] writablePage(int page) {
+      if (copiedPages.isEmpty() || page >= pages.length) {
+        pages = Arrays.copyOf(pages, Math.max(pages.length, page + 1));
+      }
+      if (copiedPages.add(page)) {
+        pages[page] =
+            page < base.pages.length ? base.pages[page].clone() : new ProductSnapshot[PAGE_SIZE];
+      }
+      return pages[page];
+    }
+
+    /** Список слова после пачки: без товаров, где слово пропало, с товарами, где появилось. */
+    private static int[] merge(int[] posting, Map<Integer, Boolean> docs) {
+      IntList result = new IntList();
+      for (int doc : posting) {
+        if (docs.getOrDefault(doc, true)) {
+          result.add(doc);
+        }
+      }
+      for (Map.Entry<Integer, Boolean> doc : docs.entrySet()) {
+        if (doc.getValue() && Arrays.binarySearch(posting, doc.getKey()) < 0) {
+          result.add(doc.getKey());
+        }
+      }
+      int[] merged = result.toArray();
+      Arrays.sort(merged);
+      return merged;
+    }
+  }
+
+  /** Растущий int[] для сборки списков при rebuild. */
+  private static final class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
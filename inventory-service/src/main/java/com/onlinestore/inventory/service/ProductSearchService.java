@@ -0,0 +1,108 @@
+package com.onlinestore.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSearchResponse;
+import com.onlinestore.inventory.exception.InvalidProductQueryException;
+import com.onlinestore.inventory.repository.ProductRepository;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Поиск товаров по названию. Последнее (и каждое) слово запроса ищется как префикс, так что
+ * подсказки работают по мере набора. Страницы популярных запросов держатся в Caffeine: его
+ * вытеснение учитывает частоту обращений, поэтому редкие запросы не вымывают частые. Изменения
+ * товаров видны в поиске с задержкой не больше ttl.
+ *
+ * <p>С inventory.search.index.enabled=true запросы обслуживает InMemoryProductSearch без похода в
+ * БД и без кэша: индекс в памяти обновляется сразу после коммита изменения на этой реплике и
+ * через poll-interval - на других.
+ */
+@Slf4j
+@Service
+public class ProductSearchService {
+
+  private static final int MAX_PAGE_SIZE = 50;
+  // Глубже по релевантности не листают, а OFFSET дорожает с каждой страницей
+  private static final int MAX_OFFSET = 1000;
+  private static final int MAX_QUERY_LENGTH = 100;
+
+  private final ProductRepository productRepository;
+  private final InMemoryProductSearch inMemorySearch;
+  private final Cache<SearchKey, ProductSearchResponse> results;
+
+  private record SearchKey(String query, int page, int size) {}
+
+  public ProductSearchService(
+      ProductRepository productRepository,
+      Optional<InMemoryProductSearch> inMemorySearch,
+      @Value("${inventory.search.cache.maximum-size:10000}") long maximumSize,
+      @Value("${inventory.search.cache.ttl:30s}") Duration ttl) {
+    this.productRepository = productRepository;
+    this.inMemorySearch = inMemorySearch.orElse(null);
+    this.results =
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+  }
+
+  public ProductSearchResponse search(String query, int page, int size) {
+    String normalized = normalize(query);
+    if (normalized.isEmpty()) {
+      throw new InvalidProductQueryException("Search query must not be blank");
+    }
+    if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+      throw new InvalidProductQueryException(
+          "Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+    }
+    if ((long) page * size > MAX_OFFSET) {
+      throw new InvalidProductQueryException("Search results are limited to " + MAX_OFFSET);
+    }
+
+    if (inMemorySearch != null) {
+      return inMemorySearch.search(normalized, page, size);
+    }
+    return results.get(new SearchKey(normalized, page, size), this::load);
+  }
+
+  private ProductSearchResponse load(SearchKey key) {
+    // Только буквы и цифры - в to_tsquery не попадут операторы из пользовательского ввода
+    String tsQuery =
+        Arrays.stream(key.query().split("[^\\p{L}\\p{N}]+"))
+            .filter(token -> !token.isEmpty())
+            .map(token -> token + ":*")
+            .collect(Collectors.joining(" & "));
+
+    List<ProductResponse> rows =
+        tsQuery.isEmpty()
+            ? List.of()
+            : productRepository.search(
+                tsQuery, key.query(), key.size() + 1, key.page() * key.size());
+    log.debug("Search '{}' page {}: {} rows from database", key.query(), key.page(), rows.size());
+
+    boolean hasNext = rows.size() > key.size();
+    return ProductSearchResponse.builder()
+        .query(key.query())
+        .page(key.page())
+        .size(key.size())
+        .hasNext(hasNext)
+        .items(hasNext ? List.copyOf(rows.subList(0, key.size())) : rows)
+        .build();
+  }
+
+  private static String normalize(String query) {
+    if (query == null) {
+      return "";
+    }
+    String normalized = query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    return normalized.length() > MAX_QUERY_LENGTH
+        ? normalized.substring(0, MAX_QUERY_LENGTH)
+        : normalized;
+  }
+}
@@ -1,15 +1,26 @@
 package com.onlinestore.inventory.service;
 
 import com.onlinestore.inventory.dto.CreateProductRequest;
+import com.onlinestore.inventory.dto.ProductFilter;
+import com.onlinestore.inventory.dto.ProductPageResponse;
 import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSort;
+import com.onlinestore.inventory.dto.UpdateProductRequest;
 import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.exception.InvalidProductQueryException;
 import com.onlinestore.inventory.exception.ProductNotFoundException;
 import com.onlinestore.inventory.mapper.ProductMapper;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
 import com.onlinestore.inventory.repository.ProductRepository;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,16 +30,57 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class ProductService {
 
+  private static final int MAX_PAGE_SIZE = 500;
+
   private final ProductRepository productRepository;
+  private final ProductChangeRepository productChangeRepository;
   private final ProductMapper productMapper;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Keyset-пагинация: следующая страница читается по индексу от курсора, а не через OFFSET, поэтому
+   * стоимость не растёт с номером страницы. Берём limit + 1 строк, чтобы понять, есть ли ещё.
+   */
+  public ProductPageResponse getProducts(
+      ProductFilter filter, ProductSort sort, String cursor, int limit) {
+    if (limit < 1) {
+      throw new InvalidProductQueryException("Limit must be positive");
+    }
+    int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+    ProductCursor after = cursor != null ? ProductCursor.decode(cursor, sort) : null;
+    log.debug("Getting products page: sort={}, after={}, filter={}", sort, after, filter);
+
+    List<ProductResponse> rows =
+        productRepository.findPage(
+            filter,
+            sort,
+            after != null ? after.name() : null,
+            after != null ? after.id() : null,
+            pageSize + 1);
 
-  public List<ProductResponse> getAllProducts() {
-    log.info("Getting all products");
-    return productRepository.findAll().stream().map(productMapper::toResponse).toList();
+    if (rows.size() <= pageSize) {
+      return ProductPageResponse.builder().items(rows).build();
+    }
+    List<ProductResponse> items = rows.subList(0, pageSize);
+    return ProductPageResponse.builder()
+        .items(items)
+        .nextCursor(ProductCursor.after(sort, items.get(pageSize - 1)).encode())
+        .build();
+  }
+
+  /**
+   * Выгрузка всего каталога: строки читаются курсором БД и сразу отдаются в sink, в памяти
+   * держится только текущая пачка fetch size.
+   */
+  public void exportProducts(ProductFilter filter, Consumer<ProductResponse> sink) {
+    log.info("Exporting products, filter={}", filter);
+    try (Stream<ProductResponse> products = productRepository.streamAll(filter)) {
+      products.forEach(sink);
+    }
   }
 
   public ProductResponse getProductById(UUID id) {
-    log.info("Getting product by id: {}", id);
+    log.debug("Getting product by id: {}", id);
     Product product = findProductOrThrow(id);
     return productMapper.toResponse(product);
   }
@@ -40,10 +92,52 @@ public class ProductService {
     Product product = productMapper.toEntity(request);
     Product savedProduct = productRepository.save(product);
 
+    recordChange(ProductChange.of(savedProduct, ProductChange.Type.CREATED));
+
     log.info("Product created with id: {}", savedProduct.getId());
     return productMapper.toResponse(savedProduct);
   }
 
+  /**
+   * Смена названия, цены или скидки пишется в журнал как PRICE_CHANGED, смена остатка - как
+   * QUANTITY_CHANGED.
+   */
+  @Transactional
+  public ProductResponse updateProduct(UUID id, UpdateProductRequest request) {
+    log.info("Updating product with id: {}", id);
+    Product product = findProductOrThrow(id);
+
+    boolean metadataChanged = false;
+    if (request.getName() != null && !request.getName().equals(product.getName())) {
+      product.setName(request.getName());
+      metadataChanged = true;
+    }
+    if (request.getPrice() != null && product.getPrice().compareTo(request.getPrice()) != 0) {
+      product.setPrice(request.getPrice());
+      metadataChanged = true;
+    }
+    if (request.getSale() != null
+        && (product.getSale() == null || product.getSale().compareTo(request.getSale()) != 0)) {
+      product.setSale(request.getSale());
+      metadataChanged = true;
+    }
+    boolean quantityChanged =
+        request.getQuantity() != null && !Objects.equals(request.getQuantity(), product.getQuantity());
+    if (quantityChanged) {
+      product.setQuantity(request.getQuantity());
+    }
+
+    Product savedProduct = productRepository.save(product);
+    if (metadataChanged) {
+      recordChange(ProductChange.of(savedProduct, ProductChange.Type.PRICE_CHANGED));
+    }
+    if (quantityChanged) {
+      recordChange(ProductChange.of(savedProduct, ProductChange.Type.QUANTITY_CHANGED));
+    }
+
+    return productMapper.toResponse(savedProduct);
+  }
+
   @Transactional
   public void deleteProduct(UUID id) {
     log.info("Deleting product with id: {}", id);
@@ -53,15 +147,22 @@ public class ProductService {
     }
 
     productRepository.deleteById(id);
+    recordChange(ProductChange.deleted(id));
     log.info("Product deleted: {}", id);
   }
 
+  /** Пишет изменение в журнал в той же транзакции, подписчики получат его после коммита. */
+  private void recordChange(ProductChange change) {
+    ProductChange savedChange = productChangeRepository.save(change);
+    eventPublisher.publishEvent(new ProductChangedEvent(savedChange));
+  }
+
   private Product findProductOrThrow(UUID id) {
     return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
   }
 
   public Product getProductEntityById(UUID id) {
-    log.info("Getting product entity by id: {}", id);
+    log.debug("Getting product entity by id: {}", id);
     return findProductOrThrow(id);
   }
 }
@@ -0,0 +1,62 @@
+package com.onlinestore.inventory.service;
+
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+/**
+ * Неизменяемый снимок товара для горячего пути gRPC: цена в копейках, скидка в сотых долях
+ * процента (15.50% = 1550), без ссылок на Hibernate-сущность.
+ */
+public record ProductSnapshot(
+    UUID id, String name, long priceCents, int discountBasisPoints, int quantity) {
+
+  public static ProductSnapshot from(Product product) {
+    return of(
+        product.getId(),
+        product.getName(),
+        product.getPrice(),
+        product.getSale(),
+        product.getQuantity());
+  }
+
+  public static ProductSnapshot from(ProductResponse product) {
+    return of(
+        product.getId(),
+        product.getName(),
+        product.getPrice(),
+        product.getSale(),
+        product.getQuantity());
+  }
+
+  /** Состояние товара после изменения; для DELETED снимка нет. */
+  public static ProductSnapshot from(ProductChange change) {
+    return of(
+        change.getProductId(),
+        change.getName(),
+        change.getPrice(),
+        change.getSale(),
+        change.getQuantity());
+  }
+
+  private static ProductSnapshot of(
+      UUID id, String name, BigDecimal price, BigDecimal sale, int quantity) {
+    return new ProductSnapshot(
+        id,
+        name,
+        price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+        sale != null ? sale.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValueExact() : 0,
+        quantity);
+  }
+
+  public double price() {
+    return priceCents / 100.0;
+  }
+
+  public double discountPercent() {
+    return discountBasisPoints / 100.0;
+  }
+}
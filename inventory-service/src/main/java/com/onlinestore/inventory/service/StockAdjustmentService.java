@@ -0,0 +1,153 @@
+package com.onlinestore.inventory.service;
+
+import com.onlinestore.inventory.dto.AdjustedStock;
+import com.onlinestore.inventory.dto.RejectedStockAdjustment;
+import com.onlinestore.inventory.dto.StockAdjustmentItem;
+import com.onlinestore.inventory.dto.StockAdjustmentResponse;
+import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.exception.InvalidStockAdjustmentException;
+import com.onlinestore.inventory.repository.ProductBulkRepository;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import com.onlinestore.inventory.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Пакетное изменение остатков для приёмки и списаний. Вместо read-modify-write на каждый товар
+ * пачка из chunk-size товаров обрабатывается двумя запросами: блокировка строк с текущими остатками
+ * и один MERGE с delta. Вся операция - одна транзакция, чтобы повтор запроса после ошибки не
+ * применил часть изменений дважды. Если сумма delta товара или новый остаток не помещаются в int,
+ * отклоняется весь запрос (InvalidStockAdjustmentException), а не переполняется остаток.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockAdjustmentService {
+
+  private final ProductRepository productRepository;
+  private final ProductChangeRepository productChangeRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Value("${inventory.stock-adjust.chunk-size:1000}")
+  private int chunkSize;
+
+  @PostConstruct
+  public void validateChunkSize() {
+    if (chunkSize < 1 || chunkSize > ProductBulkRepository.MAX_BATCH_SIZE) {
+      throw new IllegalStateException(
+          "inventory.stock-adjust.chunk-size must be between 1 and "
+              + ProductBulkRepository.MAX_BATCH_SIZE
+              + ", got "
+              + chunkSize);
+    }
+  }
+
+  /**
+   * @throws InvalidStockAdjustmentException если сумма delta одного товара или его новый остаток
+   *     больше Integer.MAX_VALUE
+   */
+  @Transactional
+  public StockAdjustmentResponse adjustStock(List<StockAdjustmentItem> items) {
+    // Несколько строк одного товара складываем. Сортировка по id - блокировки во всех пачках и
+    // параллельных запросах берутся в одном порядке
+    Map<UUID, Integer> deltas = new TreeMap<>();
+    for (StockAdjustmentItem item : items) {
+      try {
+        deltas.merge(item.getProductId(), item.getDelta(), Math::addExact);
+      } catch (ArithmeticException e) {
+        throw new InvalidStockAdjustmentException(
+            "Total delta for product " + item.getProductId() + " is out of range");
+      }
+    }
+    log.info("Adjusting stock for {} products", deltas.size());
+
+    StockAdjustmentResponse response = StockAdjustmentResponse.builder().build();
+    Map<UUID, Integer> chunk = new LinkedHashMap<>();
+    for (Map.Entry<UUID, Integer> delta : deltas.entrySet()) {
+      chunk.put(delta.getKey(), delta.getValue());
+      if (chunk.size() == chunkSize) {
+        adjustChunk(chunk, response);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      adjustChunk(chunk, response);
+    }
+
+    log.info(
+        "Stock adjusted for {} products, {} rejected",
+        response.getApplied().size(),
+        response.getRejected().size());
+    return response;
+  }
+
+  private void adjustChunk(Map<UUID, Integer> deltas, StockAdjustmentResponse response) {
+    Map<UUID, Product> products = productRepository.lockAllById(deltas.keySet());
+    Map<UUID, Integer> toApply = new LinkedHashMap<>();
+    List<ProductChange> changes = new ArrayList<>();
+
+    for (Map.Entry<UUID, Integer> entry : deltas.entrySet()) {
+      UUID productId = entry.getKey();
+      int delta = entry.getValue();
+      Product product = products.get(productId);
+
+      if (product == null) {
+        response
+            .getRejected()
+            .add(rejected(productId, delta, 0, RejectedStockAdjustment.Reason.NOT_FOUND));
+        continue;
+      }
+      long newQuantity = (long) product.getQuantity() + delta;
+      if (newQuantity > Integer.MAX_VALUE) {
+        // Исключение откатывает уже применённые пачки этой транзакции
+        throw new InvalidStockAdjustmentException(
+            "Stock of product " + productId + " would exceed " + Integer.MAX_VALUE);
+      }
+      int quantity = (int) newQuantity;
+      if (quantity < 0) {
+        response
+            .getRejected()
+            .add(
+                rejected(
+                    productId,
+                    delta,
+                    product.getQuantity(),
+                    RejectedStockAdjustment.Reason.INSUFFICIENT_STOCK));
+        continue;
+      }
+
+      if (delta != 0) {
+        toApply.put(productId, delta);
+        product.setQuantity(quantity);
+        changes.add(ProductChange.of(product, ProductChange.Type.QUANTITY_CHANGED));
+      }
+      response.getApplied().add(new AdjustedStock(productId, quantity));
+    }
+
+    productRepository.adjustQuantities(toApply);
+    productChangeRepository.insertAll(changes);
+    changes.forEach(change -> eventPublisher.publishEvent(new ProductChangedEvent(change)));
+  }
+
+  private static RejectedStockAdjustment rejected(
+      UUID productId, int delta, int available, RejectedStockAdjustment.Reason reason) {
+    return RejectedStockAdjustment.builder()
+        .productId(productId)
+        .delta(delta)
+        .availableQuantity(available)
+        .reason(reason)
+        .build();
+  }
+}
@@ -0,0 +1,13 @@
+-- Журнал изменений товаров для WatchProducts: клиент догоняет пропущенные события по sequence
+CREATE TABLE product_changes (
+    sequence BIGSERIAL PRIMARY KEY,
+    product_id UUID NOT NULL,
+    change_type VARCHAR(20) NOT NULL,
+    name VARCHAR(255),
+    quantity INTEGER,
+    price NUMERIC(10,2),
+    sale NUMERIC(5,2),
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_product_changes_changed_at ON product_changes(changed_at);
@@ -0,0 +1,9 @@
+-- Keyset-пагинация GET /api/products: ORDER BY name, id и условие (name, id) > курсора
+CREATE INDEX idx_products_name_id ON products(name, id);
+
+-- Частые фильтры листинга: отдельные частичные индексы, чтобы не сканировать весь каталог
+CREATE INDEX idx_products_in_stock_name_id ON products(name, id) WHERE quantity > 0;
+CREATE INDEX idx_products_on_sale_name_id ON products(name, id) WHERE sale > 0;
+
+-- Диапазон цен
+CREATE INDEX idx_products_price ON products(price);
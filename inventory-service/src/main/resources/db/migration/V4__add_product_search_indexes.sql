@@ -0,0 +1,12 @@
+-- Поиск товаров по названию (GET /api/products/search)
+-- Полнотекстовый: конфигурация simple - без стемминга и стоп-слов, названия товаров
+-- ("iPhone 15 Pro") не текст на естественном языке
+ALTER TABLE products
+    ADD COLUMN name_tsv tsvector GENERATED ALWAYS AS (to_tsvector('simple', name)) STORED;
+
+CREATE INDEX idx_products_name_tsv ON products USING GIN (name_tsv);
+
+-- Триграммы: совпадения с опечатками и по части слова
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_products_name_trgm ON products USING GIN (lower(name) gin_trgm_ops);
@@ -0,0 +1,16 @@
+-- Ключ товара по умолчанию - UUID v7, как у TimeOrderedUuidGenerator в приложении.
+-- В PostgreSQL 15 встроенной uuidv7() нет: берём случайный v4 и записываем поверх первых 6 байт
+-- миллисекунды Unix-времени, версию меняем с 4 на 7 (биты 52 и 53), вариант у v4 тот же.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE products ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,178 @@
+package com.onlinestore.inventory.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.UuidV7;
+import com.onlinestore.inventory.grpc.InventoryGrpcServiceImpl;
+import com.onlinestore.inventory.grpc.ProductAvailabilityRequest;
+import com.onlinestore.inventory.grpc.ProductAvailabilityResponse;
+import com.onlinestore.inventory.mapper.ProductMapper;
+import com.onlinestore.inventory.repository.ProductRepository;
+import com.onlinestore.inventory.service.ProductCatalog;
+import io.grpc.stub.StreamObserver;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Ответ на запрос одного товара: REST (ProductMapper.toResponse и JSON тела) и gRPC
+ * (checkAvailability из прогретого ProductCatalog, сборка и сериализация protobuf, разбор на
+ * стороне order-service). БД не участвует - каталог загружает товар один раз при первом вызове.
+ * Результаты - в target/jmh-inventory-response.json.
+ * Запуск: mvn test -Pbenchmark -Dtest=InventoryResponseBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryResponseBenchmark {
+
+  private final ProductMapper productMapper = new ProductMapper();
+  private final LastResponse observer = new LastResponse();
+
+  private ObjectMapper objectMapper;
+  private InventoryGrpcServiceImpl grpcService;
+  private Product product;
+  private ProductAvailabilityRequest request;
+  private byte[] responseBytes;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    product =
+        Product.builder()
+            .id(UuidV7.next())
+            .name("Apple iPhone 15 Pro 256GB Natural Titanium")
+            .quantity(42)
+            .price(new BigDecimal("1299.99"))
+            .sale(new BigDecimal("15.50"))
+            .build();
+
+    // TTL больше прогона: измеряется ответ из кэша, а не загрузка
+    ProductCatalog catalog =
+        new ProductCatalog(
+            singleProductRepository(product), 1000, Duration.ofHours(1), Duration.ofHours(1));
+    grpcService = new InventoryGrpcServiceImpl(catalog, null, null);
+    request =
+        ProductAvailabilityRequest.newBuilder()
+            .setProductId(product.getId().toString())
+            .setRequestedQuantity(2)
+            .build();
+
+    responseBytes = checkAvailability().toByteArray();
+  }
+
+  @Benchmark
+  public ProductResponse restMapper() {
+    return productMapper.toResponse(product);
+  }
+
+  /** Маппинг и тело ответа GET /api/products/{id}. */
+  @Benchmark
+  public byte[] restJson() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(productMapper.toResponse(product));
+  }
+
+  /** UUID.fromString, каталог и сборка ProductAvailabilityResponse. */
+  @Benchmark
+  public ProductAvailabilityResponse checkAvailability() {
+    grpcService.checkAvailability(request, observer);
+    return observer.response;
+  }
+
+  /** Сборка и сериализация ответа - то, что уходит в сеть. */
+  @Benchmark
+  public byte[] checkAvailabilitySerialized() {
+    return checkAvailability().toByteArray();
+  }
+
+  /** Разбор ответа в InventoryGrpcClient. */
+  @Benchmark
+  public ProductAvailabilityResponse responseParse() throws InvalidProtocolBufferException {
+    return ProductAvailabilityResponse.parseFrom(responseBytes);
+  }
+
+  @Test
+  void run() throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(InventoryResponseBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-inventory-response.json")
+                .build())
+        .run();
+  }
+
+  @Test
+  void grpcAndRestDescribeSameProduct() throws Exception {
+    setUp();
+
+    ProductAvailabilityResponse response = responseParse();
+    assertThat(response.getIsAvailable()).isTrue();
+    assertThat(response.getPriceCents()).isEqualTo(129_999);
+    assertThat(response.getDiscountBasisPoints()).isEqualTo(1_550);
+    assertThat(objectMapper.readValue(restJson(), ProductResponse.class).getPrice())
+        .isEqualByComparingTo("1299.99");
+  }
+
+  /** Репозиторий с одним товаром: каталогу нужен только findById при первом промахе. */
+  private static ProductRepository singleProductRepository(Product product) {
+    return (ProductRepository)
+        Proxy.newProxyInstance(
+            ProductRepository.class.getClassLoader(),
+            new Class<?>[] {ProductRepository.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("findById")) {
+                return Optional.of(product).filter(p -> p.getId().equals(args[0]));
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+  }
+
+  private static class LastResponse implements StreamObserver<ProductAvailabilityResponse> {
+
+    private ProductAvailabilityResponse response;
+
+    @Override
+    public void onNext(ProductAvailabilityResponse value) {
+      response = value;
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      throw new IllegalStateException(t);
+    }
+
+    @Override
+    public void onCompleted() {}
+  }
+}
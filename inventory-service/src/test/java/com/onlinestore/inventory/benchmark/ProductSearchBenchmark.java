@@ -0,0 +1,170 @@
+package com.onlinestore.inventory.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.onlinestore.inventory.repository.ProductSearchRepositoryImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * p50/p95/p99 поиска по названию на 1M сгенерированных товаров в PostgreSQL 15 со схемой из
+ * Flyway-миграций. Кэш ProductSearchService не участвует - меряется запрос к БД.
+ * Запуск: mvn test -Pbenchmark -Dtest=ProductSearchBenchmark (нужен Docker)
+ */
+@Tag("benchmark")
+class ProductSearchBenchmark {
+
+  private static final int PRODUCTS = 1_000_000;
+  private static final int WARMUP_QUERIES = 500;
+  private static final int MEASURED_QUERIES = 5_000;
+  private static final Duration P95_TARGET = Duration.ofMillis(10);
+
+  static final List<String> BRANDS =
+      List.of(
+          "apple", "samsung", "xiaomi", "huawei", "sony", "lenovo", "asus", "acer", "philips",
+          "bosch", "logitech", "canon", "nikon", "dell", "honor", "realme", "oneplus", "garmin",
+          "jbl", "dyson");
+  static final List<String> PRODUCT_TYPES =
+      List.of(
+          "smartphone", "laptop", "tablet", "headphones", "monitor", "keyboard", "mouse", "camera",
+          "speaker", "charger", "cable", "watch", "router", "printer", "vacuum", "kettle", "blender",
+          "microphone", "projector", "drone");
+  static final List<String> ATTRIBUTES =
+      List.of(
+          "pro", "max", "mini", "ultra", "lite", "plus", "air", "neo", "wireless", "gaming",
+          "compact", "black", "white", "silver", "graphite", "blue", "portable", "smart", "edge",
+          "classic");
+
+  private static PostgreSQLContainer<?> postgres;
+  private static HikariDataSource dataSource;
+
+  @BeforeAll
+  static void setUp() {
+    postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    postgres.start();
+
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl(postgres.getJdbcUrl());
+    dataSource.setUsername(postgres.getUsername());
+    dataSource.setPassword(postgres.getPassword());
+
+    Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+    // Названия вида "samsung laptop ultra graphite 417": ~8000 сочетаний слов и номер модели
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("SELECT setseed(0.42)");
+    jdbcTemplate.update(
+        "INSERT INTO products (name, quantity, price, sale)"
+            + " SELECT b[1 + floor(random() * array_length(b, 1))::int]"
+            + "   || ' ' || t[1 + floor(random() * array_length(t, 1))::int]"
+            + "   || ' ' || a[1 + floor(random() * array_length(a, 1))::int]"
+            + "   || ' ' || a[1 + floor(random() * array_length(a, 1))::int]"
+            + "   || ' ' || (100 + floor(random() * 900))::int,"
+            + " floor(random() * 100)::int, round((random() * 5000 + 1)::numeric, 2), 0"
+            + " FROM generate_series(1, ?),"
+            + " (SELECT ?::text[] AS b, ?::text[] AS t, ?::text[] AS a) words",
+        PRODUCTS,
+        pgArray(BRANDS),
+        pgArray(PRODUCT_TYPES),
+        pgArray(ATTRIBUTES));
+    jdbcTemplate.execute("VACUUM ANALYZE products");
+  }
+
+  @AfterAll
+  static void tearDown() {
+    if (dataSource != null) {
+      dataSource.close();
+    }
+    if (postgres != null) {
+      postgres.stop();
+    }
+  }
+
+  @Test
+  void searchP95IsUnderTarget() {
+    ProductSearchRepositoryImpl repository =
+        new ProductSearchRepositoryImpl(new NamedParameterJdbcTemplate(dataSource));
+    List<String[]> queries = queries(new Random(7));
+
+    for (int i = 0; i < WARMUP_QUERIES; i++) {
+      String[] query = queries.get(i % queries.size());
+      repository.search(query[0], query[1], 21, 0);
+    }
+
+    long[] latencies = new long[MEASURED_QUERIES];
+    for (int i = 0; i < MEASURED_QUERIES; i++) {
+      String[] query = queries.get(i % queries.size());
+      long start = System.nanoTime();
+      repository.search(query[0], query[1], 21, 0);
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+
+    System.out.printf(
+        "Product search over %,d products: p50=%.2fms p95=%.2fms p99=%.2fms%n",
+        PRODUCTS,
+        millis(percentile(latencies, 0.50)),
+        millis(percentile(latencies, 0.95)),
+        millis(percentile(latencies, 0.99)));
+
+    assertThat(percentile(latencies, 0.95)).isLessThan(P95_TARGET.toNanos());
+  }
+
+  /**
+   * Смесь как у typeahead: префикс слова, бренд + тип, бренд + тип + атрибут + номер, опечатка.
+   * [0] - tsquery, [1] - нормализованный текст, как их строит ProductSearchService.
+   */
+  private static List<String[]> queries(Random random) {
+    List<String[]> queries = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      String brand = BRANDS.get(random.nextInt(BRANDS.size()));
+      String type = PRODUCT_TYPES.get(random.nextInt(PRODUCT_TYPES.size()));
+      String attribute = ATTRIBUTES.get(random.nextInt(ATTRIBUTES.size()));
+      String text =
+          switch (i % 4) {
+            case 0 -> brand + " " + type.substring(0, 3);
+            case 1 -> brand + " " + type;
+            case 2 -> brand + " " + type + " " + attribute + " " + (100 + random.nextInt(900));
+            default -> brand + " " + swapLetters(type, random);
+          };
+      String tsQuery =
+          Arrays.stream(text.split(" ")).map(word -> word + ":*").collect(Collectors.joining(" & "));
+      queries.add(new String[] {tsQuery, text});
+    }
+    return queries;
+  }
+
+  private static String swapLetters(String word, Random random) {
+    int i = 1 + random.nextInt(word.length() - 2);
+    char[] chars = word.toCharArray();
+    char tmp = chars[i];
+    chars[i] = chars[i + 1];
+    chars[i + 1] = tmp;
+    return new String(chars);
+  }
+
+  private static String pgArray(List<String> values) {
+    return "{" + String.join(",", values) + "}";
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
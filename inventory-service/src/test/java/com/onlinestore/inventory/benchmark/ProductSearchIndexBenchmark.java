@@ -0,0 +1,191 @@
+package com.onlinestore.inventory.benchmark;
+
+import static com.onlinestore.inventory.benchmark.ProductSearchBenchmark.ATTRIBUTES;
+import static com.onlinestore.inventory.benchmark.ProductSearchBenchmark.BRANDS;
+import static com.onlinestore.inventory.benchmark.ProductSearchBenchmark.PRODUCT_TYPES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.onlinestore.inventory.service.ProductSearchIndex;
+import com.onlinestore.inventory.service.ProductSnapshot;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH для ProductSearchIndex на сгенерированных товарах (словарь как в ProductSearchBenchmark):
+ * запросы typeahead разной избирательности, обновление одного товара и пачки из чанка импорта.
+ * Результаты - в target/jmh-product-search-index.json. Отдельный тест memoryFootprint печатает
+ * размер индекса на миллион товаров: оценку Stats и замер кучи.
+ * Запуск: mvn test -Pbenchmark -Dtest=ProductSearchIndexBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ProductSearchIndexBenchmark {
+
+  private static final int QUERIES = 1024;
+
+  @Param({"1000000"})
+  public int products;
+
+  private ProductSearchIndex index;
+  private List<UUID> ids;
+  private List<List<String>> prefixQueries;
+  private List<List<String>> twoWordQueries;
+  private List<List<String>> selectiveQueries;
+  private int next;
+  private long sequence;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    List<ProductSnapshot> snapshots = new ArrayList<>(products);
+    for (int i = 0; i < products; i++) {
+      snapshots.add(product(UUID.randomUUID(), random));
+    }
+    ids = snapshots.stream().map(ProductSnapshot::id).toList();
+    index = new ProductSearchIndex();
+    index.rebuild(snapshots.iterator());
+
+    prefixQueries = new ArrayList<>();
+    twoWordQueries = new ArrayList<>();
+    selectiveQueries = new ArrayList<>();
+    for (int i = 0; i < QUERIES; i++) {
+      String brand = pick(BRANDS, random);
+      String type = pick(PRODUCT_TYPES, random);
+      prefixQueries.add(List.of(type.substring(0, 1 + random.nextInt(3))));
+      twoWordQueries.add(List.of(brand, type.substring(0, 3)));
+      String model = String.valueOf(100 + random.nextInt(900));
+      selectiveQueries.add(List.of(brand, type, pick(ATTRIBUTES, random), model));
+    }
+  }
+
+  /** Одно слово по 1-3 первым буквам - самый широкий диапазон словаря. */
+  @Benchmark
+  public List<ProductSnapshot> prefix() {
+    return index.search(prefixQueries.get(next++ & (QUERIES - 1)), 0, 21);
+  }
+
+  /** Бренд целиком и начало типа товара. */
+  @Benchmark
+  public List<ProductSnapshot> twoWords() {
+    return index.search(twoWordQueries.get(next++ & (QUERIES - 1)), 0, 21);
+  }
+
+  /** Четыре слова, включая номер модели: совпадений мало, проверяются все кандидаты. */
+  @Benchmark
+  public List<ProductSnapshot> selective() {
+    return index.search(selectiveQueries.get(next++ & (QUERIES - 1)), 0, 21);
+  }
+
+  /** Переименование товара: новые списки изменившихся слов, страница товаров и словарь. */
+  @Benchmark
+  public void update() {
+    Random random = new Random(sequence);
+    index.put(product(ids.get((int) (sequence % ids.size())), random), ++sequence);
+  }
+
+  /** Чанк импорта из 1000 изменений одной пачкой: словарь копируется один раз на чанк. */
+  @Benchmark
+  public void importChunk() {
+    Random random = new Random(sequence);
+    List<ProductSearchIndex.Update> updates = new ArrayList<>(1000);
+    for (int i = 0; i < 1000; i++) {
+      UUID id = ids.get((int) (sequence % ids.size()));
+      updates.add(new ProductSearchIndex.Update(id, product(id, random), ++sequence));
+    }
+    index.apply(updates);
+  }
+
+  @Test
+  void run() throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(ProductSearchIndexBenchmark.class.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-product-search-index.json")
+                .build())
+        .run();
+  }
+
+  @Test
+  void memoryFootprint() {
+    int count = 1_000_000;
+    Random random = new Random(42);
+    Iterator<ProductSnapshot> generated =
+        IntStream.range(0, count).mapToObj(i -> product(UUID.randomUUID(), random)).iterator();
+
+    long before = usedHeap();
+    ProductSearchIndex footprint = new ProductSearchIndex();
+    footprint.rebuild(generated);
+    long measured = usedHeap() - before;
+    ProductSearchIndex.Stats stats = footprint.stats();
+
+    System.out.printf(
+        "Product search index, %,d products: %,d terms, %,d postings;"
+            + " estimated %.1f MB, measured %.1f MB per million products (%d bytes/product)%n",
+        stats.products(),
+        stats.terms(),
+        stats.postings(),
+        stats.estimatedBytes() * 1_000_000.0 / count / (1024 * 1024),
+        measured * 1_000_000.0 / count / (1024 * 1024),
+        measured / count);
+
+    assertThat(stats.products()).isEqualTo(count);
+    Reference.reachabilityFence(footprint);
+  }
+
+  /** "samsung laptop ultra graphite 417" - как в ProductSearchBenchmark. */
+  private static ProductSnapshot product(UUID id, Random random) {
+    String name =
+        pick(BRANDS, random)
+            + " "
+            + pick(PRODUCT_TYPES, random)
+            + " "
+            + pick(ATTRIBUTES, random)
+            + " "
+            + pick(ATTRIBUTES, random)
+            + " "
+            + (100 + random.nextInt(900));
+    return new ProductSnapshot(id, name, 100 + random.nextInt(500_000), 0, random.nextInt(100));
+  }
+
+  private static String pick(List<String> words, Random random) {
+    return words.get(random.nextInt(words.size()));
+  }
+
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
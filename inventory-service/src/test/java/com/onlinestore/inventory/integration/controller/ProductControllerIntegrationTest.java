@@ -5,11 +5,19 @@ import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onlinestore.inventory.dto.CreateProductRequest;
+import com.onlinestore.inventory.dto.StockAdjustmentItem;
+import com.onlinestore.inventory.dto.StockAdjustmentRequest;
 import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
 import com.onlinestore.inventory.repository.ProductRepository;
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +27,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
@@ -30,6 +40,8 @@ class ProductControllerIntegrationTest {
 
   @Autowired private ProductRepository productRepository;
 
+  @Autowired private ProductChangeRepository productChangeRepository;
+
   @Autowired private ObjectMapper objectMapper;
 
   private UUID existingProductId;
@@ -38,6 +50,7 @@ class ProductControllerIntegrationTest {
   void setUp() {
     // Очищаем БД перед каждым тестом
     productRepository.deleteAll();
+    productChangeRepository.deleteAll();
 
     // Создаем тестовый продукт
     Product existingProduct =
@@ -53,7 +66,7 @@ class ProductControllerIntegrationTest {
   }
 
   @Test
-  void getAllProducts_shouldReturnAllProducts() throws Exception {
+  void getProducts_shouldReturnAllProducts() throws Exception {
 
     Product secondProduct =
         Product.builder().name("iPhone 15").price(new BigDecimal("999.99")).quantity(20).build();
@@ -63,15 +76,16 @@ class ProductControllerIntegrationTest {
         .perform(get("/api/products"))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-        .andExpect(jsonPath("$", hasSize(2)))
-        .andExpect(jsonPath("$[0].name", is("MacBook Pro 16")))
-        .andExpect(jsonPath("$[0].price", is(2499.99)))
-        .andExpect(jsonPath("$[1].name", is("iPhone 15")))
-        .andExpect(jsonPath("$[1].price", is(999.99)));
+        .andExpect(jsonPath("$.items", hasSize(2)))
+        .andExpect(jsonPath("$.items[0].name", is("MacBook Pro 16")))
+        .andExpect(jsonPath("$.items[0].price", is(2499.99)))
+        .andExpect(jsonPath("$.items[1].name", is("iPhone 15")))
+        .andExpect(jsonPath("$.items[1].price", is(999.99)))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
   }
 
   @Test
-  void getAllProducts_shouldReturnEmptyList_whenNoProducts() throws Exception {
+  void getProducts_shouldReturnEmptyList_whenNoProducts() throws Exception {
 
     productRepository.deleteAll();
 
@@ -79,7 +93,103 @@ class ProductControllerIntegrationTest {
         .perform(get("/api/products"))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-        .andExpect(jsonPath("$", hasSize(0)));
+        .andExpect(jsonPath("$.items", hasSize(0)));
+  }
+
+  @Test
+  void getProducts_shouldWalkAllPagesWithCursor() throws Exception {
+
+    for (int i = 0; i < 4; i++) {
+      productRepository.save(
+          Product.builder().name("Same name").price(new BigDecimal("10.00")).quantity(i).build());
+    }
+
+    Set<String> seen = new HashSet<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      MockHttpServletRequestBuilder request = get("/api/products").param("limit", "2");
+      if (cursor != null) {
+        request.param("cursor", cursor);
+      }
+      JsonNode page =
+          objectMapper.readTree(
+              mockMvc
+                  .perform(request)
+                  .andExpect(status().isOk())
+                  .andReturn()
+                  .getResponse()
+                  .getContentAsString());
+      page.get("items").forEach(item -> assertThat(seen.add(item.get("id").asText())).isTrue());
+      cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+      pages++;
+    } while (cursor != null);
+
+    assertThat(seen).hasSize(5);
+    assertThat(pages).isEqualTo(3);
+  }
+
+  @Test
+  void getProducts_shouldApplyFilters() throws Exception {
+
+    productRepository.save(
+        Product.builder().name("Cable").price(new BigDecimal("9.99")).quantity(0).build());
+    productRepository.save(
+        Product.builder()
+            .name("Charger")
+            .price(new BigDecimal("29.99"))
+            .quantity(5)
+            .sale(new BigDecimal("10.00"))
+            .build());
+
+    mockMvc
+        .perform(
+            get("/api/products")
+                .param("inStock", "true")
+                .param("hasSale", "true")
+                .param("maxPrice", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.items[0].name", is("Charger")));
+
+    mockMvc
+        .perform(get("/api/products").param("inStock", "false"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.items[0].name", is("Cable")));
+  }
+
+  @Test
+  void getProducts_shouldReturn400_whenCursorInvalid() throws Exception {
+
+    mockMvc
+        .perform(get("/api/products").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void exportProducts_shouldStreamNdjson() throws Exception {
+
+    productRepository.save(
+        Product.builder().name("iPhone 15").price(new BigDecimal("999.99")).quantity(20).build());
+
+    MvcResult result =
+        mockMvc.perform(get("/api/products/export")).andExpect(request().asyncStarted()).andReturn();
+
+    String body =
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    String[] lines = body.strip().split("\n");
+    assertThat(lines).hasSize(2);
+    for (String line : lines) {
+      assertThat(objectMapper.readTree(line).get("name").asText()).isNotBlank();
+    }
   }
 
   @Test
@@ -228,6 +338,36 @@ class ProductControllerIntegrationTest {
         .andExpect(jsonPath("$.errors.quantity", notNullValue()));
   }
 
+  @Test
+  void updateProduct_shouldUpdatePriceAndRecordChange() throws Exception {
+
+    mockMvc
+        .perform(
+            patch("/api/products/{id}", existingProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\": 1999.99}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.price", is(1999.99)))
+        .andExpect(jsonPath("$.quantity", is(10)));
+
+    assertThat(productRepository.findById(existingProductId).orElseThrow().getPrice())
+        .isEqualByComparingTo("1999.99");
+    assertThat(productChangeRepository.findAll())
+        .extracting(ProductChange::getType)
+        .containsExactly(ProductChange.Type.PRICE_CHANGED);
+  }
+
+  @Test
+  void updateProduct_shouldReturn400_whenPriceIsNegative() throws Exception {
+
+    mockMvc
+        .perform(
+            patch("/api/products/{id}", existingProductId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\": -1}"))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   void deleteProduct_shouldDeleteProductAndReturn204() throws Exception {
 
@@ -272,4 +412,73 @@ class ProductControllerIntegrationTest {
         .andExpect(jsonPath("$.error").isString())
         .andExpect(jsonPath("$.message").isString());
   }
+
+  @Test
+  void adjustStock_shouldApplyDeltasAndRejectNegativeStock() throws Exception {
+
+    Product secondProduct =
+        productRepository.save(
+            Product.builder().name("iPhone 15").price(new BigDecimal("999.99")).quantity(2).build());
+
+    String requestBody =
+        objectMapper.writeValueAsString(
+            StockAdjustmentRequest.builder()
+                .items(
+                    List.of(
+                        new StockAdjustmentItem(existingProductId, 25),
+                        new StockAdjustmentItem(secondProduct.getId(), -5)))
+                .build());
+
+    mockMvc
+        .perform(
+            post("/api/products/stock-adjustments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.applied", hasSize(1)))
+        .andExpect(jsonPath("$.applied[0].quantity", is(35)))
+        .andExpect(jsonPath("$.rejected", hasSize(1)))
+        .andExpect(jsonPath("$.rejected[0].reason", is("INSUFFICIENT_STOCK")))
+        .andExpect(jsonPath("$.rejected[0].availableQuantity", is(2)));
+
+    assertThat(productRepository.findById(existingProductId).orElseThrow().getQuantity())
+        .isEqualTo(35);
+    assertThat(productRepository.findById(secondProduct.getId()).orElseThrow().getQuantity())
+        .isEqualTo(2);
+    assertThat(productChangeRepository.findAll())
+        .extracting(ProductChange::getType)
+        .containsExactly(ProductChange.Type.QUANTITY_CHANGED);
+  }
+
+  @Test
+  void adjustStock_shouldReturn400_whenItemsEmpty() throws Exception {
+
+    mockMvc
+        .perform(
+            post("/api/products/stock-adjustments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[]}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void adjustStock_shouldReturn400_whenQuantityWouldOverflow() throws Exception {
+
+    String requestBody =
+        objectMapper.writeValueAsString(
+            StockAdjustmentRequest.builder()
+                .items(List.of(new StockAdjustmentItem(existingProductId, Integer.MAX_VALUE)))
+                .build());
+
+    mockMvc
+        .perform(
+            post("/api/products/stock-adjustments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message", containsString(existingProductId.toString())));
+
+    assertThat(productRepository.findById(existingProductId).orElseThrow().getQuantity())
+        .isEqualTo(10);
+  }
 }
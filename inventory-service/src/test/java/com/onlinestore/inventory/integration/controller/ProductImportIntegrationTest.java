@@ -0,0 +1,130 @@
+package com.onlinestore.inventory.integration.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import com.onlinestore.inventory.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "inventory.import.chunk-size=2")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ProductImportIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ProductRepository productRepository;
+
+  @Autowired private ProductChangeRepository productChangeRepository;
+
+  private UUID existingProductId;
+
+  @BeforeEach
+  void setUp() {
+    productRepository.deleteAll();
+    productChangeRepository.deleteAll();
+
+    existingProductId =
+        productRepository
+            .save(
+                Product.builder()
+                    .name("MacBook Pro 16")
+                    .price(new BigDecimal("2499.99"))
+                    .quantity(10)
+                    .sale(new BigDecimal("5.00"))
+                    .build())
+            .getId();
+  }
+
+  @Test
+  void importJson_shouldCreateUpdateAndRejectInChunks() throws Exception {
+
+    String body =
+        "["
+            + "{\"name\":\"iPhone 15\",\"quantity\":20,\"price\":999.99},"
+            + "{\"id\":\""
+            + existingProductId
+            + "\",\"name\":\"MacBook Pro 16\",\"quantity\":7,\"price\":2399.99,\"sale\":5.00},"
+            + "{\"name\":\"X\",\"quantity\":-1,\"price\":1.00}"
+            + "]";
+
+    mockMvc
+        .perform(post("/api/products/import").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.records", is(3)))
+        .andExpect(jsonPath("$.created", is(1)))
+        .andExpect(jsonPath("$.updated", is(1)))
+        .andExpect(jsonPath("$.rejected", is(1)))
+        .andExpect(jsonPath("$.chunks", hasSize(2)))
+        .andExpect(jsonPath("$.chunks[0].status", is("COMMITTED")))
+        .andExpect(jsonPath("$.chunks[1].errors[0].record", is(3)))
+        .andExpect(jsonPath("$.chunks[1].errors[0].message", containsString("quantity")));
+
+    Product updated = productRepository.findById(existingProductId).orElseThrow();
+    assertThat(updated.getQuantity()).isEqualTo(7);
+    assertThat(updated.getPrice()).isEqualByComparingTo("2399.99");
+    assertThat(productRepository.count()).isEqualTo(2);
+
+    List<ProductChange> changes = productChangeRepository.findAll();
+    assertThat(changes)
+        .extracting(ProductChange::getType)
+        .containsExactlyInAnyOrder(
+            ProductChange.Type.CREATED,
+            ProductChange.Type.PRICE_CHANGED,
+            ProductChange.Type.QUANTITY_CHANGED);
+    assertThat(changes).allSatisfy(change -> assertThat(change.getSequence()).isNotNull());
+  }
+
+  @Test
+  void importCsv_shouldSkipUnchangedProducts() throws Exception {
+
+    String csv =
+        "id,name,quantity,price,sale\n"
+            + existingProductId
+            + ",MacBook Pro 16,10,2499.99,5.00\n"
+            + ",\"Cable, USB-C\",100,9.99,\n";
+
+    mockMvc
+        .perform(post("/api/products/import").contentType("text/csv").content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.unchanged", is(1)))
+        .andExpect(jsonPath("$.created", is(1)));
+
+    assertThat(productRepository.count()).isEqualTo(2);
+    assertThat(productChangeRepository.findAll())
+        .extracting(ProductChange::getType)
+        .containsExactly(ProductChange.Type.CREATED);
+  }
+
+  @Test
+  void importJson_shouldKeepCommittedChunks_whenBodyIsTruncated() throws Exception {
+
+    String body =
+        "[{\"name\":\"iPhone 15\",\"quantity\":20,\"price\":999.99},"
+            + "{\"name\":\"iPad Air\",\"quantity\":5,\"price\":599.99},"
+            + "{\"name\":\"AirPods\",\"quantity\":";
+
+    mockMvc
+        .perform(post("/api/products/import").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.created", is(2)))
+        .andExpect(jsonPath("$.error", notNullValue()));
+
+    assertThat(productRepository.count()).isEqualTo(3);
+  }
+}
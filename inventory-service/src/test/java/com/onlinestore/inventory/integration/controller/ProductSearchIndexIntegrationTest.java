@@ -0,0 +1,139 @@
+package com.onlinestore.inventory.integration.controller;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.inventory.dto.CreateProductRequest;
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.entity.UuidV7;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import com.onlinestore.inventory.service.InMemoryProductSearch;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Поиск из индекса в памяти: видит изменения, сделанные через API, сразу после коммита, а
+ * изменения других реплик - после опроса журнала.
+ */
+@SpringBootTest(properties = "inventory.search.index.enabled=true")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ProductSearchIndexIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private ProductChangeRepository productChangeRepository;
+
+  @Autowired private InMemoryProductSearch inMemoryProductSearch;
+
+  @Test
+  void search_shouldFollowCreateRenameAndDelete() throws Exception {
+    UUID id = create("Zeppelin Turntable Z1");
+
+    mockMvc
+        .perform(get("/api/products/search").param("q", "zepp turn"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.items[0].id", is(id.toString())))
+        .andExpect(jsonPath("$.items[0].price", is(349.99)));
+
+    mockMvc
+        .perform(
+            patch("/api/products/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Zeppelin Amplifier Z1\"}"))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/products/search").param("q", "zeppelin turntable"))
+        .andExpect(jsonPath("$.items", empty()));
+    mockMvc
+        .perform(get("/api/products/search").param("q", "zeppelin amp"))
+        .andExpect(jsonPath("$.items[0].name", is("Zeppelin Amplifier Z1")));
+
+    mockMvc.perform(delete("/api/products/{id}", id)).andExpect(status().isNoContent());
+
+    mockMvc
+        .perform(get("/api/products/search").param("q", "zeppelin"))
+        .andExpect(jsonPath("$.items", empty()));
+  }
+
+  @Test
+  void search_shouldPageWithoutDatabase() throws Exception {
+    for (int i = 1; i <= 3; i++) {
+      create("Quokka Lamp " + i);
+    }
+
+    mockMvc
+        .perform(get("/api/products/search").param("q", "quokka").param("size", "2"))
+        .andExpect(jsonPath("$.items", hasSize(2)))
+        .andExpect(jsonPath("$.hasNext", is(true)));
+    mockMvc
+        .perform(
+            get("/api/products/search").param("q", "quokka").param("page", "1").param("size", "2"))
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.hasNext", is(false)));
+  }
+
+  @Test
+  void search_shouldPickUpChangesOfOtherReplicasFromJournal() throws Exception {
+    // Изменение другой реплики: только запись в журнале, без ProductChangedEvent здесь
+    Product product =
+        Product.builder()
+            .id(UuidV7.next())
+            .name("Wombat Speaker")
+            .quantity(3)
+            .price(new BigDecimal("59.99"))
+            .build();
+    productChangeRepository.save(ProductChange.of(product, ProductChange.Type.CREATED));
+
+    inMemoryProductSearch.pollChanges();
+
+    mockMvc
+        .perform(get("/api/products/search").param("q", "wombat"))
+        .andExpect(jsonPath("$.items", hasSize(1)))
+        .andExpect(jsonPath("$.items[0].id", is(product.getId().toString())));
+
+    productChangeRepository.save(ProductChange.deleted(product.getId()));
+    inMemoryProductSearch.pollChanges();
+
+    mockMvc
+        .perform(get("/api/products/search").param("q", "wombat"))
+        .andExpect(jsonPath("$.items", empty()));
+  }
+
+  private UUID create(String name) throws Exception {
+    CreateProductRequest request =
+        CreateProductRequest.builder()
+            .name(name)
+            .price(new BigDecimal("349.99"))
+            .quantity(5)
+            .sale(BigDecimal.ZERO)
+            .build();
+
+    String response =
+        mockMvc
+            .perform(
+                post("/api/products")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readValue(response, ProductResponse.class).getId();
+  }
+}
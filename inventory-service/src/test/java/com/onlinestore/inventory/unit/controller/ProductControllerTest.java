@@ -9,7 +9,11 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onlinestore.inventory.controller.ProductController;
 import com.onlinestore.inventory.dto.CreateProductRequest;
+import com.onlinestore.inventory.dto.ProductFilter;
+import com.onlinestore.inventory.dto.ProductPageResponse;
 import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSort;
+import com.onlinestore.inventory.dto.UpdateProductRequest;
 import com.onlinestore.inventory.exception.GlobalExceptionHandler;
 import com.onlinestore.inventory.exception.ProductNotFoundException;
 import com.onlinestore.inventory.service.ProductService;
@@ -19,6 +23,7 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -73,28 +78,42 @@ class ProductControllerTest {
   }
 
   @Test
-  void getAllProducts_shouldReturn200AndProductList() throws Exception {
+  void getProducts_shouldReturn200AndProductPage() throws Exception {
 
-    ProductResponse response2 =
-        ProductResponse.builder()
-            .id(UUID.randomUUID())
-            .name("iPhone")
-            .price(new BigDecimal("999.99"))
-            .quantity(20)
-            .build();
-
-    when(productService.getAllProducts()).thenReturn(List.of(productResponse, response2));
+    ProductPageResponse page =
+        ProductPageResponse.builder().items(List.of(productResponse)).nextCursor("abc").build();
+    ArgumentCaptor<ProductFilter> filterCaptor = ArgumentCaptor.forClass(ProductFilter.class);
+    when(productService.getProducts(
+            filterCaptor.capture(), eq(ProductSort.ID), eq("xyz"), eq(20)))
+        .thenReturn(page);
 
     MockHttpServletResponse response =
         mockMvc
-            .perform(get("/api/products").contentType(MediaType.APPLICATION_JSON))
+            .perform(
+                get("/api/products")
+                    .param("sort", "id")
+                    .param("cursor", "xyz")
+                    .param("limit", "20")
+                    .param("inStock", "true")
+                    .param("minPrice", "100.00"))
             .andReturn()
             .getResponse();
 
     assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
     assertThat(response.getContentType()).contains(MediaType.APPLICATION_JSON_VALUE);
+    assertThat(response.getContentAsString()).contains("\"nextCursor\":\"abc\"");
+    assertThat(filterCaptor.getValue().getInStock()).isTrue();
+    assertThat(filterCaptor.getValue().getMinPrice()).isEqualByComparingTo("100.00");
+  }
 
-    verify(productService).getAllProducts();
+  @Test
+  void getProducts_shouldReturn400_whenSortUnsupported() throws Exception {
+
+    MockHttpServletResponse response =
+        mockMvc.perform(get("/api/products").param("sort", "price")).andReturn().getResponse();
+
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    verifyNoInteractions(productService);
   }
 
   @Test
@@ -152,6 +171,28 @@ class ProductControllerTest {
     verify(productService).createProduct(any(CreateProductRequest.class));
   }
 
+  @Test
+  void updateProduct_shouldReturn200AndUpdatedProduct() throws Exception {
+    when(productService.updateProduct(eq(productId), any(UpdateProductRequest.class)))
+        .thenReturn(productResponse);
+
+    String requestBody =
+        objectMapper.writeValueAsString(
+            UpdateProductRequest.builder().price(new BigDecimal("1999.99")).build());
+
+    MockHttpServletResponse response =
+        mockMvc
+            .perform(
+                patch("/api/products/{id}", productId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(requestBody))
+            .andReturn()
+            .getResponse();
+
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+    verify(productService).updateProduct(eq(productId), any(UpdateProductRequest.class));
+  }
+
   @Test
   void deleteProduct_shouldReturn204() throws Exception {
 
@@ -1,12 +1,26 @@
 package com.onlinestore.inventory.unit.grpc;
 
+import com.onlinestore.inventory.dto.AdjustedStock;
+import com.onlinestore.inventory.dto.RejectedStockAdjustment;
+import com.onlinestore.inventory.dto.StockAdjustmentItem;
+import com.onlinestore.inventory.dto.StockAdjustmentResponse;
 import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.exception.InvalidStockAdjustmentException;
 import com.onlinestore.inventory.exception.ProductNotFoundException;
+import com.onlinestore.inventory.grpc.AdjustStockRequest;
+import com.onlinestore.inventory.grpc.AdjustStockResponse;
 import com.onlinestore.inventory.grpc.InventoryGrpcServiceImpl;
+import com.onlinestore.inventory.grpc.ProductChangeBroadcaster;
+import com.onlinestore.inventory.grpc.ProductChangeEvent;
 import com.onlinestore.inventory.grpc.ProductAvailabilityRequest;
 import com.onlinestore.inventory.grpc.ProductAvailabilityResponse;
-import com.onlinestore.inventory.service.ProductService;
+import com.onlinestore.inventory.grpc.StockAdjustment;
+import com.onlinestore.inventory.grpc.WatchProductsRequest;
+import com.onlinestore.inventory.service.ProductCatalog;
+import com.onlinestore.inventory.service.ProductSnapshot;
+import com.onlinestore.inventory.service.StockAdjustmentService;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +32,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,7 +44,13 @@ import static org.mockito.Mockito.*;
 class InventoryGrpcServiceImplTest {
 
     @Mock
-    private ProductService productService;
+    private ProductCatalog productCatalog;
+
+    @Mock
+    private ProductChangeBroadcaster productChangeBroadcaster;
+
+    @Mock
+    private StockAdjustmentService stockAdjustmentService;
 
     @Mock
     private StreamObserver<ProductAvailabilityResponse> responseObserver;
@@ -61,7 +82,7 @@ class InventoryGrpcServiceImplTest {
     @Test
     void checkAvailability_WhenProductExistsAndQuantityAvailable_ReturnsSuccess() {
         // Arrange
-        when(productService.getProductEntityById(productId)).thenReturn(testProduct);
+        when(productCatalog.get(productId)).thenReturn(ProductSnapshot.from(testProduct));
         ProductAvailabilityRequest request = ProductAvailabilityRequest.newBuilder()
                 .setProductId(productId.toString())
                 .setRequestedQuantity(5)
@@ -79,6 +100,8 @@ class InventoryGrpcServiceImplTest {
         assertThat(response.getProductName()).isEqualTo("iPhone 15 Pro");
         assertThat(response.getPrice()).isEqualTo(1299.99);
         assertThat(response.getDiscount()).isEqualTo(15.50);
+        assertThat(response.getPriceCents()).isEqualTo(129_999L);
+        assertThat(response.getDiscountBasisPoints()).isEqualTo(1550);
         assertThat(response.getAvailableQuantity()).isEqualTo(10);
         assertThat(response.getIsAvailable()).isTrue();
         assertThat(response.getMessage()).isEqualTo("Available");
@@ -87,7 +110,7 @@ class InventoryGrpcServiceImplTest {
     @Test
     void checkAvailability_WhenProductExistsButInsufficientQuantity_ReturnsNotAvailable() {
         // Arrange
-        when(productService.getProductEntityById(productId)).thenReturn(testProduct);
+        when(productCatalog.get(productId)).thenReturn(ProductSnapshot.from(testProduct));
         ProductAvailabilityRequest request = ProductAvailabilityRequest.newBuilder()
                 .setProductId(productId.toString())
                 .setRequestedQuantity(15) // больше чем есть
@@ -108,7 +131,7 @@ class InventoryGrpcServiceImplTest {
     @Test
     void checkAvailability_WhenProductNotFound_ReturnsNotFound() {
         // Arrange
-        when(productService.getProductEntityById(any(UUID.class)))
+        when(productCatalog.get(any(UUID.class)))
                 .thenThrow(new ProductNotFoundException(UUID.randomUUID()));
         ProductAvailabilityRequest request = ProductAvailabilityRequest.newBuilder()
                 .setProductId(productId.toString())
@@ -151,7 +174,7 @@ class InventoryGrpcServiceImplTest {
     @Test
     void checkAvailability_WhenServiceThrowsException_ReturnsInternalError() {
         // Arrange
-        when(productService.getProductEntityById(any(UUID.class)))
+        when(productCatalog.get(any(UUID.class)))
                 .thenThrow(new RuntimeException("DB error"));
         ProductAvailabilityRequest request = ProductAvailabilityRequest.newBuilder()
                 .setProductId(productId.toString())
@@ -180,7 +203,7 @@ class InventoryGrpcServiceImplTest {
                 .price(new BigDecimal("100.00"))
                 .sale(null)
                 .build();
-        when(productService.getProductEntityById(productId)).thenReturn(productNoDiscount);
+        when(productCatalog.get(productId)).thenReturn(ProductSnapshot.from(productNoDiscount));
         ProductAvailabilityRequest request = ProductAvailabilityRequest.newBuilder()
                 .setProductId(productId.toString())
                 .setRequestedQuantity(2)
@@ -193,4 +216,78 @@ class InventoryGrpcServiceImplTest {
         verify(responseObserver).onNext(responseCaptor.capture());
         assertThat(responseCaptor.getValue().getDiscount()).isEqualTo(0.0);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void watchProducts_SubscribesStreamFromRequestedSequence() {
+        // Arrange
+        ServerCallStreamObserver<ProductChangeEvent> changeObserver = mock(ServerCallStreamObserver.class);
+
+        // Act
+        grpcService.watchProducts(WatchProductsRequest.newBuilder().setFromSequence(42).build(), changeObserver);
+
+        // Assert
+        verify(productChangeBroadcaster).subscribe(changeObserver, 42L);
+        verifyNoInteractions(productCatalog);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void adjustStock_MapsResultAndRejectsInvalidIds() {
+        // Arrange
+        UUID missingId = UUID.randomUUID();
+        StreamObserver<AdjustStockResponse> adjustObserver = mock(StreamObserver.class);
+        when(stockAdjustmentService.adjustStock(List.of(
+                new StockAdjustmentItem(productId, 5),
+                new StockAdjustmentItem(missingId, -1))))
+                .thenReturn(StockAdjustmentResponse.builder()
+                        .applied(List.of(new AdjustedStock(productId, 15)))
+                        .rejected(List.of(new RejectedStockAdjustment(
+                                missingId, -1, 0, RejectedStockAdjustment.Reason.NOT_FOUND)))
+                        .build());
+        AdjustStockRequest request = AdjustStockRequest.newBuilder()
+                .addAdjustments(StockAdjustment.newBuilder().setProductId(productId.toString()).setDelta(5))
+                .addAdjustments(StockAdjustment.newBuilder().setProductId("not-a-uuid").setDelta(3))
+                .addAdjustments(StockAdjustment.newBuilder().setProductId(missingId.toString()).setDelta(-1))
+                .build();
+
+        // Act
+        grpcService.adjustStock(request, adjustObserver);
+
+        // Assert
+        ArgumentCaptor<AdjustStockResponse> captor = ArgumentCaptor.forClass(AdjustStockResponse.class);
+        verify(adjustObserver).onNext(captor.capture());
+        verify(adjustObserver).onCompleted();
+        AdjustStockResponse response = captor.getValue();
+        assertThat(response.getAppliedList()).singleElement()
+                .satisfies(applied -> assertThat(applied.getQuantity()).isEqualTo(15));
+        assertThat(response.getRejectedList())
+                .extracting(AdjustStockResponse.Rejected::getReason)
+                .containsExactly(AdjustStockResponse.Rejected.Reason.INVALID,
+                        AdjustStockResponse.Rejected.Reason.NOT_FOUND);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void adjustStock_WhenQuantityWouldOverflow_ReturnsInvalidArgument() {
+        // Arrange
+        StreamObserver<AdjustStockResponse> adjustObserver = mock(StreamObserver.class);
+        when(stockAdjustmentService.adjustStock(any()))
+                .thenThrow(new InvalidStockAdjustmentException("Stock of product would exceed 2147483647"));
+        AdjustStockRequest request = AdjustStockRequest.newBuilder()
+                .addAdjustments(StockAdjustment.newBuilder()
+                        .setProductId(productId.toString())
+                        .setDelta(Integer.MAX_VALUE))
+                .build();
+
+        // Act
+        grpcService.adjustStock(request, adjustObserver);
+
+        // Assert
+        ArgumentCaptor<Throwable> captor = ArgumentCaptor.forClass(Throwable.class);
+        verify(adjustObserver).onError(captor.capture());
+        verify(adjustObserver, never()).onNext(any());
+        assertThat(((StatusRuntimeException) captor.getValue()).getStatus().getCode())
+                .isEqualTo(io.grpc.Status.Code.INVALID_ARGUMENT);
+    }
 }
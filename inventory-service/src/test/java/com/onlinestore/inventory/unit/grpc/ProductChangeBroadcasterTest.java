@@ -0,0 +1,158 @@
+package com.onlinestore.inventory.unit.grpc;
+
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.grpc.ProductChangeBroadcaster;
+import com.onlinestore.inventory.grpc.ProductChangeEvent;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import com.onlinestore.inventory.service.ProductChangedEvent;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeBroadcasterTest {
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private ServerCallStreamObserver<ProductChangeEvent> subscriber;
+
+    @Captor
+    private ArgumentCaptor<ProductChangeEvent> eventCaptor;
+
+    @Captor
+    private ArgumentCaptor<Runnable> cancelHandlerCaptor;
+
+    @Captor
+    private ArgumentCaptor<Throwable> errorCaptor;
+
+    private ProductChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ProductChangeBroadcaster(productChangeRepository);
+        ReflectionTestUtils.setField(broadcaster, "maxCatchUp", 1000L);
+    }
+
+    @Test
+    void onProductChanged_SendsEventToSubscribers() {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+        when(subscriber.isReady()).thenReturn(true);
+        broadcaster.subscribe(subscriber, 0);
+
+        // Act
+        broadcaster.onProductChanged(new ProductChangedEvent(change(7, productId, ProductChange.Type.PRICE_CHANGED)));
+
+        // Assert
+        verify(subscriber).onNext(eventCaptor.capture());
+        ProductChangeEvent event = eventCaptor.getValue();
+        assertThat(event.getSequence()).isEqualTo(7);
+        assertThat(event.getProductId()).isEqualTo(productId.toString());
+        assertThat(event.getType()).isEqualTo(ProductChangeEvent.Type.PRICE_CHANGED);
+        assertThat(event.getPrice()).isEqualTo(99.90);
+        assertThat(event.getPriceCents()).isEqualTo(9_990L);
+        verifyNoInteractions(productChangeRepository);
+    }
+
+    @Test
+    void subscribe_WithFromSequence_ReplaysMissedChangesBeforeLiveEvents() {
+        // Arrange
+        when(subscriber.isReady()).thenReturn(true);
+        when(productChangeRepository.findMinSequence()).thenReturn(1L);
+        when(productChangeRepository.countBySequenceGreaterThan(5L)).thenReturn(2L);
+        when(productChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        change(6, UUID.randomUUID(), ProductChange.Type.CREATED),
+                        change(7, UUID.randomUUID(), ProductChange.Type.QUANTITY_CHANGED)));
+
+        // Act
+        broadcaster.subscribe(subscriber, 5);
+        broadcaster.onProductChanged(new ProductChangedEvent(change(8, UUID.randomUUID(), ProductChange.Type.CREATED)));
+
+        // Assert
+        verify(subscriber, times(3)).onNext(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues()).extracting(ProductChangeEvent::getSequence).containsExactly(6L, 7L, 8L);
+    }
+
+    @Test
+    void subscribe_WhenSequenceAlreadyPurged_ReturnsOutOfRange() {
+        // Arrange
+        when(productChangeRepository.findMinSequence()).thenReturn(100L);
+        when(productChangeRepository.countBySequenceGreaterThan(5L)).thenReturn(50L);
+
+        // Act
+        broadcaster.subscribe(subscriber, 5);
+
+        // Assert
+        verify(subscriber).onError(errorCaptor.capture());
+        assertThat(((StatusRuntimeException) errorCaptor.getValue()).getStatus().getCode())
+                .isEqualTo(Status.Code.OUT_OF_RANGE);
+        assertThat(broadcaster.getSubscriberCount()).isZero();
+        verify(productChangeRepository, never()).findBySequenceGreaterThanOrderBySequenceAsc(anyLong(), any());
+    }
+
+    @Test
+    void onProductChanged_WhenSubscriberCancelled_StopsSending() {
+        // Arrange
+        broadcaster.subscribe(subscriber, 0);
+        verify(subscriber).setOnCancelHandler(cancelHandlerCaptor.capture());
+
+        // Act
+        cancelHandlerCaptor.getValue().run();
+        broadcaster.onProductChanged(new ProductChangedEvent(change(1, UUID.randomUUID(), ProductChange.Type.CREATED)));
+
+        // Assert
+        assertThat(broadcaster.getSubscriberCount()).isZero();
+        verify(subscriber, never()).onNext(any());
+    }
+
+    @Test
+    void onProductChanged_WhenSubscriberTooSlow_ClosesStream() {
+        // Arrange
+        when(subscriber.isReady()).thenReturn(false);
+        broadcaster.subscribe(subscriber, 0);
+
+        // Act
+        broadcaster.onProductChanged(new ProductChangedEvent(change(1, UUID.randomUUID(), ProductChange.Type.CREATED)));
+
+        // Assert
+        verify(subscriber, never()).onNext(any());
+        verify(subscriber).onError(errorCaptor.capture());
+        assertThat(((StatusRuntimeException) errorCaptor.getValue()).getStatus().getCode())
+                .isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        assertThat(broadcaster.getSubscriberCount()).isZero();
+    }
+
+    private static ProductChange change(long sequence, UUID productId, ProductChange.Type type) {
+        return ProductChange.builder()
+                .sequence(sequence)
+                .productId(productId)
+                .type(type)
+                .name("Product")
+                .quantity(5)
+                .price(new BigDecimal("99.90"))
+                .sale(BigDecimal.ZERO)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.onlinestore.inventory.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.exception.ProductNotFoundException;
+import com.onlinestore.inventory.repository.ProductRepository;
+import com.onlinestore.inventory.service.ProductCatalog;
+import com.onlinestore.inventory.service.ProductChangedEvent;
+import com.onlinestore.inventory.service.ProductSnapshot;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogTest {
+
+  @Mock private ProductRepository productRepository;
+
+  private ProductCatalog productCatalog;
+
+  private UUID productId;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    productCatalog =
+        new ProductCatalog(productRepository, 100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    productId = UUID.randomUUID();
+    product =
+        Product.builder()
+            .id(productId)
+            .name("iPhone 15 Pro")
+            .price(new BigDecimal("1299.99"))
+            .quantity(10)
+            .sale(new BigDecimal("15.50"))
+            .build();
+  }
+
+  @Test
+  void get_LoadsSnapshotOnceAndServesRepeatedReadsFromMemory() {
+    when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+    ProductSnapshot first = productCatalog.get(productId);
+    ProductSnapshot second = productCatalog.get(productId);
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.name()).isEqualTo("iPhone 15 Pro");
+    assertThat(first.priceCents()).isEqualTo(129999);
+    assertThat(first.discountBasisPoints()).isEqualTo(1550);
+    assertThat(first.quantity()).isEqualTo(10);
+    verify(productRepository, times(1)).findById(productId);
+  }
+
+  @Test
+  void get_WhenProductMissing_CachesAbsenceAndThrows() {
+    when(productRepository.findById(productId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> productCatalog.get(productId))
+        .isInstanceOf(ProductNotFoundException.class);
+    assertThatThrownBy(() -> productCatalog.get(productId))
+        .isInstanceOf(ProductNotFoundException.class);
+
+    verify(productRepository, times(1)).findById(productId);
+  }
+
+  @Test
+  void get_WhenMissingTtlPassed_SeesProductCreatedElsewhere() throws InterruptedException {
+    productCatalog =
+        new ProductCatalog(productRepository, 100, Duration.ofMinutes(1), Duration.ofMillis(50));
+    when(productRepository.findById(productId))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(product));
+    assertThatThrownBy(() -> productCatalog.get(productId))
+        .isInstanceOf(ProductNotFoundException.class);
+
+    Thread.sleep(100);
+
+    assertThat(productCatalog.get(productId).name()).isEqualTo("iPhone 15 Pro");
+  }
+
+  @Test
+  void get_WhenTtlPassed_ReloadsSnapshot() throws InterruptedException {
+    productCatalog =
+        new ProductCatalog(productRepository, 100, Duration.ofMillis(50), Duration.ofMillis(50));
+    when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+    productCatalog.get(productId);
+
+    // Изменение на другой реплике: ProductChangedEvent сюда не приходит
+    product.setQuantity(3);
+    Thread.sleep(100);
+
+    assertThat(productCatalog.get(productId).quantity()).isEqualTo(3);
+    verify(productRepository, times(2)).findById(productId);
+  }
+
+  @Test
+  void onProductChanged_InvalidatesSnapshot() {
+    when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+    productCatalog.get(productId);
+
+    product.setQuantity(3);
+    productCatalog.onProductChanged(
+        new ProductChangedEvent(ProductChange.of(product, ProductChange.Type.QUANTITY_CHANGED)));
+
+    assertThat(productCatalog.get(productId).quantity()).isEqualTo(3);
+    verify(productRepository, times(2)).findById(productId);
+  }
+
+  @Test
+  void onProductChanged_WhenProductDeleted_ForgetsSnapshot() {
+    when(productRepository.findById(productId))
+        .thenReturn(Optional.of(product))
+        .thenReturn(Optional.empty());
+    productCatalog.get(productId);
+
+    productCatalog.onProductChanged(new ProductChangedEvent(ProductChange.deleted(productId)));
+
+    assertThatThrownBy(() -> productCatalog.get(productId))
+        .isInstanceOf(ProductNotFoundException.class);
+  }
+
+  @Test
+  void snapshot_WithoutSale_HasZeroDiscount() {
+    product.setSale(null);
+
+    ProductSnapshot snapshot = ProductSnapshot.from(product);
+
+    assertThat(snapshot.discountBasisPoints()).isZero();
+    assertThat(snapshot.price()).isEqualTo(1299.99);
+  }
+}
@@ -0,0 +1,98 @@
+package com.onlinestore.inventory.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.inventory.exception.InvalidProductImportException;
+import com.onlinestore.inventory.service.ProductImportReader;
+import com.onlinestore.inventory.service.ProductImportReader.Entry;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ProductImportReaderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void csv_shouldParseQuotedValuesAndOptionalColumns() {
+    UUID id = UUID.randomUUID();
+    String csv =
+        "id,name,quantity,price,sale\n"
+            + id + ",\"Cable, USB-C \"\"2m\"\"\",5,9.99,\n"
+            + "\n"
+            + ",Charger,3,29.90,10.00\n";
+
+    List<Entry> entries = readAll(ProductImportReader.csv(stream(csv)));
+
+    assertThat(entries).hasSize(2);
+    assertThat(entries.get(0).number()).isEqualTo(1);
+    assertThat(entries.get(0).record().getId()).isEqualTo(id);
+    assertThat(entries.get(0).record().getName()).isEqualTo("Cable, USB-C \"2m\"");
+    assertThat(entries.get(0).record().getSale()).isNull();
+    assertThat(entries.get(1).record().getId()).isNull();
+    assertThat(entries.get(1).record().getSale()).isEqualByComparingTo(new BigDecimal("10.00"));
+  }
+
+  @Test
+  void csv_shouldReturnErrorEntryForBadValueAndContinue() {
+    String csv = "name,quantity,price\nCable,many,9.99\nCharger,3\nAdapter,1,5.00\n";
+
+    List<Entry> entries = readAll(ProductImportReader.csv(stream(csv)));
+
+    assertThat(entries).extracting(Entry::error)
+        .containsExactly(
+            "Invalid value in column quantity: many", "Expected 3 columns, got 2", null);
+  }
+
+  @Test
+  void csv_shouldFail_whenRequiredColumnMissing() {
+    Iterator<Entry> entries = ProductImportReader.csv(stream("name,price\nCable,9.99\n"));
+
+    assertThatThrownBy(entries::hasNext)
+        .isInstanceOf(InvalidProductImportException.class)
+        .hasMessageContaining("quantity");
+  }
+
+  @Test
+  void json_shouldReadArrayElementsOneByOne() {
+    String json =
+        "[{\"name\":\"Cable\",\"quantity\":5,\"price\":9.99},"
+            + "{\"name\":\"Charger\",\"quantity\":\"lots\",\"price\":29.90},"
+            + "{\"name\":\"Adapter\",\"quantity\":1,\"price\":5.00}]";
+
+    List<Entry> entries = readAll(ProductImportReader.json(stream(json), objectMapper));
+
+    assertThat(entries).hasSize(3);
+    assertThat(entries.get(0).record().getName()).isEqualTo("Cable");
+    assertThat(entries.get(1).record()).isNull();
+    assertThat(entries.get(1).error()).contains("lots");
+    assertThat(entries.get(2).number()).isEqualTo(3);
+    assertThat(entries.get(2).record().getName()).isEqualTo("Adapter");
+  }
+
+  @Test
+  void json_shouldFail_whenBodyIsNotArray() {
+    Iterator<Entry> entries =
+        ProductImportReader.json(stream("{\"name\":\"Cable\"}"), objectMapper);
+
+    assertThatThrownBy(entries::hasNext).isInstanceOf(InvalidProductImportException.class);
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static List<Entry> readAll(Iterator<Entry> entries) {
+    List<Entry> result = new ArrayList<>();
+    entries.forEachRemaining(result::add);
+    return result;
+  }
+}
@@ -0,0 +1,135 @@
+package com.onlinestore.inventory.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.onlinestore.inventory.service.ProductSearchIndex;
+import com.onlinestore.inventory.service.ProductSnapshot;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTest {
+
+  private ProductSearchIndex index;
+
+  private ProductSnapshot iphone;
+  private ProductSnapshot iphoneCase;
+  private ProductSnapshot ipad;
+  private ProductSnapshot cable;
+
+  @BeforeEach
+  void setUp() {
+    iphone = product("Apple iPhones 15 Pro");
+    iphoneCase = product("Case for iPhone 15");
+    ipad = product("Apple iPad Air");
+    cable = product("USB-C cable (iPhone 15)");
+
+    index = new ProductSearchIndex();
+    index.rebuild(List.of(iphone, iphoneCase, ipad, cable).iterator());
+  }
+
+  @Test
+  void tokens_shouldSplitOnNonAlphanumericsAndDropDuplicates() {
+    assertThat(ProductSearchIndex.tokens("USB-C  кабель, USB 2.0"))
+        .containsExactly("usb", "c", "кабель", "2", "0");
+  }
+
+  @Test
+  void search_shouldMatchEveryWordByPrefix() {
+    assertThat(index.search(List.of("ip"), 0, 10)).hasSize(4);
+    assertThat(index.search(List.of("apple", "ip"), 0, 10)).containsExactly(iphone, ipad);
+    assertThat(index.search(List.of("15", "ca"), 0, 10))
+        .containsExactlyInAnyOrder(iphoneCase, cable);
+    assertThat(index.search(List.of("apple", "case"), 0, 10)).isEmpty();
+    assertThat(index.search(List.of("samsung"), 0, 10)).isEmpty();
+  }
+
+  @Test
+  void search_shouldRankExactWordBeforeContinuations() {
+    assertThat(index.search(List.of("iphone"), 0, 10)).containsExactly(iphoneCase, cable, iphone);
+  }
+
+  @Test
+  void search_shouldPageThroughMatches() {
+    assertThat(index.search(List.of("iphone"), 1, 1)).containsExactly(cable);
+    assertThat(index.search(List.of("iphone"), 3, 1)).isEmpty();
+  }
+
+  @Test
+  void put_shouldReplaceWordsOfRenamedProduct() {
+    ProductSnapshot renamed = new ProductSnapshot(ipad.id(), "Apple MacBook Air", 99_900, 0, 3);
+
+    index.put(renamed, 10);
+
+    assertThat(index.search(List.of("ipad"), 0, 10)).isEmpty();
+    assertThat(index.search(List.of("macbook"), 0, 10)).containsExactly(renamed);
+    assertThat(index.search(List.of("air"), 0, 10)).containsExactly(renamed);
+    assertThat(index.stats().products()).isEqualTo(4);
+  }
+
+  @Test
+  void put_shouldIgnoreChangeOlderThanApplied() {
+    ProductSnapshot newer = new ProductSnapshot(ipad.id(), "Apple iPad Pro", 99_900, 0, 3);
+    ProductSnapshot older = new ProductSnapshot(ipad.id(), "Apple iPad mini", 49_900, 0, 3);
+
+    index.put(newer, 20);
+    index.put(older, 19);
+
+    assertThat(index.search(List.of("ipad"), 0, 10)).containsExactly(newer);
+    assertThat(index.search(List.of("mini"), 0, 10)).isEmpty();
+  }
+
+  @Test
+  void putAndRemove_shouldAddNewProductAndDropDeletedOne() {
+    ProductSnapshot watch = product("Apple Watch Ultra");
+
+    index.put(watch, 30);
+    index.remove(iphone.id(), 31);
+
+    assertThat(index.search(List.of("apple"), 0, 10)).containsExactly(ipad, watch);
+    assertThat(index.search(List.of("pro"), 0, 10)).isEmpty();
+    assertThat(index.stats().products()).isEqualTo(4);
+    assertThat(index.stats().postings()).isPositive();
+  }
+
+  @Test
+  void apply_shouldApplyBatchAsOneState() {
+    ProductSnapshot watch = product("Apple Watch Ultra");
+    ProductSnapshot renamed = new ProductSnapshot(ipad.id(), "Apple iPad mini", 49_900, 0, 3);
+    ProductSnapshot renamedAgain = new ProductSnapshot(ipad.id(), "Apple iPad Air", 59_900, 0, 3);
+
+    index.apply(
+        List.of(
+            new ProductSearchIndex.Update(watch.id(), watch, 40),
+            new ProductSearchIndex.Update(ipad.id(), renamed, 41),
+            new ProductSearchIndex.Update(ipad.id(), renamedAgain, 42),
+            new ProductSearchIndex.Update(iphone.id(), null, 43),
+            new ProductSearchIndex.Update(UUID.randomUUID(), null, 44)));
+
+    assertThat(index.search(List.of("apple"), 0, 10)).containsExactly(renamedAgain, watch);
+    assertThat(index.search(List.of("mini"), 0, 10)).isEmpty();
+    assertThat(index.search(List.of("air"), 0, 10)).containsExactly(renamedAgain);
+    assertThat(index.search(List.of("pro"), 0, 10)).isEmpty();
+    assertThat(index.stats().products()).isEqualTo(4);
+  }
+
+  @Test
+  void apply_shouldSkipRepeatedAndOlderChanges() {
+    ProductSnapshot renamed = new ProductSnapshot(ipad.id(), "Apple MacBook Air", 99_900, 0, 3);
+    ProductSnapshot older = new ProductSnapshot(ipad.id(), "Apple iPad mini", 49_900, 0, 3);
+    index.put(renamed, 50);
+
+    index.apply(
+        List.of(
+            new ProductSearchIndex.Update(ipad.id(), older, 49),
+            new ProductSearchIndex.Update(ipad.id(), renamed, 50)));
+
+    assertThat(index.search(List.of("macbook"), 0, 10)).containsExactly(renamed);
+    assertThat(index.search(List.of("mini"), 0, 10)).isEmpty();
+  }
+
+  private static ProductSnapshot product(String name) {
+    return new ProductSnapshot(UUID.randomUUID(), name, 100_00, 0, 1);
+  }
+}
@@ -0,0 +1,117 @@
+package com.onlinestore.inventory.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSearchResponse;
+import com.onlinestore.inventory.exception.InvalidProductQueryException;
+import com.onlinestore.inventory.repository.ProductRepository;
+import com.onlinestore.inventory.service.InMemoryProductSearch;
+import com.onlinestore.inventory.service.ProductSearchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+
+  @Mock private ProductRepository productRepository;
+
+  private ProductSearchService productSearchService;
+
+  @BeforeEach
+  void setUp() {
+    productSearchService =
+        new ProductSearchService(
+            productRepository, Optional.empty(), 100, Duration.ofMinutes(1));
+  }
+
+  @Test
+  void search_shouldBuildPrefixQueryFromWords() {
+    when(productRepository.search("iphone:* & 15:*", "iphone 15", 21, 0)).thenReturn(List.of());
+
+    ProductSearchResponse response = productSearchService.search("  iPhone   15 ", 0, 20);
+
+    assertThat(response.getQuery()).isEqualTo("iphone 15");
+    assertThat(response.getItems()).isEmpty();
+    assertThat(response.isHasNext()).isFalse();
+  }
+
+  @Test
+  void search_shouldStripQueryOperators() {
+    when(productRepository.search("usb:* & c:*", "usb-c!|", 21, 0)).thenReturn(List.of());
+
+    productSearchService.search("USB-C!|", 0, 20);
+
+    verify(productRepository).search("usb:* & c:*", "usb-c!|", 21, 0);
+  }
+
+  @Test
+  void search_shouldServeRepeatedQueryFromCache() {
+    ProductResponse product = ProductResponse.builder().id(UUID.randomUUID()).name("iPad").build();
+    when(productRepository.search(anyString(), anyString(), anyInt(), anyInt()))
+        .thenReturn(List.of(product));
+
+    productSearchService.search("ipad", 0, 20);
+    ProductSearchResponse cached = productSearchService.search("IPAD ", 0, 20);
+
+    assertThat(cached.getItems()).containsExactly(product);
+    verify(productRepository, times(1)).search(anyString(), anyString(), anyInt(), anyInt());
+  }
+
+  @Test
+  void search_shouldReportNextPage_whenExtraRowReturned() {
+    ProductResponse first = ProductResponse.builder().id(UUID.randomUUID()).name("Cable 1").build();
+    ProductResponse second = ProductResponse.builder().id(UUID.randomUUID()).name("Cable 2").build();
+    when(productRepository.search("cable:*", "cable", 2, 1)).thenReturn(List.of(first, second));
+
+    ProductSearchResponse response = productSearchService.search("cable", 1, 1);
+
+    assertThat(response.isHasNext()).isTrue();
+    assertThat(response.getItems()).containsExactly(first);
+  }
+
+  @Test
+  void search_shouldSkipDatabase_whenQueryHasNoWords() {
+    ProductSearchResponse response = productSearchService.search("!!!", 0, 20);
+
+    assertThat(response.getItems()).isEmpty();
+    verifyNoInteractions(productRepository);
+  }
+
+  @Test
+  void search_shouldRejectBlankQueryAndDeepPages() {
+    assertThatThrownBy(() -> productSearchService.search("  ", 0, 20))
+        .isInstanceOf(InvalidProductQueryException.class);
+    assertThatThrownBy(() -> productSearchService.search("ipad", 0, 500))
+        .isInstanceOf(InvalidProductQueryException.class);
+    assertThatThrownBy(() -> productSearchService.search("ipad", 100, 50))
+        .isInstanceOf(InvalidProductQueryException.class);
+    verifyNoInteractions(productRepository);
+  }
+
+  @Test
+  void search_shouldUseInMemoryIndex_whenEnabled() {
+    InMemoryProductSearch inMemorySearch = mock(InMemoryProductSearch.class);
+    ProductSearchResponse indexed = ProductSearchResponse.builder().query("ipad").build();
+    when(inMemorySearch.search("ipad", 0, 20)).thenReturn(indexed);
+    productSearchService =
+        new ProductSearchService(
+            productRepository, Optional.of(inMemorySearch), 100, Duration.ofMinutes(1));
+
+    ProductSearchResponse response = productSearchService.search(" iPad", 0, 20);
+
+    assertThat(response).isSameAs(indexed);
+    verifyNoInteractions(productRepository);
+  }
+}
@@ -6,16 +6,28 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import com.onlinestore.inventory.dto.CreateProductRequest;
+import com.onlinestore.inventory.dto.ProductFilter;
+import com.onlinestore.inventory.dto.ProductPageResponse;
 import com.onlinestore.inventory.dto.ProductResponse;
+import com.onlinestore.inventory.dto.ProductSort;
+import com.onlinestore.inventory.dto.UpdateProductRequest;
 import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.exception.InvalidProductQueryException;
 import com.onlinestore.inventory.exception.ProductNotFoundException;
 import com.onlinestore.inventory.mapper.ProductMapper;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
 import com.onlinestore.inventory.repository.ProductRepository;
+import com.onlinestore.inventory.service.ProductChangedEvent;
+import com.onlinestore.inventory.service.ProductCursor;
 import com.onlinestore.inventory.service.ProductService;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +36,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -32,6 +45,12 @@ class ProductServiceTest {
 
   @Mock private ProductMapper productMapper;
 
+  @Mock private ProductChangeRepository productChangeRepository;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Captor private ArgumentCaptor<ProductChange> changeCaptor;
+
   @InjectMocks private ProductService productService;
 
   @Captor private ArgumentCaptor<Product> productCaptor;
@@ -73,44 +92,83 @@ class ProductServiceTest {
   }
 
   @Test
-  void getAllProducts_shouldReturnListOfProductResponses() {
+  void getProducts_shouldReturnLastPageWithoutCursor() {
+    ProductFilter filter = ProductFilter.builder().inStock(true).build();
+    when(productRepository.findPage(filter, ProductSort.NAME, null, null, 3))
+        .thenReturn(List.of(productResponse));
 
-    Product product2 =
-        Product.builder()
-            .id(UUID.randomUUID())
-            .name("iPhone")
-            .price(new BigDecimal("999.99"))
-            .quantity(20)
-            .build();
+    ProductPageResponse result = productService.getProducts(filter, ProductSort.NAME, null, 2);
 
-    ProductResponse response2 =
-        ProductResponse.builder()
-            .id(product2.getId())
-            .name("iPhone")
-            .price(new BigDecimal("999.99"))
-            .quantity(20)
-            .build();
+    assertThat(result.getItems()).containsExactly(productResponse);
+    assertThat(result.getNextCursor()).isNull();
+    verifyNoInteractions(productMapper);
+  }
 
-    when(productRepository.findAll()).thenReturn(List.of(product, product2));
-    when(productMapper.toResponse(product)).thenReturn(productResponse);
-    when(productMapper.toResponse(product2)).thenReturn(response2);
+  @Test
+  void getProducts_shouldReturnCursorOfLastItem_whenMoreRowsExist() {
+    ProductResponse next =
+        ProductResponse.builder().id(UUID.randomUUID()).name("iPhone").build();
+    when(productRepository.findPage(null, ProductSort.NAME, null, null, 2))
+        .thenReturn(List.of(productResponse, next));
+
+    ProductPageResponse result = productService.getProducts(null, ProductSort.NAME, null, 1);
+
+    assertThat(result.getItems()).containsExactly(productResponse);
+    ProductCursor cursor = ProductCursor.decode(result.getNextCursor(), ProductSort.NAME);
+    assertThat(cursor.name()).isEqualTo("MacBook Pro");
+    assertThat(cursor.id()).isEqualTo(productId);
+  }
 
-    List<ProductResponse> result = productService.getAllProducts();
+  @Test
+  void getProducts_shouldContinueAfterCursor() {
+    String cursor = new ProductCursor(ProductSort.NAME, "MacBook Pro", productId).encode();
+    when(productRepository.findPage(null, ProductSort.NAME, "MacBook Pro", productId, 51))
+        .thenReturn(List.of());
+
+    ProductPageResponse result = productService.getProducts(null, ProductSort.NAME, cursor, 50);
 
-    assertThat(result).hasSize(2).containsExactly(productResponse, response2);
-    verify(productRepository).findAll();
-    verify(productMapper, times(2)).toResponse(any(Product.class));
+    assertThat(result.getItems()).isEmpty();
+    assertThat(result.getNextCursor()).isNull();
   }
 
   @Test
-  void getAllProducts_shouldReturnEmptyList_whenNoProducts() {
-    when(productRepository.findAll()).thenReturn(List.of());
+  void getProducts_shouldCapPageSize() {
+    when(productRepository.findPage(null, ProductSort.ID, null, null, 501)).thenReturn(List.of());
 
-    List<ProductResponse> result = productService.getAllProducts();
+    productService.getProducts(null, ProductSort.ID, null, 10_000);
 
-    assertThat(result).isEmpty();
-    verify(productRepository).findAll();
-    verifyNoInteractions(productMapper);
+    verify(productRepository).findPage(null, ProductSort.ID, null, null, 501);
+  }
+
+  @Test
+  void getProducts_shouldRejectCursorOfAnotherSort() {
+    String cursor = new ProductCursor(ProductSort.ID, null, productId).encode();
+
+    assertThatThrownBy(() -> productService.getProducts(null, ProductSort.NAME, cursor, 50))
+        .isInstanceOf(InvalidProductQueryException.class);
+    verifyNoInteractions(productRepository);
+  }
+
+  @Test
+  void getProducts_shouldRejectMalformedCursorAndLimit() {
+    assertThatThrownBy(() -> productService.getProducts(null, ProductSort.NAME, "%%%", 50))
+        .isInstanceOf(InvalidProductQueryException.class);
+    assertThatThrownBy(() -> productService.getProducts(null, ProductSort.NAME, null, 0))
+        .isInstanceOf(InvalidProductQueryException.class);
+    verifyNoInteractions(productRepository);
+  }
+
+  @Test
+  void exportProducts_shouldPassEveryRowToSinkAndCloseStream() {
+    AtomicBoolean closed = new AtomicBoolean();
+    when(productRepository.streamAll(null))
+        .thenReturn(Stream.of(productResponse, productResponse).onClose(() -> closed.set(true)));
+    List<ProductResponse> exported = new ArrayList<>();
+
+    productService.exportProducts(null, exported::add);
+
+    assertThat(exported).hasSize(2);
+    assertThat(closed).isTrue();
   }
 
   @Test
@@ -161,6 +219,11 @@ class ProductServiceTest {
     verify(productMapper).toEntity(createRequest);
     verify(productRepository).save(product);
     verify(productMapper).toResponse(savedProduct);
+    verify(productChangeRepository).save(changeCaptor.capture());
+    assertThat(changeCaptor.getValue().getType()).isEqualTo(ProductChange.Type.CREATED);
+    assertThat(changeCaptor.getValue().getProductId()).isEqualTo(productId);
+    assertThat(changeCaptor.getValue().getPrice()).isEqualByComparingTo("2499.99");
+    verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
   }
 
   @Test
@@ -172,6 +235,10 @@ class ProductServiceTest {
 
     verify(productRepository).existsById(productId);
     verify(productRepository).deleteById(productId);
+    verify(productChangeRepository).save(changeCaptor.capture());
+    assertThat(changeCaptor.getValue().getType()).isEqualTo(ProductChange.Type.DELETED);
+    assertThat(changeCaptor.getValue().getProductId()).isEqualTo(productId);
+    verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
   }
 
   @Test
@@ -185,6 +252,7 @@ class ProductServiceTest {
 
     verify(productRepository).existsById(productId);
     verify(productRepository, never()).deleteById(productId);
+    verifyNoInteractions(productChangeRepository, eventPublisher);
   }
 
   @Test
@@ -207,4 +275,67 @@ class ProductServiceTest {
 
     verify(productRepository).findById(productId);
   }
+
+  @Test
+  void updateProduct_shouldRecordPriceChange_whenPriceUpdated() {
+
+    when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+    when(productRepository.save(product)).thenReturn(product);
+    when(productChangeRepository.save(any(ProductChange.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(productMapper.toResponse(product)).thenReturn(productResponse);
+
+    productService.updateProduct(
+        productId, UpdateProductRequest.builder().price(new BigDecimal("1999.99")).build());
+
+    assertThat(product.getPrice()).isEqualByComparingTo("1999.99");
+    verify(productChangeRepository).save(changeCaptor.capture());
+    assertThat(changeCaptor.getValue().getType()).isEqualTo(ProductChange.Type.PRICE_CHANGED);
+    assertThat(changeCaptor.getValue().getPrice()).isEqualByComparingTo("1999.99");
+    verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+  }
+
+  @Test
+  void updateProduct_shouldRecordBothChanges_whenPriceAndQuantityUpdated() {
+
+    when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+    when(productRepository.save(product)).thenReturn(product);
+    when(productChangeRepository.save(any(ProductChange.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(productMapper.toResponse(product)).thenReturn(productResponse);
+
+    productService.updateProduct(
+        productId,
+        UpdateProductRequest.builder().sale(new BigDecimal("20.00")).quantity(3).build());
+
+    verify(productChangeRepository, times(2)).save(changeCaptor.capture());
+    assertThat(changeCaptor.getAllValues())
+        .extracting(ProductChange::getType)
+        .containsExactly(ProductChange.Type.PRICE_CHANGED, ProductChange.Type.QUANTITY_CHANGED);
+    assertThat(product.getQuantity()).isEqualTo(3);
+  }
+
+  @Test
+  void updateProduct_shouldNotRecordChange_whenValuesUnchanged() {
+
+    when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+    when(productRepository.save(product)).thenReturn(product);
+    when(productMapper.toResponse(product)).thenReturn(productResponse);
+
+    productService.updateProduct(
+        productId,
+        UpdateProductRequest.builder().price(new BigDecimal("2499.990")).quantity(10).build());
+
+    verifyNoInteractions(productChangeRepository, eventPublisher);
+  }
+
+  @Test
+  void updateProduct_shouldThrowProductNotFoundException_whenProductNotFound() {
+
+    when(productRepository.findById(productId)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(
+            () -> productService.updateProduct(productId, UpdateProductRequest.builder().build()))
+        .isInstanceOf(ProductNotFoundException.class);
+
+    verify(productRepository, never()).save(any());
+  }
 }
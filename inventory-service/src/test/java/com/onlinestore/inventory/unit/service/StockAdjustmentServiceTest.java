@@ -0,0 +1,169 @@
+package com.onlinestore.inventory.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.onlinestore.inventory.dto.RejectedStockAdjustment;
+import com.onlinestore.inventory.dto.StockAdjustmentItem;
+import com.onlinestore.inventory.dto.StockAdjustmentResponse;
+import com.onlinestore.inventory.entity.Product;
+import com.onlinestore.inventory.entity.ProductChange;
+import com.onlinestore.inventory.exception.InvalidStockAdjustmentException;
+import com.onlinestore.inventory.repository.ProductBulkRepository;
+import com.onlinestore.inventory.repository.ProductChangeRepository;
+import com.onlinestore.inventory.repository.ProductRepository;
+import com.onlinestore.inventory.service.ProductChangedEvent;
+import com.onlinestore.inventory.service.StockAdjustmentService;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class StockAdjustmentServiceTest {
+
+  @Mock private ProductRepository productRepository;
+
+  @Mock private ProductChangeRepository productChangeRepository;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks private StockAdjustmentService stockAdjustmentService;
+
+  @Captor private ArgumentCaptor<Map<UUID, Integer>> deltasCaptor;
+
+  @Captor private ArgumentCaptor<List<ProductChange>> changesCaptor;
+
+  private UUID productId;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(stockAdjustmentService, "chunkSize", 1000);
+
+    productId = UUID.randomUUID();
+    product =
+        Product.builder()
+            .id(productId)
+            .name("MacBook Pro")
+            .price(new BigDecimal("2499.99"))
+            .quantity(10)
+            .sale(new BigDecimal("5.00"))
+            .build();
+  }
+
+  @Test
+  void adjustStock_shouldSumDeltasAndApplyThemInOneStatement() {
+    when(productRepository.lockAllById(any())).thenReturn(Map.of(productId, product));
+
+    StockAdjustmentResponse response =
+        stockAdjustmentService.adjustStock(
+            List.of(new StockAdjustmentItem(productId, 5), new StockAdjustmentItem(productId, 3)));
+
+    assertThat(response.getApplied())
+        .singleElement()
+        .satisfies(applied -> assertThat(applied.getQuantity()).isEqualTo(18));
+    assertThat(response.getRejected()).isEmpty();
+
+    verify(productRepository).adjustQuantities(deltasCaptor.capture());
+    assertThat(deltasCaptor.getValue()).containsExactly(Map.entry(productId, 8));
+
+    verify(productChangeRepository).insertAll(changesCaptor.capture());
+    assertThat(changesCaptor.getValue())
+        .singleElement()
+        .satisfies(
+            change -> {
+              assertThat(change.getType()).isEqualTo(ProductChange.Type.QUANTITY_CHANGED);
+              assertThat(change.getQuantity()).isEqualTo(18);
+            });
+    verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+  }
+
+  @Test
+  void adjustStock_shouldRejectNegativeAndUnknownProducts() {
+    UUID missingId = UUID.randomUUID();
+    when(productRepository.lockAllById(any())).thenReturn(Map.of(productId, product));
+
+    StockAdjustmentResponse response =
+        stockAdjustmentService.adjustStock(
+            List.of(new StockAdjustmentItem(productId, -11), new StockAdjustmentItem(missingId, 4)));
+
+    assertThat(response.getApplied()).isEmpty();
+    assertThat(response.getRejected())
+        .extracting(RejectedStockAdjustment::getProductId, RejectedStockAdjustment::getReason)
+        .containsExactlyInAnyOrder(
+            tuple(productId, RejectedStockAdjustment.Reason.INSUFFICIENT_STOCK),
+            tuple(missingId, RejectedStockAdjustment.Reason.NOT_FOUND));
+    assertThat(response.getRejected())
+        .filteredOn(rejected -> rejected.getProductId().equals(productId))
+        .singleElement()
+        .satisfies(rejected -> assertThat(rejected.getAvailableQuantity()).isEqualTo(10));
+
+    verify(productRepository).adjustQuantities(Map.of());
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void adjustStock_shouldSplitIntoChunks() {
+    ReflectionTestUtils.setField(stockAdjustmentService, "chunkSize", 1);
+    UUID otherId = UUID.randomUUID();
+    when(productRepository.lockAllById(any())).thenReturn(Map.of());
+
+    stockAdjustmentService.adjustStock(
+        List.of(new StockAdjustmentItem(productId, 1), new StockAdjustmentItem(otherId, 1)));
+
+    verify(productRepository, times(2)).lockAllById(any());
+    verify(productRepository, times(2)).adjustQuantities(any());
+  }
+
+  @Test
+  void adjustStock_WhenDeltasOfOneProductOverflow_RejectsRequest() {
+    assertThatThrownBy(
+            () ->
+                stockAdjustmentService.adjustStock(
+                    List.of(
+                        new StockAdjustmentItem(productId, Integer.MAX_VALUE),
+                        new StockAdjustmentItem(productId, 1))))
+        .isInstanceOf(InvalidStockAdjustmentException.class);
+
+    verifyNoInteractions(productRepository, eventPublisher);
+  }
+
+  @Test
+  void adjustStock_WhenNewQuantityOverflows_RejectsRequest() {
+    when(productRepository.lockAllById(any())).thenReturn(Map.of(productId, product));
+
+    assertThatThrownBy(
+            () ->
+                stockAdjustmentService.adjustStock(
+                    List.of(new StockAdjustmentItem(productId, Integer.MAX_VALUE))))
+        .isInstanceOf(InvalidStockAdjustmentException.class)
+        .hasMessageContaining(productId.toString());
+
+    verify(productRepository, never()).adjustQuantities(any());
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void validateChunkSize_WhenAboveParameterLimit_FailsStartup() {
+    ReflectionTestUtils.setField(
+        stockAdjustmentService, "chunkSize", ProductBulkRepository.MAX_BATCH_SIZE + 1);
+
+    assertThatThrownBy(() -> stockAdjustmentService.validateChunkSize())
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("inventory.stock-adjust.chunk-size");
+  }
+}
@@ -20,15 +20,6 @@ public class OrderDto {
     private BigDecimal totalPrice;
     private List<OrderItemDto> items;
 
-    public BigDecimal calculateTotalPrice() {
-        if (items == null || items.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        return items.stream()
-                .map(OrderItemDto::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,46 @@
+package com.onlinestore.notification.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежные суммы в копейках (long) и скидки в сотых долях процента (int, 15.50% = 1550).
+ * Расчёт стоимости - целочисленный, без промежуточных объектов; BigDecimal только на границе
+ * с JSON и для событий без полей в копейках.
+ */
+public final class Money {
+
+    /** 100% в сотых долях процента. */
+    public static final int FULL_BASIS_POINTS = 10_000;
+
+    private Money() {
+    }
+
+    /**
+     * Стоимость позиции со скидкой, округлённая до копейки (HALF_UP) - так же, как в Order Service.
+     *
+     * @throws ArithmeticException при переполнении long
+     */
+    public static long lineTotal(long unitCents, int discountBasisPoints, int quantity) {
+        long scaled = Math.multiplyExact(
+                Math.multiplyExact(unitCents, (long) FULL_BASIS_POINTS - discountBasisPoints), quantity);
+        return (scaled + FULL_BASIS_POINTS / 2) / FULL_BASIS_POINTS;
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static int toBasisPoints(BigDecimal percent) {
+        return percent.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /** Скидка в процентах для JSON: 1550 -> 15.50. */
+    public static BigDecimal toPercent(int basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+}
@@ -8,7 +8,6 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -33,15 +32,15 @@ public class OrderEntity {
     @Column(name = "quantity")
     private Integer quantity;
 
-    @Column(name = "price", precision = 10, scale = 2)
-    private BigDecimal price;
+    @Column(name = "price_cents")
+    private Long priceCents;
 
-    @Column(name = "sale", precision = 5, scale = 2)
+    @Column(name = "discount_basis_points")
     @Builder.Default
-    private BigDecimal sale = BigDecimal.ZERO;
+    private Integer discountBasisPoints = 0;
 
-    @Column(name = "total_price", precision = 10, scale = 2)
-    private BigDecimal totalPrice;
+    @Column(name = "total_cents")
+    private Long totalCents;
 
     @Column(name = "user_id", nullable = false)
     private UUID userId;
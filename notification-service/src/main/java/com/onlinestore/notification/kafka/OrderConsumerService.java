@@ -1,72 +1,110 @@
 package com.onlinestore.notification.kafka;
 
+import com.onlinestore.notification.entity.Money;
 import com.onlinestore.notification.entity.OrderEntity;
 import com.onlinestore.notification.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class OrderConsumerService {
 
     private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary itemsSummary;
+    private final Timer lagTimer;
+
+    public OrderConsumerService(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.meterRegistry = meterRegistry;
+        this.itemsSummary = DistributionSummary.builder("orders.consumer.items")
+                .description("Items per consumed order event")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("orders.consumer.lag")
+                .description("Time from writing an order event to Kafka to its processing")
+                .register(meterRegistry);
+    }
 
     @KafkaListener(topics = "orders", groupId = "${spring.kafka.consumer.group-id}")
     @Transactional
-    public void consume(OrderCreatedEvent event, Acknowledgment acknowledgment) {
-        log.info("Received order: {}", event.getOrderId());
-
+    public void consume(OrderCreatedEvent event,
+                        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
+                        Acknowledgment acknowledgment) {
+        log.debug("Received order: {}", event.getOrderId());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // Проверяем ВСЕ items на дубликаты ПЕРЕД сохранением
+            boolean hasDuplicate = false;
+            for (OrderCreatedEvent.OrderItemEvent item : event.getItems()) {
+                if (orderRepository.existsByOrderIdAndProductId(
+                        event.getOrderId(), item.getProductId())) {
+                    log.info("Duplicate found, skipping this kafka message: order={}, product={}",
+                            event.getOrderId(), item.getProductId());
+                    hasDuplicate = true;
+                    break;
+                }
+            }
 
-        // Проверяем ВСЕ items на дубликаты ПЕРЕД сохранением
-        boolean hasDuplicate = false;
-        for (OrderCreatedEvent.OrderItemEvent item : event.getItems()) {
-            if (orderRepository.existsByOrderIdAndProductId(
-                    event.getOrderId(), item.getProductId())) {
-                log.info("Duplicate found, skipping this kafka message: order={}, product={}",
-                        event.getOrderId(), item.getProductId());
-                hasDuplicate = true;
-                break;
+            if (hasDuplicate) {
+                acknowledgment.acknowledge();
+                sample.stop(processingTimer("duplicate"));
+                return;
             }
-        }
 
-        if (hasDuplicate) {
-            acknowledgment.acknowledge();
-            return;
-        }
+            // Лаг и размер считаем только для первой доставки: повторы после ребаланса их бы завышали
+            lagTimer.record(Math.max(0, System.currentTimeMillis() - timestamp), TimeUnit.MILLISECONDS);
+            itemsSummary.record(event.getItems().size());
 
-        for (OrderCreatedEvent.OrderItemEvent item : event.getItems()) {
+            for (OrderCreatedEvent.OrderItemEvent item : event.getItems()) {
 
-            BigDecimal discountMultiplier = BigDecimal.ONE
-                    .subtract(item.getSale()
-                            .divide(BigDecimal.valueOf(100)));
+                long priceCents = item.getPriceCents() != null
+                        ? item.getPriceCents()
+                        : Money.toCents(item.getPrice());
+                int discountBasisPoints = item.getDiscountBasisPoints() != null
+                        ? item.getDiscountBasisPoints()
+                        : item.getSale() != null ? Money.toBasisPoints(item.getSale()) : 0;
 
-            BigDecimal itemTotalPrice = item.getPrice()
-                    .multiply(BigDecimal.valueOf(item.getQuantity()))
-                    .multiply(discountMultiplier);
+                OrderEntity orderEntity = OrderEntity.builder()
+                        .orderId(event.getOrderId())
+                        .userId(event.getUserId())
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .priceCents(priceCents)
+                        .discountBasisPoints(discountBasisPoints)
+                        .totalCents(Money.lineTotal(priceCents, discountBasisPoints, item.getQuantity()))
+                        .build();
 
-            OrderEntity orderEntity = OrderEntity.builder()
-                    .orderId(event.getOrderId())
-                    .userId(event.getUserId())
-                    .productId(item.getProductId())
-                    .quantity(item.getQuantity())
-                    .price(item.getPrice())
-                    .sale(item.getSale())
-                    .totalPrice(itemTotalPrice)
-                    .build();
+                orderRepository.save(orderEntity);
+            }
+            log.info("Order {} saved with {} items",
+                        event.getOrderId(), event.getItems().size());
 
-            orderRepository.save(orderEntity);
+            acknowledgment.acknowledge();
+            sample.stop(processingTimer("saved"));
+        } catch (RuntimeException e) {
+            // Сообщение не подтверждено, его доставит error handler контейнера
+            sample.stop(processingTimer("error"));
+            throw e;
         }
-        log.info("Order {} saved with {} items",
-                    event.getOrderId(), event.getItems().size());
+    }
 
-        acknowledgment.acknowledge();
+    // Без коммита транзакции: он выполняется после выхода из метода
+    private Timer processingTimer(String outcome) {
+        return Timer.builder("orders.consumer.processing")
+                .description("Processing one order event")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
@@ -27,6 +27,9 @@ public class OrderCreatedEvent {
     public static class OrderItemEvent {
         private UUID productId;
         private Integer quantity;
+        private Long priceCents;
+        private Integer discountBasisPoints;
+        // События, записанные в outbox до появления полей в копейках, содержат только price и sale
         private BigDecimal price;
         private BigDecimal sale;
     }
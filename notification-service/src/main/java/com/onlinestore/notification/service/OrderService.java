@@ -2,9 +2,11 @@ package com.onlinestore.notification.service;
 
 import com.onlinestore.notification.dto.OrderDto;
 import com.onlinestore.notification.dto.OrderDto.OrderItemDto;
+import com.onlinestore.notification.entity.Money;
 import com.onlinestore.notification.entity.OrderEntity;
 import com.onlinestore.notification.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springdoc.core.parsers.ReturnTypeParser;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
@@ -13,10 +15,20 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class OrderService {
     private final OrderRepository orderRepository;
     private final RedisTemplate<String, Object> redisTemplate;
+    // Доля попаданий в кэш: hit / (hit + miss) по orders.cache.requests
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public OrderService(OrderRepository orderRepository, RedisTemplate<String, Object> redisTemplate,
+                        MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.redisTemplate = redisTemplate;
+        this.cacheHits = cacheRequests(meterRegistry, "hit");
+        this.cacheMisses = cacheRequests(meterRegistry, "miss");
+    }
 
     public List<OrderDto> getAllOrders() {
         List<OrderDto> orders = new ArrayList<>();
@@ -34,8 +46,10 @@ public class OrderService {
         String key = "order:" + orderId;
         OrderDto cached = (OrderDto) redisTemplate.opsForValue().get(key);
         if (cached != null) {
+            cacheHits.increment();
             return cached;
         }
+        cacheMisses.increment();
         //Если не нашли в кеше
         List<OrderEntity> orders = orderRepository.findByOrderId(orderId);
         if (orders.isEmpty()) {
@@ -73,25 +87,34 @@ public class OrderService {
                 .collect(Collectors.toList());
 
 
-        OrderDto order = OrderDto.builder()
+        //Считаем итоговую сумму в копейках
+        long totalCents = 0;
+        for (OrderEntity entity : orderEntities) {
+            totalCents += entity.getTotalCents();
+        }
+
+        return OrderDto.builder()
                 .orderId(orderId)
                 .userId(userId)
+                .totalPrice(Money.toDecimal(totalCents))
                 .items(items)
                 .build();
-        
-        //Считаем итоговую сумму
-        order.setTotalPrice(order.calculateTotalPrice());
-        
-        return order;
+    }
+
+    private static Counter cacheRequests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("orders.cache.requests")
+                .description("Order lookups in the Redis cache")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     private OrderItemDto mapToItemDto(OrderEntity entity) {
         return OrderItemDto.builder()
                 .productId(entity.getProductId())
                 .quantity(entity.getQuantity())
-                .price(entity.getPrice())
-                .sale(entity.getSale())
-                .totalPrice(entity.getTotalPrice())
+                .price(Money.toDecimal(entity.getPriceCents()))
+                .sale(Money.toPercent(entity.getDiscountBasisPoints()))
+                .totalPrice(Money.toDecimal(entity.getTotalCents()))
                 .build();
     }
 }
@@ -0,0 +1,15 @@
+-- Цены в копейках и скидка в сотых долях процента (15.50% = 1550) вместо DECIMAL
+ALTER TABLE orders
+    ADD COLUMN price_cents BIGINT,
+    ADD COLUMN discount_basis_points INTEGER DEFAULT 0,
+    ADD COLUMN total_cents BIGINT;
+
+UPDATE orders
+SET price_cents = round(price * 100),
+    discount_basis_points = round(coalesce(sale, 0) * 100),
+    total_cents = round(total_price * 100);
+
+ALTER TABLE orders
+    DROP COLUMN price,
+    DROP COLUMN sale,
+    DROP COLUMN total_price;
@@ -0,0 +1,116 @@
+package com.onlinestore.notification.benchmark;
+
+import com.onlinestore.notification.dto.OrderDto;
+import com.onlinestore.notification.dto.OrderDto.OrderItemDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OrderDto в кэше Redis: GenericJackson2JsonRedisSerializer из RedisConfig пишет значение
+ * с именем класса (@class) при промахе OrderService.getItemsByOrderId и читает при попадании.
+ * Результаты - в target/jmh-order-dto-redis.json.
+ * Запуск: mvn test -Pbenchmark -Dtest=OrderDtoRedisSerializerBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDtoRedisSerializerBenchmark {
+
+    @Param({"1", "20"})
+    public int items;
+
+    private GenericJackson2JsonRedisSerializer serializer;
+    private OrderDto order;
+    private byte[] cached;
+
+    @Setup
+    public void setUp() {
+        serializer = new GenericJackson2JsonRedisSerializer();
+
+        Random random = new Random(42);
+        List<OrderItemDto> orderItems = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO.setScale(2);
+        for (int i = 0; i < items; i++) {
+            BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(500_000), 2);
+            int quantity = 1 + random.nextInt(5);
+            BigDecimal lineTotal = price.multiply(BigDecimal.valueOf(quantity));
+            orderItems.add(OrderItemDto.builder()
+                    .productId(UUID.randomUUID())
+                    .quantity(quantity)
+                    .price(price)
+                    .sale(BigDecimal.ZERO.setScale(2))
+                    .totalPrice(lineTotal)
+                    .build());
+            total = total.add(lineTotal);
+        }
+        order = OrderDto.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .totalPrice(total)
+                .items(orderItems)
+                .build();
+        cached = serializer.serialize(order);
+    }
+
+    /** Промах кэша: запись собранного OrderDto. */
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(order);
+    }
+
+    /** Попадание в кэш: чтение значения обратно в OrderDto. */
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(cached);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(OrderDtoRedisSerializerBenchmark.class.getName())
+                        .addProfiler(GCProfiler.class)
+                        .resultFormat(ResultFormatType.JSON)
+                        .result("target/jmh-order-dto-redis.json")
+                        .build())
+                .run();
+    }
+
+    @Test
+    void cachedOrderRoundTrips() {
+        items = 20;
+        setUp();
+
+        assertThat(deserialize()).isInstanceOf(OrderDto.class).isEqualTo(order);
+    }
+}
@@ -0,0 +1,17 @@
+package com.onlinestore.order.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Локальный (in-process) кэш на Caffeine.
+ * Размер и TTL задаются в application.yml (spring.cache.caffeine.spec),
+ * метрики кэшей публикуются через Actuator (cache.gets, cache.evictions, ...).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+}
@@ -0,0 +1,85 @@
+package com.onlinestore.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Размер пула order-db выводится из того, сколько транзакций может идти одновременно:
+ * потоки OrderIntentProcessor (orders.async.pool-size), синхронные запросы
+ * (orders.db.request-connections) и фоновые задачи - outbox и опрос intent
+ * (orders.db.background-connections). Запрос, которому не хватило соединения, ждёт
+ * hikari.connection-timeout и получает 503.
+ *
+ * <p>DB_POOL_SIZE (orders.db.pool-size) может только увеличить пул: меньшее значение не даёт
+ * запуститься, иначе рост orders.async.pool-size молча отнимал бы соединения у checkout.
+ * Явный spring.datasource.hikari.maximum-pool-size, не совпадающий с итоговым размером, тоже
+ * ошибка старта: иначе он молча заменялся бы.
+ */
+@Slf4j
+@Configuration
+public class DataSourcePoolConfig {
+
+    @Bean
+    public static BeanPostProcessor orderDbPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int required = requiredPoolSize(
+                            environment.getProperty("orders.async.pool-size", Integer.class, 16),
+                            environment.getProperty("orders.db.request-connections", Integer.class, 10),
+                            environment.getProperty("orders.db.background-connections", Integer.class, 2));
+                    int size = poolSize(environment.getProperty("orders.db.pool-size", Integer.class, 0), required);
+                    requireSameMaximum(
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class),
+                            size);
+                    // Пул ещё не запущен: Hikari открывает соединения при первом getConnection
+                    dataSource.setMaximumPoolSize(size);
+                    dataSource.setMinimumIdle(size);
+                    log.info("Database pool {}: {} connections ({} required by concurrency settings)",
+                            dataSource.getPoolName(), size, required);
+                }
+                return bean;
+            }
+        };
+    }
+
+    public static int requiredPoolSize(int asyncPoolSize, int requestConnections, int backgroundConnections) {
+        if (requestConnections < 1) {
+            throw new IllegalStateException("orders.db.request-connections must be at least 1");
+        }
+        return asyncPoolSize + requestConnections + backgroundConnections;
+    }
+
+    /**
+     * @param configured orders.db.pool-size; 0 - взять required
+     * @throws IllegalStateException если configured задан и меньше required
+     */
+    public static int poolSize(int configured, int required) {
+        if (configured == 0) {
+            return required;
+        }
+        if (configured < required) {
+            throw new IllegalStateException("orders.db.pool-size (DB_POOL_SIZE) is " + configured
+                    + ", but orders.async.pool-size + orders.db.request-connections"
+                    + " + orders.db.background-connections need " + required);
+        }
+        return configured;
+    }
+
+    /**
+     * @param configuredMaximum spring.datasource.hikari.maximum-pool-size; null - не задан
+     * @throws IllegalStateException если он задан и не равен size
+     */
+    public static void requireSameMaximum(Integer configuredMaximum, int size) {
+        if (configuredMaximum != null && configuredMaximum != size) {
+            throw new IllegalStateException("spring.datasource.hikari.maximum-pool-size is " + configuredMaximum
+                    + ", but the order-db pool is sized to " + size
+                    + "; set orders.db.pool-size (DB_POOL_SIZE) instead");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.onlinestore.order.config;
+
+import com.onlinestore.order.grpc.InventoryServiceGrpc;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service config gRPC-канала к Inventory Service.
+ * CheckAvailability - идемпотентное чтение, поэтому медленную попытку можно хеджировать
+ * (параллельный повтор через hedging-delay) или повторять при UNAVAILABLE.
+ * Hedging и retry в gRPC взаимоисключающие для одного метода - выбирается inventory-client.hedging.enabled.
+ */
+@Slf4j
+@Configuration
+public class InventoryGrpcClientConfig {
+
+    public static final String INVENTORY_CLIENT = "inventory-service";
+    // Имя экземпляра в resilience4j.circuitbreaker.instances / resilience4j.bulkhead.instances
+    public static final String INVENTORY_RESILIENCE = "inventory";
+
+    @Value("${inventory-client.call-deadline:1s}")
+    private Duration callDeadline;
+
+    @Value("${inventory-client.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${inventory-client.hedging.enabled:true}")
+    private boolean hedgingEnabled;
+
+    @Value("${inventory-client.hedging.delay:50ms}")
+    private Duration hedgingDelay;
+
+    @Bean
+    public GrpcChannelConfigurer inventoryChannelConfigurer() {
+        Map<String, Object> serviceConfig = serviceConfig(
+                callDeadline, maxAttempts, hedgingEnabled ? hedgingDelay : null);
+
+        return (channelBuilder, name) -> {
+            if (INVENTORY_CLIENT.equals(name)) {
+                channelBuilder.defaultServiceConfig(serviceConfig).enableRetry();
+            }
+        };
+    }
+
+    /**
+     * Метрики состояния (resilience4j.circuitbreaker.state) публикует resilience4j-micrometer,
+     * переходы дополнительно считаем в inventory.circuitbreaker.transitions{from,to}.
+     */
+    @Bean
+    public CircuitBreaker inventoryCircuitBreaker(CircuitBreakerRegistry registry, MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(INVENTORY_RESILIENCE);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("Inventory circuit breaker: {} -> {}", transition.getFromState(), transition.getToState());
+            meterRegistry.counter("inventory.circuitbreaker.transitions",
+                            "from", transition.getFromState().name(),
+                            "to", transition.getToState().name())
+                    .increment();
+        });
+        return circuitBreaker;
+    }
+
+    @Bean
+    public Bulkhead inventoryBulkhead(BulkheadRegistry registry) {
+        return registry.bulkhead(INVENTORY_RESILIENCE);
+    }
+
+    /**
+     * @param hedgingDelay задержка перед hedged-попыткой; null - вместо hedging используется retry
+     */
+    public static Map<String, Object> serviceConfig(Duration timeout, int maxAttempts, Duration hedgingDelay) {
+        Map<String, Object> policy = hedgingDelay != null
+                ? Map.of("hedgingPolicy", Map.of(
+                        "maxAttempts", (double) maxAttempts,
+                        "hedgingDelay", toJsonDuration(hedgingDelay),
+                        "nonFatalStatusCodes", List.of("UNAVAILABLE")))
+                : Map.of("retryPolicy", Map.of(
+                        "maxAttempts", (double) maxAttempts,
+                        "initialBackoff", "0.05s",
+                        "maxBackoff", "0.5s",
+                        "backoffMultiplier", 2.0,
+                        "retryableStatusCodes", List.of("UNAVAILABLE")));
+
+        Map<String, Object> methodConfig = new HashMap<>(policy);
+        methodConfig.put("name", List.of(Map.of(
+                "service", InventoryServiceGrpc.SERVICE_NAME,
+                "method", "CheckAvailability")));
+        methodConfig.put("timeout", toJsonDuration(timeout));
+
+        return Map.of(
+                "methodConfig", List.of(methodConfig),
+                // Не даём повторам умножить нагрузку на и так перегруженный Inventory Service
+                "retryThrottling", Map.of("maxTokens", 10.0, "tokenRatio", 0.1));
+    }
+
+    private static String toJsonDuration(Duration duration) {
+        return duration.toMillis() / 1000.0 + "s";
+    }
+}
@@ -2,16 +2,27 @@ package com.onlinestore.order.controller;
 
 import com.onlinestore.order.controller.api.OrderApi;
 import com.onlinestore.order.dto.CreateOrderRequest;
+import com.onlinestore.order.dto.OrderIntentResponse;
+import com.onlinestore.order.dto.OrderPageResponse;
+import com.onlinestore.order.dto.OrderQuoteResponse;
 import com.onlinestore.order.dto.OrderResponse;
 import com.onlinestore.order.entity.Order;
+import com.onlinestore.order.entity.OrderIntent;
 import com.onlinestore.order.entity.User;
+import com.onlinestore.order.service.OrderIntentService;
 import com.onlinestore.order.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -19,6 +30,21 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController implements OrderApi {
 
     private final OrderService orderService;
+    private final OrderIntentService orderIntentService;
+
+    @GetMapping
+    @Override
+    public ResponseEntity<OrderPageResponse> getOrders(@AuthenticationPrincipal User user,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getOrders(user, cursor, limit));
+    }
+
+    @GetMapping("/{id}")
+    @Override
+    public ResponseEntity<OrderResponse> getOrder(@AuthenticationPrincipal User user, @PathVariable UUID id) {
+        return ResponseEntity.ok(orderService.getOrder(user, id));
+    }
 
     @PostMapping
     @Override
@@ -26,9 +52,42 @@ public class OrderController implements OrderApi {
             @AuthenticationPrincipal User user,
             @Valid @RequestBody CreateOrderRequest request) {
 
-        Order order = orderService.createOrder(user.getId(), request);
+        Order order = orderService.createOrder(user, request);
         OrderResponse response = OrderResponse.fromEntity(order);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+
+    @PostMapping("/async")
+    @Override
+    public ResponseEntity<OrderIntentResponse> createOrderAsync(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody CreateOrderRequest request) {
+
+        OrderIntent intent = orderIntentService.submit(user, request);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/intents/" + intent.getId()))
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(OrderIntentResponse.fromEntity(intent));
+    }
+
+    @GetMapping("/intents/{id}")
+    @Override
+    public ResponseEntity<OrderIntentResponse> getOrderIntent(@AuthenticationPrincipal User user,
+                                                              @PathVariable UUID id) {
+        return ResponseEntity.ok(orderIntentService.getIntent(user, id));
+    }
+
+    @GetMapping(path = "/intents/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Override
+    public SseEmitter streamOrderIntent(@AuthenticationPrincipal User user, @PathVariable UUID id) {
+        return orderIntentService.subscribe(user, id);
+    }
+
+    @PostMapping("/quote")
+    @Override
+    public ResponseEntity<OrderQuoteResponse> quoteOrder(@Valid @RequestBody CreateOrderRequest request) {
+        return ResponseEntity.ok(orderService.quoteOrder(request));
+    }
 }
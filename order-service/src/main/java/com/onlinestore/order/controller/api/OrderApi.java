@@ -1,26 +1,60 @@
 package com.onlinestore.order.controller.api;
 
 import com.onlinestore.order.dto.CreateOrderRequest;
+import com.onlinestore.order.dto.OrderIntentResponse;
+import com.onlinestore.order.dto.OrderPageResponse;
+import com.onlinestore.order.dto.OrderQuoteResponse;
 import com.onlinestore.order.dto.OrderResponse;
 import com.onlinestore.order.entity.User;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
 
 @Tag(name = "Orders", description = "Order management API")
 @SecurityRequirement(name = "bearerAuth")
 @RequestMapping("/api/orders")
 public interface OrderApi {
 
+    @Operation(summary = "Get orders of the current user, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of orders with items and totals"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping
+    ResponseEntity<OrderPageResponse> getOrders(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "nextCursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 100", example = "20")
+            @RequestParam(defaultValue = "20") int limit);
+
+    @Operation(summary = "Get order of the current user by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Order not found")
+    })
+    @GetMapping("/{id}")
+    ResponseEntity<OrderResponse> getOrder(@AuthenticationPrincipal User user, @PathVariable UUID id);
+
     @Operation(summary = "Create new order")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Order created successfully"),
@@ -33,4 +67,47 @@ public interface OrderApi {
     ResponseEntity<OrderResponse> createOrder(
             @AuthenticationPrincipal User user,
             @Valid @RequestBody CreateOrderRequest request);
+
+    @Operation(summary = "Accept order for asynchronous placement",
+            description = "Validates and stores the order, stock is checked later. "
+                    + "Location points to the order intent status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Order accepted, status is PENDING"),
+            @ApiResponse(responseCode = "400", description = "Invalid order data"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PostMapping("/async")
+    ResponseEntity<OrderIntentResponse> createOrderAsync(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody CreateOrderRequest request);
+
+    @Operation(summary = "Get status of an asynchronously placed order",
+            description = "COMPLETED - orderId is set, REJECTED and FAILED - error is set")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order intent found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Order intent not found")
+    })
+    @GetMapping("/intents/{id}")
+    ResponseEntity<OrderIntentResponse> getOrderIntent(@AuthenticationPrincipal User user, @PathVariable UUID id);
+
+    @Operation(summary = "Stream status of an asynchronously placed order (SSE)",
+            description = "Sends a status event now and on every change, closes after the final status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of status events"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "Order intent not found")
+    })
+    @GetMapping(path = "/intents/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamOrderIntent(@AuthenticationPrincipal User user, @PathVariable UUID id);
+
+    @Operation(summary = "Calculate order total without placing it (stock is not checked)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order priced"),
+            @ApiResponse(responseCode = "400", description = "Invalid order data"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "422", description = "Product not found")
+    })
+    @PostMapping("/quote")
+    ResponseEntity<OrderQuoteResponse> quoteOrder(@Valid @RequestBody CreateOrderRequest request);
 }
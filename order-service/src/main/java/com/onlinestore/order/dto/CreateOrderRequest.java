@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,11 +20,15 @@ import java.util.UUID;
 @AllArgsConstructor
 public class CreateOrderRequest {
 
+    // Товары заказа проверяются в Inventory Service параллельно - столько вызовов на один заказ
+    public static final int MAX_ITEMS = 100;
+
     @NotNull(message = "User ID is required")
     private UUID userId;
 
     @Valid
     @NotEmpty(message = "Order must contain at least one item")
+    @Size(max = MAX_ITEMS, message = "Order must contain at most " + MAX_ITEMS + " items")
     private List<OrderItemRequest> items;
 
     @Data
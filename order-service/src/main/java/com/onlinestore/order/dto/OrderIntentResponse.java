@@ -0,0 +1,35 @@
+package com.onlinestore.order.dto;
+
+import com.onlinestore.order.entity.OrderIntent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntentResponse {
+
+    private UUID id;
+    private OrderIntent.Status status;
+    private UUID orderId;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static OrderIntentResponse fromEntity(OrderIntent intent) {
+        return OrderIntentResponse.builder()
+                .id(intent.getId())
+                .status(intent.getStatus())
+                .orderId(intent.getOrderId())
+                .error(intent.getError())
+                .createdAt(intent.getCreatedAt())
+                .updatedAt(intent.getUpdatedAt())
+                .build();
+    }
+}
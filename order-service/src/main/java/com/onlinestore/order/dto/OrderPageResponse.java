@@ -0,0 +1,21 @@
+package com.onlinestore.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница истории заказов, новые сначала. nextCursor == null - страница последняя
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponse {
+
+    private List<OrderResponse> items;
+    private String nextCursor;
+}
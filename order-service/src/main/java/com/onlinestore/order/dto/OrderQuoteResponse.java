@@ -0,0 +1,22 @@
+package com.onlinestore.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Предварительный расчёт корзины: цены по кэшу товаров, наличие не проверяется
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderQuoteResponse {
+
+    private List<OrderResponse.OrderItemResponse> items;
+    private BigDecimal totalPrice;
+}
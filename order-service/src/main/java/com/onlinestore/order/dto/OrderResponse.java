@@ -1,6 +1,8 @@
 package com.onlinestore.order.dto;
 
+import com.onlinestore.order.entity.Money;
 import com.onlinestore.order.entity.Order;
+import com.onlinestore.order.entity.OrderItem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,6 +22,8 @@ public class OrderResponse {
     private UUID id;
     private UUID userId;
     private String username;
+    private LocalDateTime createdAt;
+    private BigDecimal totalPrice;
     private List<OrderItemResponse> items;
 
     @Data
@@ -34,6 +38,18 @@ public class OrderResponse {
         private BigDecimal price;
         private BigDecimal sale;
         private BigDecimal totalPrice;
+
+        public static OrderItemResponse fromEntity(OrderItem item) {
+            return OrderItemResponse.builder()
+                    .id(item.getId())
+                    .productId(item.getProductId())
+                    .productName(item.getProductName())
+                    .quantity(item.getQuantity())
+                    .price(Money.toDecimal(item.getPriceCents()))
+                    .sale(Money.toPercent(item.getDiscountBasisPoints()))
+                    .totalPrice(Money.toDecimal(item.getTotalCents()))
+                    .build();
+        }
     }
 
     public static OrderResponse fromEntity(Order order) {
@@ -41,16 +57,10 @@ public class OrderResponse {
                 .id(order.getId())
                 .userId(order.getUser().getId())
                 .username(order.getUser().getUsername())
+                .createdAt(order.getCreatedAt())
+                .totalPrice(Money.toDecimal(order.calculateTotalCents()))
                 .items(order.getItems().stream()
-                        .map(item -> OrderItemResponse.builder()
-                                .id(item.getId())
-                                .productId(item.getProductId())
-                                .productName(item.getProductName())
-                                .quantity(item.getQuantity())
-                                .price(item.getPrice())
-                                .sale(item.getSale())
-                                .totalPrice(item.getTotalPrice())
-                                .build())
+                        .map(OrderItemResponse::fromEntity)
                         .toList())
                 .build();
     }
@@ -2,8 +2,8 @@ package com.onlinestore.order.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,7 +21,7 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @EqualsAndHashCode.Include
     private UUID id;
 
@@ -33,6 +33,9 @@ public class Order {
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
 
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
 
     public void addItem(OrderItem item) {
         items.add(item);
@@ -44,9 +47,11 @@ public class Order {
         item.setOrder(null);
     }
 
-    public BigDecimal calculateTotalPrice() {
-        return items.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public long calculateTotalCents() {
+        long total = 0;
+        for (OrderItem item : items) {
+            total += item.getTotalCents();
+        }
+        return total;
     }
 }
@@ -0,0 +1,71 @@
+package com.onlinestore.order.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Заказ, принятый асинхронно (POST /api/orders/async) и ещё не оформленный.
+ * Статус меняется только запросами OrderIntentRepository с условием на текущий статус -
+ * так один intent обрабатывает ровно один поток, даже при нескольких репликах.
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_intents")
+public class OrderIntent {
+
+    @Id
+    @TimeOrderedUuid
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(columnDefinition = "TEXT", nullable = false, updatable = false)
+    private String payload;       // JSON CreateOrderRequest
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    // Созданный заказ, когда status = COMPLETED
+    private UUID orderId;
+
+    // Причина отказа для REJECTED и FAILED
+    @Column(length = 500)
+    private String error;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @CreationTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        PENDING,
+        PROCESSING,
+        COMPLETED,
+        REJECTED,     // заказ не может быть оформлен: нет товара, неверные данные
+        FAILED;       // не удалось оформить за inventory-client max-attempts попыток
+
+        public boolean isFinal() {
+            return this == COMPLETED || this == REJECTED || this == FAILED;
+        }
+    }
+}
@@ -4,7 +4,6 @@ package com.onlinestore.order.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Getter
@@ -19,7 +18,7 @@ import java.util.UUID;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @EqualsAndHashCode.Include
     private UUID id;
 
@@ -36,17 +35,14 @@ public class OrderItem {
     @Column(nullable = false)
     private Integer quantity;
 
-    @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal price;
+    @Column(name = "price_cents", nullable = false)
+    private long priceCents;
 
-    @Column(precision = 5, scale = 2)
-    @Builder.Default
-    private BigDecimal sale = BigDecimal.ZERO;
+    @Column(name = "discount_basis_points", nullable = false)
+    private int discountBasisPoints;
 
     @Transient
-    public BigDecimal getTotalPrice() {
-        BigDecimal priceWithDiscount = price
-                .multiply(BigDecimal.ONE.subtract(sale.divide(BigDecimal.valueOf(100))));
-        return priceWithDiscount.multiply(BigDecimal.valueOf(quantity));
+    public long getTotalCents() {
+        return Money.lineTotal(priceCents, discountBasisPoints, quantity);
     }
 }
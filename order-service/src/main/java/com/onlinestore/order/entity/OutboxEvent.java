@@ -19,7 +19,7 @@ import java.util.UUID;
 public class OutboxEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @EqualsAndHashCode.Include
     private UUID id;
 
@@ -35,6 +35,10 @@ public class OutboxEvent {
     @Builder.Default
     private int retryCount = 0;
 
+    // traceparent (00-traceId-spanId-флаги) на момент записи; null - событие записано вне трассы
+    @Column(length = 55)
+    private String traceParent;
+
 
 
     public enum EventStatus {
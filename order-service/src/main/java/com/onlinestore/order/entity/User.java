@@ -25,7 +25,7 @@ import java.util.UUID;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @EqualsAndHashCode.Include
     private UUID id;
 
@@ -1,11 +1,15 @@
 package com.onlinestore.order.exception;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.Builder;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -57,6 +61,78 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    // Пул хэширования паролей переполнен - отвечаем сразу, не занимая поток
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handlePasswordHashingRejected(PasswordHashingRejectedException ex,
+                                                       HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .build();
+    }
+
+    // Inventory Service недоступен (circuit breaker открыт / bulkhead заполнен) - отвечаем сразу
+    @ExceptionHandler(InventoryUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleInventoryUnavailable(InventoryUnavailableException ex,
+                                                    HttpServletResponse response) {
+        log.warn("Inventory service unavailable: {}", ex.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .build();
+    }
+
+    // Пул соединений с БД исчерпан (hikari.connection-timeout) или БД недоступна - 503, клиент может
+    // повторить. Соединение берётся при первом SQL (provider_disables_autocommit), поэтому таймаут
+    // пула приходит как DataAccessResourceFailureException, а не при открытии транзакции
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleCannotCreateTransaction(RuntimeException ex,
+                                                       HttpServletResponse response) {
+        log.warn("Could not get database connection: {}", ex.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message("Database is busy, try again later")
+                .build();
+    }
+
+    // Чужой заказ тоже 404 - не раскрываем, что он существует
+    @ExceptionHandler(OrderNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleOrderNotFound(OrderNotFoundException ex) {
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                .message(ex.getMessage())
+                .build();
+    }
+
+    @ExceptionHandler(OrderIntentNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleOrderIntentNotFound(OrderIntentNotFoundException ex) {
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                .message(ex.getMessage())
+                .build();
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)  // ← 400
     public ErrorResponse handleIllegalArgument(IllegalArgumentException ex) {
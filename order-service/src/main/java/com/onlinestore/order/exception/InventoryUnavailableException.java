@@ -0,0 +1,11 @@
+package com.onlinestore.order.exception;
+
+/**
+ * Вызов Inventory Service отклонён без обращения к нему:
+ * circuit breaker открыт или превышен лимит одновременных вызовов.
+ */
+public class InventoryUnavailableException extends InventoryServiceException {
+    public InventoryUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
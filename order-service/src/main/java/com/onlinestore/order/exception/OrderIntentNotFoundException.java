@@ -0,0 +1,10 @@
+package com.onlinestore.order.exception;
+
+import java.util.UUID;
+
+public class OrderIntentNotFoundException extends RuntimeException {
+
+    public OrderIntentNotFoundException(UUID intentId) {
+        super("Order intent not found with id: " + intentId);
+    }
+}
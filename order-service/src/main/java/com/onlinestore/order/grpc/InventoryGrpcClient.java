@@ -1,25 +1,87 @@
 package com.onlinestore.order.grpc;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.onlinestore.order.dto.CreateOrderRequest;
 import com.onlinestore.order.exception.InventoryServiceException;
+import com.onlinestore.order.exception.InventoryUnavailableException;
 import com.onlinestore.order.exception.ProductNotAvailableException;
 import com.onlinestore.order.grpc.*;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.grpc.Deadline;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import jakarta.annotation.PostConstruct;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class InventoryGrpcClient {
 
+    // Статусы, означающие сбой самого Inventory Service - учитываются circuit breaker'ом как ошибки
+    private static final Set<Status.Code> FAILURE_CODES = Set.of(
+            Status.Code.UNAVAILABLE,
+            Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.INTERNAL,
+            Status.Code.UNKNOWN);
+
+    private final CircuitBreaker inventoryCircuitBreaker;
+    private final Bulkhead inventoryBulkhead;
+    private final ProductMetadataCache productMetadataCache;
+
+    // Счётчик вызовов checkAvailability для выборочного DEBUG-лога по товарам
+    private final AtomicLong loggedChecks = new AtomicLong();
+
     @GrpcClient("inventory-service")
     private InventoryServiceGrpc.InventoryServiceBlockingStub inventoryStub;
 
+    @GrpcClient("inventory-service")
+    private InventoryServiceGrpc.InventoryServiceFutureStub inventoryFutureStub;
+
+    // Deadline одного вызова checkAvailability
+    @Value("${inventory-client.call-deadline:1s}")
+    private Duration callDeadline;
+
+    // Общий deadline на проверку всех товаров заказа
+    @Value("${inventory-client.order-deadline:3s}")
+    private Duration orderDeadline;
+
+    // DEBUG по товару пишется для каждого N-го вызова: при нагрузке строка лога на товар дороже вызова
+    @Value("${inventory-client.log-sample-every:100}")
+    private int logSampleEvery = 100;
+
+    // 0 не выключает выборку, а роняет каждый вызов на делении - только при включённом DEBUG
+    @PostConstruct
+    public void validateLogSampling() {
+        if (logSampleEvery < 1) {
+            throw new IllegalStateException(
+                    "inventory-client.log-sample-every must be at least 1, got " + logSampleEvery);
+        }
+    }
+
     /**
      * Проверяет доступность товара в Inventory Service
      *
@@ -27,28 +89,45 @@ public class InventoryGrpcClient {
      * @param quantity запрашиваемое количество
      * @return информация о товаре и его доступности
      * @throws ProductNotAvailableException если товар недоступен
+     * @throws InventoryUnavailableException если circuit breaker открыт или bulkhead заполнен
      */
     public ProductAvailabilityResponse checkAvailability(UUID productId, int quantity) {
-        log.info("Checking availability for product: {}, quantity: {}", productId, quantity);
+        boolean logged = sampleLog();
+        if (logged) {
+            log.debug("Checking availability for product: {}, quantity: {}", productId, quantity);
+        }
 
+        acquireBulkhead();
+        ProductAvailabilityResponse response;
         try {
-            ProductAvailabilityRequest request = ProductAvailabilityRequest.newBuilder()
-                    .setProductId(productId.toString())
-                    .setRequestedQuantity(quantity)
-                    .build();
+            acquireCircuitBreaker();
+            long start = System.nanoTime();
+            try {
+                ProductAvailabilityRequest request = buildRequest(productId, quantity);
 
-            ProductAvailabilityResponse response = inventoryStub.checkAvailability(request);
+                response = inventoryStub
+                        .withDeadlineAfter(callDeadline.toMillis(), TimeUnit.MILLISECONDS)
+                        .checkAvailability(request);
+            } catch (StatusRuntimeException e) {
+                releasePermission(start, e);
+                throw toInventoryServiceException(productId, e);
+            } catch (RuntimeException e) {
+                // Вызов не состоялся (ошибка до отправки) - разрешение возвращается без оценки inventory
+                releaseUnusedPermission();
+                throw e;
+            }
+            releasePermission(start, null);
+        } finally {
+            inventoryBulkhead.onComplete();
+        }
+        rememberMetadata(productId, response);
 
+        if (logged) {
             log.debug("Received gRPC response for product {}: available={}, quantity={}",
                     productId, response.getIsAvailable(), response.getAvailableQuantity());
-
-            return response;
-
-        } catch (StatusRuntimeException e) {
-            log.error("gRPC call failed for product {}: {}", productId, e.getStatus());
-            throw new InventoryServiceException(
-                    "Failed to check product availability: " + e.getStatus().getDescription(), e);
         }
+
+        return response;
     }
 
     /**
@@ -56,7 +135,232 @@ public class InventoryGrpcClient {
      */
     public ProductAvailabilityResponse checkAvailabilityOrThrow(UUID productId, int quantity) {
         ProductAvailabilityResponse response = checkAvailability(productId, quantity);
+        return requireAvailable(productId, quantity, response);
+    }
+
+    /**
+     * Название, цена и скидка товара без проверки остатка - для предварительного расчёта корзины.
+     * Берутся из ProductMetadataCache, при промахе - через CheckAvailability.
+     *
+     * @throws ProductNotAvailableException если товар не найден
+     */
+    public ProductMetadata getProductMetadata(UUID productId) {
+        ProductMetadata cached = productMetadataCache.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+
+        ProductAvailabilityResponse response = checkAvailability(productId, 0);
+        if (response.getProductName().isEmpty()) {
+            throw new ProductNotAvailableException(productId, 0, 0, response.getMessage());
+        }
+        return ProductMetadata.from(response);
+    }
+
+    /**
+     * Асинхронная проверка доступности через future-stub.
+     * Отмена возвращённого future отменяет и сам gRPC-вызов.
+     *
+     * @param deadline общий deadline, после которого вызов завершится с DEADLINE_EXCEEDED
+     */
+    public CompletableFuture<ProductAvailabilityResponse> checkAvailabilityAsync(
+            UUID productId, int quantity, Deadline deadline) {
+
+        try {
+            acquireBulkhead();
+        } catch (InventoryUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<ProductAvailabilityResponse> result = callAvailabilityAsync(productId, quantity, deadline);
+        result.whenComplete((response, ex) -> inventoryBulkhead.onComplete());
+        return result;
+    }
+
+    /** Вызов без места в bulkhead: его берёт вызывающий - на один товар или на весь заказ. */
+    private CompletableFuture<ProductAvailabilityResponse> callAvailabilityAsync(
+            UUID productId, int quantity, Deadline deadline) {
+
+        try {
+            acquireCircuitBreaker();
+        } catch (InventoryUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+
+        ListenableFuture<ProductAvailabilityResponse> call;
+        try {
+            call = inventoryFutureStub
+                    .withDeadline(deadline)
+                    .checkAvailability(buildRequest(productId, quantity));
+        } catch (RuntimeException e) {
+            releaseUnusedPermission();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<ProductAvailabilityResponse> result = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                call.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
 
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(ProductAvailabilityResponse response) {
+                releasePermission(start, null);
+                rememberMetadata(productId, response);
+                result.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                releasePermission(start, t);
+                result.completeExceptionally(t instanceof StatusRuntimeException e
+                        ? toInventoryServiceException(productId, e)
+                        : t);
+            }
+        }, MoreExecutors.directExecutor());
+
+        return result;
+    }
+
+    /**
+     * Проверяет все товары заказа параллельно с одним deadline на весь заказ.
+     * Время ответа ограничено самым медленным товаром, а не суммой.
+     * При первой ошибке (товар недоступен или сбой gRPC) оставшиеся вызовы отменяются.
+     * Заказ занимает одно место в bulkhead на все товары: иначе заказ из max-concurrent-calls
+     * товаров не проходил бы никогда, а несколько крупных заказов занимали бы bulkhead целиком.
+     * Число товаров ограничено CreateOrderRequest.MAX_ITEMS.
+     *
+     * @return ответы в том же порядке, что и items
+     * @throws ProductNotAvailableException если хотя бы один товар недоступен
+     */
+    public List<ProductAvailabilityResponse> checkAvailabilityOrThrow(
+            List<CreateOrderRequest.OrderItemRequest> items) {
+
+        log.debug("Checking availability for {} products", items.size());
+        Deadline deadline = Deadline.after(orderDeadline.toMillis(), TimeUnit.MILLISECONDS);
+
+        acquireBulkhead();
+        List<CompletableFuture<ProductAvailabilityResponse>> calls = items.stream()
+                .map(item -> callAvailabilityAsync(item.getProductId(), item.getQuantity(), deadline))
+                .toList();
+        // Место освобождается, когда завершились все вызовы, в том числе отменённые
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .whenComplete((result, ex) -> inventoryBulkhead.onComplete());
+
+        // Первая ошибка завершает ожидание сразу, не дожидаясь остальных вызовов
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        List<CompletableFuture<ProductAvailabilityResponse>> checked = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CreateOrderRequest.OrderItemRequest item = items.get(i);
+            CompletableFuture<ProductAvailabilityResponse> future = calls.get(i)
+                    .thenApply(response -> requireAvailable(item.getProductId(), item.getQuantity(), response));
+            future.whenComplete((response, ex) -> {
+                if (ex != null) {
+                    firstFailure.completeExceptionally(ex);
+                }
+            });
+            checked.add(future);
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(checked.toArray(CompletableFuture[]::new));
+
+        try {
+            CompletableFuture.anyOf(all, firstFailure)
+                    .get(deadline.timeRemaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+            return checked.stream().map(CompletableFuture::join).toList();
+
+        } catch (ExecutionException e) {
+            calls.forEach(call -> call.cancel(true));
+            throw unwrap(e.getCause());
+
+        } catch (TimeoutException e) {
+            calls.forEach(call -> call.cancel(true));
+            throw new InventoryServiceException("Availability check timed out after " + orderDeadline, e);
+
+        } catch (InterruptedException e) {
+            calls.forEach(call -> call.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InventoryServiceException("Availability check interrupted", e);
+        }
+    }
+
+    private boolean sampleLog() {
+        return log.isDebugEnabled() && loggedChecks.getAndIncrement() % logSampleEvery == 0;
+    }
+
+    /**
+     * Место в bulkhead - одно на проверку товара или на весь заказ, затем на каждый вызов
+     * разрешение circuit breaker'а. Оба проверяются без ожидания: при недоступном inventory
+     * запрос сразу получает 503.
+     */
+    private void acquireBulkhead() {
+        if (!inventoryBulkhead.tryAcquirePermission()) {
+            throw new InventoryUnavailableException("Too many concurrent calls to inventory service", null);
+        }
+    }
+
+    private void acquireCircuitBreaker() {
+        try {
+            inventoryCircuitBreaker.acquirePermission();
+        } catch (CallNotPermittedException e) {
+            throw new InventoryUnavailableException("Inventory service circuit breaker is open", e);
+        }
+    }
+
+    /**
+     * @param failure null при успешном ответе
+     */
+    private void releasePermission(long startNanos, Throwable failure) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (failure == null) {
+            inventoryCircuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+        } else if (isCancellation(failure)) {
+            // Вызов отменили мы сами (другой товар заказа недоступен) - не результат inventory
+            inventoryCircuitBreaker.releasePermission();
+        } else if (failure instanceof StatusRuntimeException e && !FAILURE_CODES.contains(e.getStatus().getCode())) {
+            // NOT_FOUND, INVALID_ARGUMENT и т.п. - inventory ответил, значит он жив
+            inventoryCircuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+        } else {
+            inventoryCircuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, failure);
+        }
+    }
+
+    /** Разрешение, взятое под вызов, который так и не был отправлен. */
+    private void releaseUnusedPermission() {
+        inventoryCircuitBreaker.releasePermission();
+    }
+
+    private static boolean isCancellation(Throwable failure) {
+        return failure instanceof CancellationException
+                || failure instanceof StatusRuntimeException e && e.getStatus().getCode() == Status.Code.CANCELLED;
+    }
+
+    /**
+     * Ответ заполняет кэш, только если товара в нём нет. Inventory отвечает из ProductCatalog,
+     * который отстаёт до inventory.catalog.ttl, и ответ, отправленный до изменения цены, иначе
+     * затёр бы запись из события ProductChangeWatcher на весь TTL кэша.
+     */
+    private void rememberMetadata(UUID productId, ProductAvailabilityResponse response) {
+        if (response.getProductName().isEmpty()) {
+            // Товар не найден (удалён) - промах кэша безопасен
+            productMetadataCache.invalidate(productId);
+        } else {
+            productMetadataCache.putIfAbsent(productId, ProductMetadata.from(response));
+        }
+    }
+
+    private ProductAvailabilityRequest buildRequest(UUID productId, int quantity) {
+        return ProductAvailabilityRequest.newBuilder()
+                .setProductId(productId.toString())
+                .setRequestedQuantity(quantity)
+                .build();
+    }
+
+    private ProductAvailabilityResponse requireAvailable(UUID productId, int quantity,
+                                                         ProductAvailabilityResponse response) {
         if (!response.getIsAvailable()) {
             throw new ProductNotAvailableException(
                     productId,
@@ -67,4 +371,21 @@ public class InventoryGrpcClient {
 
         return response;
     }
+
+    private InventoryServiceException toInventoryServiceException(UUID productId, StatusRuntimeException e) {
+        log.error("gRPC call failed for product {}: {}", productId, e.getStatus());
+        return new InventoryServiceException(
+                "Failed to check product availability: " + e.getStatus().getDescription(), e);
+    }
+
+    private static RuntimeException unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new InventoryServiceException("Availability check failed", cause);
+    }
 }
@@ -0,0 +1,185 @@
+package com.onlinestore.order.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подписка на WatchProducts: поддерживает ProductMetadataCache в актуальном состоянии по событиям
+ * изменения товаров. После обрыва поток возобновляется с отметки, отстающей от полученных событий
+ * на resume-overlap, и inventory досылает пропущенное. Кэш очищается целиком, только если догнать
+ * нельзя: отметки ещё нет или inventory ответил OUT_OF_RANGE.
+ *
+ * <p>sequence выдаётся при вставке в журнал, а не при коммите, поэтому события приходят не по
+ * порядку. Для каждого товара запоминается последний применённый sequence, и пришедшее позже
+ * более старое событие не затирает новое состояние.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductChangeWatcher {
+
+    private final ProductMetadataCache productMetadataCache;
+
+    @GrpcClient("inventory-service")
+    private InventoryServiceGrpc.InventoryServiceStub inventoryAsyncStub;
+
+    @Value("${inventory-client.product-cache.watch-enabled:true}")
+    private boolean watchEnabled;
+
+    @Value("${inventory-client.product-cache.reconnect-delay:5s}")
+    private Duration reconnectDelay;
+
+    // Не меньше самой долгой транзакции изменения товаров в inventory (чанк импорта)
+    @Value("${inventory-client.product-cache.resume-overlap:1m}")
+    private Duration resumeOverlap;
+
+    private final ScheduledExecutorService reconnectScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-change-watcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ClientCallStreamObserver<WatchProductsRequest> currentCall;
+    private volatile boolean stopped;
+
+    private final Map<UUID, Long> appliedSequences = new ConcurrentHashMap<>();
+    // Полученные sequence, ещё не ставшие отметкой возобновления. Обращаются к ним только колбэки
+    // текущего вызова, а вызовы идут строго друг за другом
+    private final Deque<ReceivedSequence> recentSequences = new ArrayDeque<>();
+    private volatile long resumeSequence;
+    private long lastPrunedAt = System.nanoTime();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (watchEnabled) {
+            watch();
+        }
+    }
+
+    private void watch() {
+        if (stopped) {
+            return;
+        }
+
+        WatchProductsRequest request = WatchProductsRequest.newBuilder()
+                .setFromSequence(resumeSequence)
+                .build();
+
+        inventoryAsyncStub.watchProducts(request,
+                new ClientResponseObserver<WatchProductsRequest, ProductChangeEvent>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<WatchProductsRequest> requestStream) {
+                        currentCall = requestStream;
+                    }
+
+                    @Override
+                    public void onNext(ProductChangeEvent event) {
+                        log.debug("Product {} changed: {} (sequence {})",
+                                event.getProductId(), event.getType(), event.getSequence());
+                        apply(event);
+                        recentSequences.addLast(new ReceivedSequence(event.getSequence(), System.nanoTime()));
+                        advanceResumeSequence();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        log.warn("Product change stream failed: {}, reconnecting in {}", t.getMessage(), reconnectDelay);
+                        if (Status.fromThrowable(t).getCode() == Status.Code.OUT_OF_RANGE) {
+                            // inventory уже не хранит события после отметки - начинаем с чистого кэша
+                            resumeSequence = 0;
+                        }
+                        reconnect();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        log.info("Product change stream completed by inventory service, reconnecting");
+                        reconnect();
+                    }
+                });
+    }
+
+    private void apply(ProductChangeEvent event) {
+        UUID productId = UUID.fromString(event.getProductId());
+        Long applied = appliedSequences.get(productId);
+        if (applied != null && applied >= event.getSequence()) {
+            log.debug("Skipping stale change of product {}: sequence {}, already applied {}",
+                    productId, event.getSequence(), applied);
+            return;
+        }
+        appliedSequences.put(productId, event.getSequence());
+
+        if (event.getType() == ProductChangeEvent.Type.DELETED) {
+            productMetadataCache.invalidate(productId);
+        } else {
+            productMetadataCache.put(productId, ProductMetadata.from(event));
+        }
+    }
+
+    /**
+     * Отметка возобновления - наибольший sequence, полученный раньше чем resume-overlap назад.
+     * С максимального полученного возобновляться нельзя: меньший номер длинной транзакции,
+     * закоммиченной позже, остался бы пропущенным. Догонка с отстающей отметки присылает часть
+     * событий повторно, их отсекает appliedSequences.
+     */
+    private void advanceResumeSequence() {
+        long now = System.nanoTime();
+        long overlap = resumeOverlap.toNanos();
+        ReceivedSequence oldest;
+        while ((oldest = recentSequences.peekFirst()) != null && now - oldest.receivedAt() >= overlap) {
+            resumeSequence = Math.max(resumeSequence, oldest.sequence());
+            recentSequences.pollFirst();
+        }
+        if (now - lastPrunedAt >= overlap) {
+            // События с sequence не больше отметки уже не придут - их товары помнить незачем
+            long resumeFrom = resumeSequence;
+            appliedSequences.values().removeIf(sequence -> sequence <= resumeFrom);
+            lastPrunedAt = now;
+        }
+    }
+
+    private void reconnect() {
+        advanceResumeSequence();
+        // Всё полученное после отметки inventory пришлёт заново
+        recentSequences.clear();
+        if (resumeSequence == 0) {
+            // Возобновлять не с чего - события за время разрыва потеряны
+            productMetadataCache.invalidateAll();
+        }
+        if (!stopped) {
+            reconnectScheduler.schedule(this::watch, reconnectDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        ClientCallStreamObserver<WatchProductsRequest> call = currentCall;
+        if (call != null) {
+            call.cancel("order-service shutting down", null);
+        }
+        reconnectScheduler.shutdownNow();
+    }
+
+    private record ReceivedSequence(long sequence, long receivedAt) {
+    }
+}
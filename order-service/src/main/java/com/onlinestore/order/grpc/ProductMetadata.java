@@ -0,0 +1,33 @@
+package com.onlinestore.order.grpc;
+
+import com.onlinestore.order.entity.Money;
+
+/**
+ * Редко меняющиеся данные товара из Inventory Service (без остатка на складе).
+ * Цена в копейках, скидка в сотых долях процента.
+ */
+public record ProductMetadata(String name, long priceCents, int discountBasisPoints) {
+
+    @SuppressWarnings("deprecation")
+    public static ProductMetadata from(ProductAvailabilityResponse response) {
+        return new ProductMetadata(response.getProductName(),
+                priceCents(response.getPriceCents(), response.getPrice()),
+                discountBasisPoints(response.getDiscountBasisPoints(), response.getDiscount()));
+    }
+
+    @SuppressWarnings("deprecation")
+    public static ProductMetadata from(ProductChangeEvent event) {
+        return new ProductMetadata(event.getName(),
+                priceCents(event.getPriceCents(), event.getPrice()),
+                discountBasisPoints(event.getDiscountBasisPoints(), event.getDiscount()));
+    }
+
+    // Inventory Service до появления полей в копейках заполнял только double
+    private static long priceCents(long cents, double price) {
+        return cents != 0 ? cents : Money.toCents(price);
+    }
+
+    private static int discountBasisPoints(int basisPoints, double discount) {
+        return basisPoints != 0 ? basisPoints : Money.toBasisPoints(discount);
+    }
+}
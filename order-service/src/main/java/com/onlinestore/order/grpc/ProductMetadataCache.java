@@ -0,0 +1,56 @@
+package com.onlinestore.order.grpc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Кэш название/цена/скидка товаров. Остаток сюда не попадает - он всегда проверяется в inventory.
+ * Записи обновляются по событиям WatchProducts (ProductChangeWatcher), короткий TTL ограничивает
+ * устаревание, если поток событий оборвался.
+ */
+@Component
+public class ProductMetadataCache {
+
+    private final Cache<UUID, ProductMetadata> cache;
+
+    public ProductMetadataCache(
+            @Value("${inventory-client.product-cache.maximum-size:10000}") long maximumSize,
+            @Value("${inventory-client.product-cache.ttl:30s}") Duration ttl,
+            MeterRegistry meterRegistry) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productMetadata");
+    }
+
+    public ProductMetadata get(UUID productId) {
+        return cache.getIfPresent(productId);
+    }
+
+    public void put(UUID productId, ProductMetadata metadata) {
+        cache.put(productId, metadata);
+    }
+
+    /** Заполнение из ответа inventory: запись из события ProductChangeWatcher не заменяет. */
+    public void putIfAbsent(UUID productId, ProductMetadata metadata) {
+        cache.asMap().putIfAbsent(productId, metadata);
+    }
+
+    public void invalidate(UUID productId) {
+        cache.invalidate(productId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -1,5 +1,6 @@
 package com.onlinestore.order.kafka;
 
+import com.onlinestore.order.entity.Money;
 import com.onlinestore.order.entity.Order;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,6 +29,9 @@ public class OrderCreatedEvent {
     public static class OrderItemEvent {
         private UUID productId;
         private Integer quantity;
+        private Long priceCents;
+        private Integer discountBasisPoints;
+        // Для потребителей, которые ещё не читают поля в копейках
         private BigDecimal price;
         private BigDecimal sale;
     }
@@ -40,8 +44,10 @@ public class OrderCreatedEvent {
                         .map(item -> OrderItemEvent.builder()
                                 .productId(item.getProductId())
                                 .quantity(item.getQuantity())
-                                .price(item.getPrice())
-                                .sale(item.getSale())
+                                .priceCents(item.getPriceCents())
+                                .discountBasisPoints(item.getDiscountBasisPoints())
+                                .price(Money.toDecimal(item.getPriceCents()))
+                                .sale(Money.toPercent(item.getDiscountBasisPoints()))
                                 .build())
                         .toList())
                 .build();
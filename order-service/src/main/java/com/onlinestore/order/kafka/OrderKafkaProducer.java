@@ -20,12 +20,12 @@ public class OrderKafkaProducer {
             OrderCreatedEvent event = OrderCreatedEvent.from(order);
             String orderId = order.getId().toString();
 
-            log.info("Sending OrderCreatedEvent to Kafka, orderId: {}", orderId);
+            log.debug("Sending OrderCreatedEvent to Kafka, orderId: {}", orderId);
 
             kafkaTemplate.send("orders", orderId, event)
                     .whenComplete((result, ex) -> {
                         if (ex == null) {
-                            log.info("OrderCreatedEvent sent successfully, offset: {}",
+                            log.debug("OrderCreatedEvent sent successfully, offset: {}",
                                     result.getRecordMetadata().offset());
                         } else {
                             log.error("Failed to send OrderCreatedEvent", ex);
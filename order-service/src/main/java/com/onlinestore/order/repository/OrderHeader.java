@@ -0,0 +1,10 @@
+package com.onlinestore.order.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Заказ без позиций для истории заказов: итог в копейках посчитан в SQL суммой по order_items.
+ */
+public record OrderHeader(UUID id, LocalDateTime createdAt, Long totalCents) {
+}
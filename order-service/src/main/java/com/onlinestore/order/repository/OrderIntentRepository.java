@@ -0,0 +1,80 @@
+package com.onlinestore.order.repository;
+
+import com.onlinestore.order.entity.OrderIntent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OrderIntentRepository extends JpaRepository<OrderIntent, UUID> {
+
+    Optional<OrderIntent> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Самые старые ожидающие intent - очередь для пула обработки. Возвращённые на повтор
+     * (attempts > 0) - не раньше, чем их статус не менялся до retryBefore.
+     */
+    @Query("select i.id from OrderIntent i where i.status = com.onlinestore.order.entity.OrderIntent.Status.PENDING"
+            + " and (i.attempts = 0 or i.updatedAt < :retryBefore) order by i.createdAt, i.id")
+    List<UUID> findPendingIds(@Param("retryBefore") LocalDateTime retryBefore, Pageable page);
+
+    /** PENDING -> PROCESSING; 0 - intent уже взял другой поток или реплика. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OrderIntent i set i.status = com.onlinestore.order.entity.OrderIntent.Status.PROCESSING,"
+            + " i.attempts = i.attempts + 1, i.updatedAt = :now"
+            + " where i.id = :id and i.status = com.onlinestore.order.entity.OrderIntent.Status.PENDING")
+    int claim(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    /**
+     * Блокирует строку intent до конца транзакции, если claim с номером попытки attempts ещё
+     * действует. Пока блокировка держится, requeueStuck не может вернуть intent в очередь.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from OrderIntent i where i.id = :id"
+            + " and i.status = com.onlinestore.order.entity.OrderIntent.Status.PROCESSING"
+            + " and i.attempts = :attempts")
+    Optional<OrderIntent> lockClaim(@Param("id") UUID id, @Param("attempts") int attempts);
+
+    /**
+     * PROCESSING -> COMPLETED для claim с номером попытки attempts. 0 - claim потерян: intent
+     * вернул requeueStuck, и его, возможно, уже взял другой поток с attempts + 1.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OrderIntent i set i.status = com.onlinestore.order.entity.OrderIntent.Status.COMPLETED,"
+            + " i.orderId = :orderId, i.updatedAt = :now"
+            + " where i.id = :id and i.status = com.onlinestore.order.entity.OrderIntent.Status.PROCESSING"
+            + " and i.attempts = :attempts")
+    int complete(@Param("id") UUID id,
+                 @Param("attempts") int attempts,
+                 @Param("orderId") UUID orderId,
+                 @Param("now") LocalDateTime now);
+
+    /** PROCESSING -> status (PENDING для повтора, REJECTED или FAILED); 0 - claim потерян, как в complete. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OrderIntent i set i.status = :status, i.error = :error, i.updatedAt = :now"
+            + " where i.id = :id and i.status = com.onlinestore.order.entity.OrderIntent.Status.PROCESSING"
+            + " and i.attempts = :attempts")
+    int release(@Param("id") UUID id,
+                @Param("attempts") int attempts,
+                @Param("status") OrderIntent.Status status,
+                @Param("error") String error,
+                @Param("now") LocalDateTime now);
+
+    /** Возвращает в очередь intent, чья обработка оборвалась вместе с репликой. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OrderIntent i set i.status = com.onlinestore.order.entity.OrderIntent.Status.PENDING,"
+            + " i.updatedAt = :now"
+            + " where i.status = com.onlinestore.order.entity.OrderIntent.Status.PROCESSING"
+            + " and i.updatedAt < :stuckBefore")
+    int requeueStuck(@Param("stuckBefore") LocalDateTime stuckBefore, @Param("now") LocalDateTime now);
+}
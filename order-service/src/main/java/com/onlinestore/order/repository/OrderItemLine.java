@@ -0,0 +1,16 @@
+package com.onlinestore.order.repository;
+
+import java.util.UUID;
+
+/**
+ * Позиция заказа для истории заказов, totalCents посчитан в SQL.
+ */
+public record OrderItemLine(UUID orderId,
+                            UUID id,
+                            UUID productId,
+                            String productName,
+                            Integer quantity,
+                            Long priceCents,
+                            Integer discountBasisPoints,
+                            Long totalCents) {
+}
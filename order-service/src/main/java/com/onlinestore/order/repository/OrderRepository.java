@@ -2,15 +2,52 @@ package com.onlinestore.order.repository;
 
 import com.onlinestore.order.entity.Order;
 import com.onlinestore.order.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
+    // Стоимость позиции в копейках с округлением HALF_UP, как Money.lineTotal:
+    // деление bigint на целое в PostgreSQL и H2 целочисленное
+    String ITEM_TOTAL = "(i.priceCents * (10000 - i.discountBasisPoints) * i.quantity + 5000) / 10000";
+
+    String HEADER = "select new com.onlinestore.order.repository.OrderHeader(o.id, o.createdAt, sum("
+            + ITEM_TOTAL + ")) from Order o join o.items i ";
+
+    String NEWEST_FIRST = " group by o.id, o.createdAt order by o.createdAt desc, o.id desc";
+
     List<Order> findByUserId(UUID userId);
     boolean existsByIdAndUserId(UUID orderId, UUID userId);
+
+    /** Первая страница истории заказов пользователя, новые сначала. */
+    @Query(HEADER + "where o.user.id = :userId" + NEWEST_FIRST)
+    List<OrderHeader> findHeaders(@Param("userId") UUID userId, Pageable page);
+
+    /** Страница после заказа (createdAt, id) в том же порядке. */
+    @Query(HEADER + "where o.user.id = :userId"
+            + " and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))"
+            + NEWEST_FIRST)
+    List<OrderHeader> findHeadersAfter(@Param("userId") UUID userId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") UUID id,
+                                       Pageable page);
+
+    @Query(HEADER + "where o.id = :id and o.user.id = :userId group by o.id, o.createdAt")
+    Optional<OrderHeader> findHeader(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    /** Позиции сразу всех заказов страницы - один запрос вместо ленивой загрузки items по заказу. */
+    @Query("select new com.onlinestore.order.repository.OrderItemLine(i.order.id, i.id, i.productId,"
+            + " i.productName, i.quantity, i.priceCents, i.discountBasisPoints, " + ITEM_TOTAL + ")"
+            + " from OrderItem i where i.order.id in :orderIds order by i.id")
+    List<OrderItemLine> findItemLines(@Param("orderIds") Collection<UUID> orderIds);
 }
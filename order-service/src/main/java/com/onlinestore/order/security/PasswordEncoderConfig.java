@@ -1,15 +1,35 @@
 package com.onlinestore.order.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 @Configuration
 public class PasswordEncoderConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    /**
+     * Новые хэши сохраняются как {bcrypt}... с текущим cost.
+     * Старые хэши (без префикса или с меньшим cost) проверяются BCrypt и
+     * перехэшируются при успешном логине через UserDetailsPasswordService.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor hashingExecutor) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        DelegatingPasswordEncoder delegatingEncoder =
+                new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegatingEncoder, hashingExecutor);
     }
 }
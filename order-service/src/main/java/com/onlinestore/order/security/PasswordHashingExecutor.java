@@ -0,0 +1,104 @@
+package com.onlinestore.order.security;
+
+import com.onlinestore.order.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Отдельный ограниченный пул для BCrypt.
+ * Хэширование пароля - самая дорогая по CPU операция в сервисе, поэтому всплеск логинов
+ * не должен занимать все потоки Tomcat: одновременно работает не больше pool-size хэшей,
+ * ещё queue-capacity ждут в очереди, остальные запросы сразу получают 503.
+ *
+ * <p>Поток запроса при этом не освобождается - он ждёт очередь и хэш. Поэтому pool-size +
+ * queue-capacity ограничены половиной server.tomcat.threads.max: сколько бы ни пришло логинов,
+ * остальные потоки Tomcat обслуживают заказы. С виртуальными потоками ожидание не занимает
+ * поток платформы, и ограничение не проверяется.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(
+            @Value("${security.password.hashing.pool-size:2}") int poolSize,
+            @Value("${security.password.hashing.queue-capacity:50}") int queueCapacity,
+            @Value("${server.tomcat.threads.max:200}") int tomcatMaxThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+
+        if (!virtualThreads && poolSize + queueCapacity > tomcatMaxThreads / 2) {
+            throw new IllegalArgumentException("security.password.hashing.pool-size + queue-capacity ("
+                    + (poolSize + queueCapacity) + ") must not exceed half of server.tomcat.threads.max ("
+                    + tomcatMaxThreads + "): requests waiting for a hash hold their Tomcat thread");
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Password hashing tasks rejected because the queue is full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет задачу в пуле хэширования и ждёт результат в вызывающем потоке.
+     *
+     * @throws PasswordHashingRejectedException если очередь переполнена
+     */
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing queue is full ({} queued), rejecting request", executor.getQueue().size());
+            throw new PasswordHashingRejectedException("Too many concurrent authentication requests", e);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,26 @@
+package com.onlinestore.order.service;
+
+import com.onlinestore.order.entity.User;
+
+import java.util.UUID;
+
+/**
+ * Неизменяемая копия пользователя для кэшей UserService. Сущность JPA в кэше не хранится:
+ * каждый вызов получает свой отсоединённый User, и изменения одного запроса не видны другим.
+ */
+record CachedUser(UUID id, String username, String password, String email, User.Role role) {
+
+    static CachedUser from(User user) {
+        return new CachedUser(user.getId(), user.getUsername(), user.getPassword(), user.getEmail(), user.getRole());
+    }
+
+    User toUser() {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .password(password)
+                .email(email)
+                .role(role)
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package com.onlinestore.order.service;
+
+import java.util.UUID;
+
+/** Публикуется в транзакции OrderIntentService.submit; после коммита intent уходит в пул обработки. */
+public record OrderIntentCreatedEvent(UUID intentId) {
+}
@@ -0,0 +1,133 @@
+package com.onlinestore.order.service;
+
+import com.onlinestore.order.dto.OrderIntentResponse;
+import com.onlinestore.order.entity.OrderIntent;
+import com.onlinestore.order.repository.OrderIntentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Подписки SSE на статус intent. Обработавшая intent реплика сообщает об изменении сразу
+ * (changed); intent, обработанные другой репликой, подписчики этой увидят при опросе
+ * таблицы раз в poll-interval-ms - одним запросом на все открытые подписки.
+ */
+@Slf4j
+@Component
+public class OrderIntentNotifier {
+
+    private final OrderIntentRepository orderIntentRepository;
+    private final long timeoutMillis;
+    private final Map<UUID, Watch> watches = new ConcurrentHashMap<>();
+
+    public OrderIntentNotifier(OrderIntentRepository orderIntentRepository,
+                               @Value("${orders.async.sse-timeout:30s}") Duration timeout) {
+        this.orderIntentRepository = orderIntentRepository;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter subscribe(OrderIntentResponse current) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        if (current.getStatus().isFinal()) {
+            send(emitter, current);
+            emitter.complete();
+            return emitter;
+        }
+
+        UUID intentId = current.getId();
+        Runnable unsubscribe = () -> unsubscribe(intentId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        watches.computeIfAbsent(intentId, id -> new Watch(current.getStatus())).emitters.add(emitter);
+        send(emitter, current);
+        return emitter;
+    }
+
+    /** Вызывается после смены статуса intent; без подписчиков ничего не читает из БД. */
+    public void changed(UUID intentId) {
+        Watch watch = watches.get(intentId);
+        if (watch != null) {
+            orderIntentRepository.findById(intentId).ifPresent(intent -> publish(watch, intent));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.async.poll-interval-ms:1000}")
+    public void refresh() {
+        if (watches.isEmpty()) {
+            return;
+        }
+        for (OrderIntent intent : orderIntentRepository.findAllById(List.copyOf(watches.keySet()))) {
+            Watch watch = watches.get(intent.getId());
+            if (watch != null) {
+                publish(watch, intent);
+            }
+        }
+    }
+
+    private void publish(Watch watch, OrderIntent intent) {
+        // Не synchronized: send блокирует на записи и закрепил бы виртуальный поток на носителе
+        watch.lock.lock();
+        try {
+            if (intent.getStatus() == watch.lastStatus) {
+                return;
+            }
+            watch.lastStatus = intent.getStatus();
+
+            OrderIntentResponse response = OrderIntentResponse.fromEntity(intent);
+            for (SseEmitter emitter : watch.emitters) {
+                send(emitter, response);
+                if (intent.getStatus().isFinal()) {
+                    emitter.complete();
+                }
+            }
+        } finally {
+            watch.lock.unlock();
+        }
+        if (intent.getStatus().isFinal()) {
+            watches.remove(intent.getId(), watch);
+        }
+    }
+
+    private void unsubscribe(UUID intentId, SseEmitter emitter) {
+        watches.computeIfPresent(intentId, (id, watch) -> {
+            watch.emitters.remove(emitter);
+            return watch.emitters.isEmpty() ? null : watch;
+        });
+    }
+
+    private static void send(SseEmitter emitter, OrderIntentResponse response) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("status")
+                    .data(response));
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился или подписка уже закрыта - onError/onCompletion уберут её
+            log.debug("Could not send status of order intent {}: {}", response.getId(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static class Watch {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        // Последний отправленный подписчикам статус: опрос таблицы не повторяет его
+        private OrderIntent.Status lastStatus;
+
+        private Watch(OrderIntent.Status status) {
+            this.lastStatus = status;
+        }
+    }
+}
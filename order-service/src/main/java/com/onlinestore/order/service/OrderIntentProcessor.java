@@ -0,0 +1,260 @@
+package com.onlinestore.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.order.dto.CreateOrderRequest;
+import com.onlinestore.order.entity.Order;
+import com.onlinestore.order.entity.OrderIntent;
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.entity.UuidV7;
+import com.onlinestore.order.exception.InventoryServiceException;
+import com.onlinestore.order.exception.ProductNotAvailableException;
+import com.onlinestore.order.repository.OrderIntentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул, оформляющий заказы из order_intents: проверка наличия в Inventory Service и запись
+ * заказа - тот же OrderService.createOrder, что и у синхронного POST /api/orders, в одной
+ * транзакции с переводом intent в COMPLETED.
+ *
+ * <p>Одновременно оформляется не больше pool-size заказов, ещё queue-capacity ждут в очереди
+ * пула. Новый intent уходит в пул сразу после коммита; не поместившиеся остаются PENDING
+ * в таблице, и их раз в poll-interval-ms забирает опрос, по мере освобождения очереди.
+ * Intent берёт в работу тот поток, чей claim сменил PENDING на PROCESSING, поэтому одну
+ * таблицу могут разбирать несколько реплик.
+ */
+@Slf4j
+@Component
+public class OrderIntentProcessor {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OrderIntentRepository orderIntentRepository;
+    private final OrderService orderService;
+    private final UserService userService;
+    private final OrderIntentNotifier orderIntentNotifier;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor executor;
+    // Intent в очереди пула или в работе на этой реплике - опрос не ставит их второй раз
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration processingTimeout;
+
+    private final Timer waitTimer;
+    private final Map<OrderIntent.Status, Counter> outcomeCounters = new EnumMap<>(OrderIntent.Status.class);
+
+    public OrderIntentProcessor(OrderIntentRepository orderIntentRepository,
+                                OrderService orderService,
+                                UserService userService,
+                                OrderIntentNotifier orderIntentNotifier,
+                                ObjectMapper objectMapper,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${orders.async.pool-size:16}") int poolSize,
+                                @Value("${orders.async.queue-capacity:500}") int queueCapacity,
+                                @Value("${orders.async.max-attempts:3}") int maxAttempts,
+                                @Value("${orders.async.retry-delay:5s}") Duration retryDelay,
+                                @Value("${orders.async.processing-timeout:1m}") Duration processingTimeout,
+                                @Value("${resilience4j.bulkhead.instances.inventory.max-concurrent-calls:50}")
+                                int inventoryConcurrentCalls,
+                                MeterRegistry meterRegistry) {
+        // Каждое оформление в пуле держит одно место того же bulkhead, что и синхронный checkout:
+        // InventoryGrpcClient берёт его на заказ целиком, а не на товар
+        if (poolSize >= inventoryConcurrentCalls) {
+            throw new IllegalArgumentException("orders.async.pool-size (" + poolSize
+                    + ") must be less than the inventory bulkhead max-concurrent-calls ("
+                    + inventoryConcurrentCalls + ") - one permit per order - otherwise POST /api/orders"
+                    + " gets no permits");
+        }
+        this.orderIntentRepository = orderIntentRepository;
+        this.orderService = orderService;
+        this.userService = userService;
+        this.orderIntentNotifier = orderIntentNotifier;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.processingTimeout = processingTimeout;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-intent-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "order.intent.workers", Tags.empty()).bindTo(meterRegistry);
+        this.waitTimer = Timer.builder("order.intent.wait")
+                .description("Time from accepting an order intent to the start of its processing")
+                .register(meterRegistry);
+        for (OrderIntent.Status status : OrderIntent.Status.values()) {
+            if (status != OrderIntent.Status.PROCESSING) {
+                outcomeCounters.put(status, Counter.builder("order.intent.processed")
+                        .description("Processed order intents by resulting status, PENDING - requeued for retry")
+                        .tag("status", status.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIntentCreated(OrderIntentCreatedEvent event) {
+        if (!dispatch(event.intentId())) {
+            log.debug("Order intent queue is full, intent {} waits for the next poll", event.intentId());
+        }
+    }
+
+    /** Возвращает в очередь зависшие PROCESSING и добирает PENDING до заполнения очереди пула. */
+    @Scheduled(fixedDelayString = "${orders.async.poll-interval-ms:1000}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer requeued = transactionTemplate.execute(status ->
+                orderIntentRepository.requeueStuck(now.minus(processingTimeout), now));
+        if (requeued != null && requeued > 0) {
+            log.warn("Requeued {} order intents stuck in PROCESSING for more than {}", requeued, processingTimeout);
+        }
+
+        int free = executor.getQueue().remainingCapacity();
+        if (free == 0) {
+            return;
+        }
+        for (UUID intentId : orderIntentRepository.findPendingIds(now.minus(retryDelay), PageRequest.of(0, free))) {
+            if (!dispatch(intentId)) {
+                break;
+            }
+        }
+    }
+
+    /** false - очередь пула заполнена, intent остаётся PENDING до следующего опроса. */
+    private boolean dispatch(UUID intentId) {
+        if (!queued.add(intentId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(intentId);
+                } finally {
+                    queued.remove(intentId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(intentId);
+            return false;
+        }
+    }
+
+    /**
+     * Оформляет intent, если удалось его взять; иначе его уже обрабатывает другой поток.
+     * Заказ оформляется под блокировкой строки intent и только если claim ещё наш: ожидание
+     * пула дольше processing-timeout могло вернуть intent в очередь и отдать другой реплике.
+     * Взятую блокировку requeueStuck ждёт до коммита и после него видит COMPLETED.
+     */
+    public void process(UUID intentId) {
+        Integer claimed = transactionTemplate.execute(status ->
+                orderIntentRepository.claim(intentId, LocalDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        OrderIntent intent = orderIntentRepository.findById(intentId).orElseThrow();
+        int attempt = intent.getAttempts();
+        waitTimer.record(System.currentTimeMillis() - UuidV7.epochMillis(intentId), TimeUnit.MILLISECONDS);
+        orderIntentNotifier.changed(intentId);
+
+        OrderIntent.Status result;
+        String error = null;
+        try {
+            CreateOrderRequest request = objectMapper.readValue(intent.getPayload(), CreateOrderRequest.class);
+            User user = userService.getUserById(intent.getUserId());
+            transactionTemplate.executeWithoutResult(status -> {
+                // До createOrder: он сразу отправляет OrderCreated в Kafka, и откат его не отменит
+                if (orderIntentRepository.lockClaim(intentId, attempt).isEmpty()) {
+                    throw new ClaimLostException();
+                }
+                Order order = orderService.createOrder(user, request);
+                orderIntentRepository.complete(intentId, attempt, order.getId(), LocalDateTime.now());
+            });
+            result = OrderIntent.Status.COMPLETED;
+        } catch (ClaimLostException e) {
+            log.warn("Order intent {} attempt {} lost its claim after {}, another worker owns it",
+                    intentId, attempt, processingTimeout);
+            return;
+        } catch (ProductNotAvailableException | IllegalArgumentException | UsernameNotFoundException e) {
+            result = OrderIntent.Status.REJECTED;
+            error = e.getMessage();
+        } catch (InventoryServiceException | CannotCreateTransactionException | DataAccessResourceFailureException
+                 | TransientDataAccessException e) {
+            // Повтор не раньше чем через retry-delay: за это время circuit breaker успевает закрыться
+            result = attempt < maxAttempts ? OrderIntent.Status.PENDING : OrderIntent.Status.FAILED;
+            error = e.getMessage();
+            log.warn("Order intent {} attempt {} failed: {}", intentId, attempt, e.getMessage());
+        } catch (Exception e) {
+            result = OrderIntent.Status.FAILED;
+            error = "Order could not be placed";
+            log.error("Order intent {} failed", intentId, e);
+        }
+
+        if (result != OrderIntent.Status.COMPLETED) {
+            String reason = error != null && error.length() > MAX_ERROR_LENGTH
+                    ? error.substring(0, MAX_ERROR_LENGTH)
+                    : error;
+            OrderIntent.Status released = result;
+            Integer updated = transactionTemplate.execute(status ->
+                    orderIntentRepository.release(intentId, attempt, released, reason, LocalDateTime.now()));
+            if (updated == null || updated == 0) {
+                log.warn("Order intent {} attempt {} lost its claim, {} not recorded", intentId, attempt, result);
+                return;
+            }
+        }
+        outcomeCounters.get(result).increment();
+        orderIntentNotifier.changed(intentId);
+    }
+
+    // Взятые в работу intent, прерванные здесь, вернёт в очередь requeueStuck; остальные и так PENDING
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class ClaimLostException extends RuntimeException {
+        private ClaimLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
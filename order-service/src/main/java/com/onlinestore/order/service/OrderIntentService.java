@@ -0,0 +1,72 @@
+package com.onlinestore.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.order.dto.CreateOrderRequest;
+import com.onlinestore.order.dto.OrderIntentResponse;
+import com.onlinestore.order.entity.OrderIntent;
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.exception.OrderIntentNotFoundException;
+import com.onlinestore.order.repository.OrderIntentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Асинхронное оформление заказа: запрос проверяется и сохраняется в order_intents, клиент сразу
+ * получает 202 и ссылку на статус. Inventory Service, цены и запись заказа - в OrderIntentProcessor,
+ * поэтому соединение клиента не ждёт gRPC-вызовов, а всплеск заказов копится в таблице.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderIntentService {
+
+    private final OrderIntentRepository orderIntentRepository;
+    private final OrderIntentNotifier orderIntentNotifier;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public OrderIntent submit(User user, CreateOrderRequest request) {
+        if (!user.getId().equals(request.getUserId())) {
+            throw new IllegalArgumentException("User ID mismatch");
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize order request", e);
+        }
+
+        OrderIntent intent = orderIntentRepository.save(OrderIntent.builder()
+                .userId(user.getId())
+                .payload(payload)
+                .build());
+        eventPublisher.publishEvent(new OrderIntentCreatedEvent(intent.getId()));
+
+        log.debug("Order intent {} accepted for user {}", intent.getId(), user.getId());
+        return intent;
+    }
+
+    /**
+     * @throws OrderIntentNotFoundException если intent нет или он принадлежит другому пользователю
+     */
+    @Transactional(readOnly = true)
+    public OrderIntentResponse getIntent(User user, UUID intentId) {
+        return orderIntentRepository.findByIdAndUserId(intentId, user.getId())
+                .map(OrderIntentResponse::fromEntity)
+                .orElseThrow(() -> new OrderIntentNotFoundException(intentId));
+    }
+
+    /** SSE со статусом intent: текущий сразу, дальше каждое изменение до финального. */
+    public SseEmitter subscribe(User user, UUID intentId) {
+        return orderIntentNotifier.subscribe(getIntent(user, intentId));
+    }
+}
@@ -1,42 +1,57 @@
 package com.onlinestore.order.service;
 
 import com.onlinestore.order.dto.CreateOrderRequest;
+import com.onlinestore.order.dto.OrderPageResponse;
+import com.onlinestore.order.dto.OrderQuoteResponse;
+import com.onlinestore.order.dto.OrderResponse;
+import com.onlinestore.order.entity.Money;
 import com.onlinestore.order.entity.Order;
 import com.onlinestore.order.entity.OrderItem;
 import com.onlinestore.order.entity.User;
 import com.onlinestore.order.exception.OrderNotFoundException;
 import com.onlinestore.order.exception.ProductNotAvailableException;
 import com.onlinestore.order.grpc.InventoryGrpcClient;
+import com.onlinestore.order.grpc.ProductAvailabilityResponse;
+import com.onlinestore.order.grpc.ProductMetadata;
 import com.onlinestore.order.kafka.OrderKafkaProducer;
+import com.onlinestore.order.repository.OrderHeader;
+import com.onlinestore.order.repository.OrderItemLine;
 import com.onlinestore.order.repository.OrderRepository;
-import com.onlinestore.order.repository.UserRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
     private final InventoryGrpcClient inventoryClient;
     private final TransactionalOutboxService transactionalOutboxService;
     private final OrderKafkaProducer orderKafkaProducer;
+    private final ObservationRegistry observationRegistry;
 
     @Transactional
-    public Order createOrder(UUID userId, CreateOrderRequest request) {
-        log.info("Creating order for user: {}", userId);
+    public Order createOrder(User user, CreateOrderRequest request) {
+        UUID userId = user.getId();
+        log.debug("Creating order for user: {}", userId);
 
-        // 1. Находим пользователя
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+        // 1. Пользователь уже загружен JwtAuthenticationFilter - повторно из БД не читаем
 
         // 2. Проверяем что userId в запросе совпадает с аутентифицированным
         if (!userId.equals(request.getUserId())) {
@@ -48,37 +63,158 @@ public class OrderService {
                 .user(user)
                 .build();
 
-        // 4. Добавляем товары с проверкой доступности
-        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            // Проверяем наличие через gRPC
-            var availability = inventoryClient.checkAvailabilityOrThrow(
-                    itemRequest.getProductId(),
-                    itemRequest.getQuantity());
+        // 4. Проверяем наличие всех товаров через gRPC параллельно
+        List<CreateOrderRequest.OrderItemRequest> items = request.getItems();
+        List<ProductAvailabilityResponse> availabilities =
+                timed("availability", () -> inventoryClient.checkAvailabilityOrThrow(items));
+
+        // 5. Добавляем товары с актуальной информацией
+        for (int i = 0; i < items.size(); i++) {
+            CreateOrderRequest.OrderItemRequest itemRequest = items.get(i);
+            ProductMetadata product = ProductMetadata.from(availabilities.get(i));
 
-            // Создаем OrderItem с актуальной информацией
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
                     .productId(itemRequest.getProductId())
-                    .productName(availability.getProductName())
+                    .productName(product.name())
                     .quantity(itemRequest.getQuantity())
-                    .price(BigDecimal.valueOf(availability.getPrice()))
-                    .sale(BigDecimal.valueOf(availability.getDiscount()))
+                    .priceCents(product.priceCents())
+                    .discountBasisPoints(product.discountBasisPoints())
                     .build();
 
             order.addItem(orderItem);
         }
 
-
-        // 6. Сохраняем заказ
-        Order savedOrder = orderRepository.save(order);
+        // 6. Сохраняем заказ. flush здесь, а не при коммите - чтобы время INSERT попало в persist
+        Order savedOrder = timed("persist", () -> orderRepository.saveAndFlush(order));
 
         // 7. Отправляем в аутбокс
-        transactionalOutboxService.saveOrderCreatedEvent(savedOrder);
+        timed("outbox", () -> {
+            transactionalOutboxService.saveOrderCreatedEvent(savedOrder);
+            return null;
+        });
 
         //8. Отправляем в кафку (мб с ошибкой, заказ все равно будет сделан + сохранен в аутбокс
-        orderKafkaProducer.sendOrderCreated(savedOrder);
+        timed("publish", () -> {
+            orderKafkaProducer.sendOrderCreated(savedOrder);
+            return null;
+        });
 
-        log.info("Order created successfully: {}", savedOrder.getId());
+        log.info("Order created successfully: {}, {} items", savedOrder.getId(), savedOrder.getItems().size());
         return savedOrder;
     }
+
+    /**
+     * Расчёт стоимости корзины без оформления заказа. Цены берутся из кэша товаров,
+     * поэтому повторные просмотры корзины не ходят в Inventory Service.
+     * Наличие на складе проверяется только в createOrder.
+     */
+    public OrderQuoteResponse quoteOrder(CreateOrderRequest request) {
+        List<OrderResponse.OrderItemResponse> items = new ArrayList<>(request.getItems().size());
+        long totalCents = 0;
+        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+            ProductMetadata metadata = inventoryClient.getProductMetadata(itemRequest.getProductId());
+            OrderItem item = OrderItem.builder()
+                    .productId(itemRequest.getProductId())
+                    .productName(metadata.name())
+                    .quantity(itemRequest.getQuantity())
+                    .priceCents(metadata.priceCents())
+                    .discountBasisPoints(metadata.discountBasisPoints())
+                    .build();
+
+            items.add(OrderResponse.OrderItemResponse.fromEntity(item));
+            totalCents += item.getTotalCents();
+        }
+
+        return OrderQuoteResponse.builder()
+                .items(items)
+                .totalPrice(Money.toDecimal(totalCents))
+                .build();
+    }
+
+    /**
+     * История заказов пользователя, новые сначала. На страницу любого размера - два запроса:
+     * заказы с итогами и позиции всех заказов страницы. JOIN FETCH items с LIMIT не используется -
+     * Hibernate применил бы LIMIT уже в памяти, к декартову произведению.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrders(User user, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Pageable page = PageRequest.of(0, limit + 1);
+        List<OrderHeader> headers;
+        if (cursor == null) {
+            headers = orderRepository.findHeaders(user.getId(), page);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            headers = orderRepository.findHeadersAfter(user.getId(), after.createdAt(), after.id(), page);
+        }
+
+        boolean hasNext = headers.size() > limit;
+        if (hasNext) {
+            headers = headers.subList(0, limit);
+        }
+        OrderHeader last = hasNext ? headers.get(limit - 1) : null;
+
+        return OrderPageResponse.builder()
+                .items(toResponses(user, headers))
+                .nextCursor(last != null ? new OrderCursor(last.createdAt(), last.id()).encode() : null)
+                .build();
+    }
+
+    /**
+     * @throws OrderNotFoundException если заказа нет или он принадлежит другому пользователю
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(User user, UUID orderId) {
+        OrderHeader header = orderRepository.findHeader(orderId, user.getId())
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        return toResponses(user, List.of(header)).get(0);
+    }
+
+    private List<OrderResponse> toResponses(User user, List<OrderHeader> headers) {
+        if (headers.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, List<OrderResponse.OrderItemResponse>> items = orderRepository
+                .findItemLines(headers.stream().map(OrderHeader::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(OrderItemLine::orderId, Collectors.mapping(
+                        line -> OrderResponse.OrderItemResponse.builder()
+                                .id(line.id())
+                                .productId(line.productId())
+                                .productName(line.productName())
+                                .quantity(line.quantity())
+                                .price(Money.toDecimal(line.priceCents()))
+                                .sale(Money.toPercent(line.discountBasisPoints()))
+                                .totalPrice(Money.toDecimal(line.totalCents()))
+                                .build(),
+                        Collectors.toList())));
+
+        return headers.stream()
+                .map(header -> OrderResponse.builder()
+                        .id(header.id())
+                        .userId(user.getId())
+                        .username(user.getUsername())
+                        .createdAt(header.createdAt())
+                        .totalPrice(Money.toDecimal(header.totalCents()))
+                        .items(items.getOrDefault(header.id(), List.of()))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Шаг оформления заказа: таймер order.create.phase{phase=...} и спан "order <phase>" в трассе
+     * запроса. Загрузка пользователя измеряется в JwtAuthenticationFilter (auth.user.load),
+     * весь запрос - http.server.requests.
+     */
+    private <T> T timed(String phase, Supplier<T> step) {
+        return Observation.createNotStarted("order.create.phase", observationRegistry)
+                .contextualName("order " + phase)
+                .lowCardinalityKeyValue("phase", phase)
+                .observe(step);
+    }
 }
@@ -5,30 +5,62 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onlinestore.order.entity.Order;
 import com.onlinestore.order.entity.OutboxEvent;
+import com.onlinestore.order.entity.UuidV7;
 import com.onlinestore.order.kafka.OrderCreatedEvent;
 import com.onlinestore.order.kafka.OrderKafkaProducer;
 import com.onlinestore.order.repository.OrderRepository;
 import com.onlinestore.order.repository.OutboxEventRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Transactional
-@RequiredArgsConstructor
 @Slf4j
 public class TransactionalOutboxService {
 
     private final OutboxEventRepository outboxRepository;
     private final ObjectMapper objectMapper;
     private final KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+    private final Tracer tracer;
+
+    // PENDING-события на начало последнего прохода
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final Timer sendSuccessTimer;
+    private final Timer sendFailureTimer;
+    private final Timer eventDelayTimer;
+
+    public TransactionalOutboxService(OutboxEventRepository outboxRepository,
+                                      ObjectMapper objectMapper,
+                                      KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate,
+                                      Tracer tracer,
+                                      MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.kafkaTemplate = kafkaTemplate;
+        this.tracer = tracer;
+
+        Gauge.builder("outbox.backlog", backlog, AtomicInteger::get)
+                .description("Pending outbox events at the start of the last relay run")
+                .register(meterRegistry);
+        this.sendSuccessTimer = sendTimer(meterRegistry, "success");
+        this.sendFailureTimer = sendTimer(meterRegistry, "failure");
+        this.eventDelayTimer = Timer.builder("outbox.event.delay")
+                .description("Time from writing an outbox event to its delivery to Kafka")
+                .register(meterRegistry);
+    }
 
     // Вызывается в той же транзакции что и создание Order
     public void saveOrderCreatedEvent(Order order) {
@@ -41,6 +73,7 @@ public class TransactionalOutboxService {
                     .payload(payload)
                     .status(OutboxEvent.EventStatus.PENDING)
                     .retryCount(0)
+                    .traceParent(currentTraceParent())
                     .build();
 
             outboxRepository.save(outboxEvent);
@@ -57,16 +90,29 @@ public class TransactionalOutboxService {
     public void processOutboxEvents() {
         List<OutboxEvent> pendingEvents = outboxRepository
                 .findByStatus(OutboxEvent.EventStatus.PENDING);
+        backlog.set(pendingEvents.size());
 
         for (OutboxEvent event : pendingEvents) {
-            try {
+            Span span = relaySpan(event);
+            long start = System.nanoTime();
+            try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
                 sendEventToKafka(event);
+                sendSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                // События, записанные до перехода на UUIDv7, времени создания в ключе не несут
+                if (event.getId().version() == 7) {
+                    eventDelayTimer.record(System.currentTimeMillis() - UuidV7.epochMillis(event.getId()),
+                            TimeUnit.MILLISECONDS);
+                }
                 event.setStatus(OutboxEvent.EventStatus.PROCESSED);
             } catch (Exception e) {
+                span.error(e);
+                sendFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 event.setRetryCount(event.getRetryCount() + 1);
                 if (event.getRetryCount() >= 3) {
                     event.setStatus(OutboxEvent.EventStatus.FAILED);
                 }
+            } finally {
+                span.end();
             }
             outboxRepository.save(event);
         }
@@ -92,4 +138,45 @@ public class TransactionalOutboxService {
             throw new RuntimeException("Failed to send to Kafka", e);
         }
     }
+
+    /** traceparent текущего спана в формате W3C или null, если трассы нет. */
+    private String currentTraceParent() {
+        Span span = tracer.currentSpan();
+        if (span == null) {
+            return null;
+        }
+        TraceContext context = span.context();
+        String flags = Boolean.TRUE.equals(context.sampled()) ? "01" : "00";
+        return "00-" + context.traceId() + "-" + context.spanId() + "-" + flags;
+    }
+
+    /**
+     * Спан отправки события. Отправка идёт из планировщика, а не из запроса, поэтому родитель
+     * восстанавливается из trace_parent: в трассе заказа видно, сколько событие ждало в outbox.
+     * KafkaTemplate кладёт контекст этого спана в заголовки сообщения.
+     */
+    private Span relaySpan(OutboxEvent event) {
+        Span.Builder builder = tracer.spanBuilder()
+                .name("outbox relay")
+                .tag("outbox.event.id", String.valueOf(event.getId()));
+
+        String[] traceParent = event.getTraceParent() != null ? event.getTraceParent().split("-") : new String[0];
+        if (traceParent.length == 4) {
+            builder.setParent(tracer.traceContextBuilder()
+                    .traceId(traceParent[1])
+                    .spanId(traceParent[2])
+                    .sampled("01".equals(traceParent[3]))
+                    .build());
+        } else {
+            builder.setNoParent();
+        }
+        return builder.start();
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("outbox.send")
+                .description("Sending one outbox event to Kafka, including the broker ack")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
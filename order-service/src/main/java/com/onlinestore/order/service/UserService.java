@@ -1,11 +1,15 @@
 package com.onlinestore.order.service;
 
+import com.onlinestore.order.config.CacheConfig;
 import com.onlinestore.order.dto.RegisterRequest;
 import com.onlinestore.order.dto.UpdateUserRequest;
 import com.onlinestore.order.entity.User;
 import com.onlinestore.order.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -13,24 +17,38 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
 
 
+    // Вызывается на каждый запрос из JwtAuthenticationFilter и при логине - берем из кэша
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return cached(CacheConfig.USERS_BY_USERNAME, username, () -> userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username)));
+    }
+
+    // Вызывается DaoAuthenticationProvider после успешного логина, если хэш устарел (cost/формат)
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+
+        User savedUser = userRepository.save(user);
+        evictFromCache(savedUser.getId(), savedUser.getUsername());
+        return savedUser;
     }
 
     public User getUserById(UUID userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+        return cached(CacheConfig.USERS_BY_ID, userId, () -> findUserOrThrow(userId));
     }
 
     public List<User> getAllUsers() {
@@ -38,7 +56,9 @@ public class UserService implements UserDetailsService {
     }
 
     public User updateUser(UUID userId, UpdateUserRequest request) {
-        User user = getUserById(userId);
+        // Читаем из БД, а не из кэша: закэшированный объект не должен меняться до сохранения
+        User user = findUserOrThrow(userId);
+        String oldUsername = user.getUsername();
 
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
             if (userRepository.existsByUsername(request.getUsername())) {
@@ -62,13 +82,46 @@ public class UserService implements UserDetailsService {
             user.setRole(request.getRole());
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        evictFromCache(userId, oldUsername);
+        return savedUser;
     }
 
     public void deleteUser(UUID userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new UsernameNotFoundException("User not found with id: " + userId);
+        User user = findUserOrThrow(userId);
+        userRepository.delete(user);
+        evictFromCache(userId, user.getUsername());
+    }
+
+    private User findUserOrThrow(UUID userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+    }
+
+    /**
+     * В кэше - CachedUser, наружу - новый отсоединённый User на каждый вызов: вызывающий код
+     * может менять полученный объект, не затрагивая кэш и другие запросы.
+     */
+    private User cached(String cacheName, Object key, Supplier<User> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        CachedUser snapshot = cache != null ? cache.get(key, CachedUser.class) : null;
+        if (snapshot == null) {
+            snapshot = CachedUser.from(loader.get());
+            if (cache != null) {
+                cache.put(key, snapshot);
+            }
+        }
+        return snapshot.toUser();
+    }
+
+    private void evictFromCache(UUID userId, String username) {
+        Cache byId = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+        if (byId != null) {
+            byId.evict(userId);
+        }
+        Cache byUsername = cacheManager.getCache(CacheConfig.USERS_BY_USERNAME);
+        if (byUsername != null) {
+            byUsername.evict(username);
         }
-        userRepository.deleteById(userId);
     }
 }
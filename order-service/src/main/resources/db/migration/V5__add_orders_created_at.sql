@@ -0,0 +1,6 @@
+-- Время создания заказа - ключ keyset-пагинации истории заказов (GET /api/orders)
+ALTER TABLE orders ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT now();
+
+-- Страница истории - диапазон одного индекса в порядке выдачи; по user_id он тоже работает
+CREATE INDEX idx_orders_user_created ON orders(user_id, created_at DESC, id DESC);
+DROP INDEX idx_orders_user_id;
@@ -0,0 +1,20 @@
+-- Ключи по умолчанию - UUID v7, как у TimeOrderedUuidGenerator в приложении: возрастающие ключи
+-- дописываются в правый край индекса вместо вставки в случайные страницы (gen_random_uuid, v4).
+-- В PostgreSQL 15 встроенной uuidv7() нет: берём случайный v4 и записываем поверх первых 6 байт
+-- миллисекунды Unix-времени, версию меняем с 4 на 7 (биты 52 и 53), вариант у v4 тот же.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE outbox_events ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,16 @@
+-- Цена позиции в копейках и скидка в сотых долях процента (15.50% = 1550) вместо DECIMAL:
+-- стоимость считается целочисленно (Money.lineTotal), BigDecimal остаётся только в JSON
+ALTER TABLE order_items
+    ADD COLUMN price_cents BIGINT,
+    ADD COLUMN discount_basis_points INTEGER NOT NULL DEFAULT 0
+        CHECK (discount_basis_points >= 0 AND discount_basis_points <= 10000);
+
+UPDATE order_items
+SET price_cents = round(price * 100),
+    discount_basis_points = round(coalesce(sale, 0) * 100);
+
+ALTER TABLE order_items
+    ALTER COLUMN price_cents SET NOT NULL,
+    ADD CONSTRAINT order_items_price_cents_check CHECK (price_cents >= 0),
+    DROP COLUMN price,
+    DROP COLUMN sale;
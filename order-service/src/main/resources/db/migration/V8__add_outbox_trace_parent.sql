@@ -0,0 +1,2 @@
+-- W3C traceparent запроса, записавшего событие: отправка из outbox продолжает его трассу
+ALTER TABLE outbox_events ADD COLUMN trace_parent VARCHAR(55);
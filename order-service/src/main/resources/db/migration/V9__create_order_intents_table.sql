@@ -0,0 +1,18 @@
+-- Заказы, принятые POST /api/orders/async: запрос хранится как есть (JSON CreateOrderRequest),
+-- пока пул OrderIntentProcessor не проверит наличие и не создаст заказ
+CREATE TABLE order_intents (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    order_id UUID REFERENCES orders(id) ON DELETE SET NULL,
+    error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at TIMESTAMP NOT NULL DEFAULT now(),
+
+    CONSTRAINT check_intent_status CHECK (status IN ('PENDING', 'PROCESSING', 'COMPLETED', 'REJECTED', 'FAILED'))
+);
+
+-- Очередь обработки: только незавершённые, в порядке поступления
+CREATE INDEX idx_order_intents_open ON order_intents(status, created_at) WHERE status IN ('PENDING', 'PROCESSING');
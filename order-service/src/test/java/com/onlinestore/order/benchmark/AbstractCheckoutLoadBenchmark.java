@@ -0,0 +1,126 @@
+package com.onlinestore.order.benchmark;
+
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.grpc.InventoryGrpcClient;
+import com.onlinestore.order.grpc.ProductAvailabilityResponse;
+import com.onlinestore.order.kafka.OrderKafkaProducer;
+import com.onlinestore.order.repository.UserRepository;
+import com.onlinestore.order.security.JwtService;
+import com.onlinestore.order.service.TransactionalOutboxService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * 2000 одновременных POST /api/orders через настоящий Tomcat.
+ * Inventory Service заменён заглушкой с фиксированной задержкой, Kafka и outbox - моками,
+ * поэтому результат показывает, сколько одновременных оформлений выдерживает модель потоков.
+ * Запуск: mvn test -Pbenchmark -Dtest='*CheckoutLoadBenchmark'
+ */
+@Tag("benchmark")
+abstract class AbstractCheckoutLoadBenchmark {
+
+    private static final int CONCURRENT_CHECKOUTS = 2000;
+    private static final int WARMUP_CHECKOUTS = 200;
+    private static final long INVENTORY_LATENCY_MS = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockBean
+    private InventoryGrpcClient inventoryClient;
+
+    @MockBean
+    private TransactionalOutboxService transactionalOutboxService;
+
+    @MockBean
+    private OrderKafkaProducer orderKafkaProducer;
+
+    protected abstract String threadingMode();
+
+    @Test
+    void concurrentCheckouts() throws Exception {
+        User user = userRepository.findByUsername("loaduser").orElseGet(() -> userRepository.save(
+                User.builder()
+                        .username("loaduser")
+                        .email("load@email.com")
+                        .password("encodedPass")
+                        .role(User.Role.ROLE_USER)
+                        .build()));
+        String token = jwtService.generateToken(user);
+
+        when(inventoryClient.checkAvailabilityOrThrow(anyList()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(INVENTORY_LATENCY_MS);
+                    List<?> items = invocation.getArgument(0);
+                    return items.stream()
+                            .map(item -> ProductAvailabilityResponse.newBuilder()
+                                    .setProductName("Load Product")
+                                    .setPriceCents(10_000)
+                                    .setAvailableQuantity(1_000_000)
+                                    .setIsAvailable(true)
+                                    .build())
+                            .toList();
+                });
+
+        String body = """
+                {"userId":"%s","items":[{"productId":"%s","quantity":1}]}
+                """.formatted(user.getId(), UUID.randomUUID());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+
+            fire(client, request, WARMUP_CHECKOUTS);
+
+            long start = System.nanoTime();
+            long created = fire(client, request, CONCURRENT_CHECKOUTS);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            System.out.printf("[%s] %d concurrent checkouts: %d created in %.2fs, %.0f orders/s%n",
+                    threadingMode(), CONCURRENT_CHECKOUTS, created, seconds, created / seconds);
+
+            assertThat(created).isPositive();
+        }
+    }
+
+    private long fire(HttpClient client, HttpRequest request, int count) {
+        List<CompletableFuture<Integer>> responses = IntStream.range(0, count)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenApply(HttpResponse::statusCode)
+                        .exceptionally(ex -> -1))
+                .toList();
+
+        return responses.stream()
+                .map(CompletableFuture::join)
+                .filter(status -> status == 201)
+                .count();
+    }
+}
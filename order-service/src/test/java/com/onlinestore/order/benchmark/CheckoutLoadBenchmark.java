@@ -0,0 +1,311 @@
+package com.onlinestore.order.benchmark;
+
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.grpc.FakeInventoryServer;
+import com.onlinestore.order.repository.UserRepository;
+import com.onlinestore.order.security.JwtService;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест оформления заказа без docker-compose: настоящий Tomcat, JWT, InventoryGrpcClient
+ * с hedging и circuit breaker, запись заказа и outbox, отправка в Kafka. Inventory Service -
+ * in-process FakeInventoryServer, Kafka - встроенный брокер, PostgreSQL - H2 в режиме PostgreSQL
+ * или, с -Dloadtest.postgres=true, настоящий PostgreSQL 15 в Testcontainers (нужен Docker).
+ *
+ * <p>Замкнутый цикл: каждый из loadtest.concurrency клиентов отправляет следующий заказ сразу
+ * после ответа на предыдущий. Поэтому задержки не учитывают время, которое запрос ждал бы в
+ * очереди при постоянном входящем потоке - для оценки ёмкости смотреть на пропускную способность
+ * при росте concurrency, пока p99 остаётся в пределах SLO.
+ *
+ * <p>Параметры (-D): loadtest.concurrency (64), loadtest.duration-seconds (30),
+ * loadtest.warmup-seconds (10), loadtest.cart-min / loadtest.cart-max - позиций в заказе (1 / 5),
+ * loadtest.products (1000), loadtest.zipf-exponent - перекос популярности товаров, 0 - равномерно (1.0),
+ * loadtest.users (100), loadtest.inventory-latency-ms - ответ Inventory Service (2),
+ * loadtest.log-level - уровень логов com.onlinestore.order (INFO), loadtest.log-sample-every (100).
+ * Полная гистограмма задержек (мс) - в target/loadtest-checkout.hgrm, итог прогона дописывается
+ * строкой в target/loadtest-checkout-runs.csv.
+ * Запуск: mvn test -Pbenchmark -Dtest=CheckoutLoadBenchmark -Dloadtest.concurrency=128
+ *
+ * <p>Цена логирования: тот же прогон с -Dloadtest.log-level=DEBUG -Dloadtest.log-sample-every=1
+ * (как профиль local) и с настройками по умолчанию, без mvn clean между ними - обе строки
+ * окажутся в loadtest-checkout-runs.csv.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "grpc.client.inventory-service.address=in-process:" + CheckoutLoadBenchmark.INVENTORY_SERVER,
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.datasource.url=jdbc:h2:mem:checkout-load;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "logging.level.com.onlinestore.order=${loadtest.log-level:INFO}",
+        "inventory-client.log-sample-every=${loadtest.log-sample-every:100}"
+})
+@EmbeddedKafka(partitions = 1, topics = "orders")
+@ActiveProfiles("test")
+class CheckoutLoadBenchmark {
+
+    static final String INVENTORY_SERVER = "checkout-load-benchmark";
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final long DURATION_SECONDS = Long.getLong("loadtest.duration-seconds", 30);
+    private static final long WARMUP_SECONDS = Long.getLong("loadtest.warmup-seconds", 10);
+    private static final int CART_MIN = Integer.getInteger("loadtest.cart-min", 1);
+    private static final int CART_MAX = Integer.getInteger("loadtest.cart-max", 5);
+    private static final int PRODUCTS = Integer.getInteger("loadtest.products", 1000);
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("loadtest.zipf-exponent", "1.0"));
+    private static final int USERS = Integer.getInteger("loadtest.users", 100);
+    private static final long INVENTORY_LATENCY_MS = Long.getLong("loadtest.inventory-latency-ms", 2);
+    private static final boolean REAL_POSTGRES = Boolean.getBoolean("loadtest.postgres");
+
+    private static FakeInventoryServer inventory;
+    private static PostgreSQLContainer<?> postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        if (!REAL_POSTGRES) {
+            return;
+        }
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @BeforeAll
+    static void startInventory() throws IOException {
+        inventory = new FakeInventoryServer(INVENTORY_SERVER);
+    }
+
+    @AfterAll
+    static void stopInfrastructure() throws InterruptedException {
+        inventory.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    void checkoutThroughputAndLatency() throws Exception {
+        List<UUID> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(UUID.randomUUID());
+        }
+        Map<String, LongAdder> checksByProduct = new ConcurrentHashMap<>();
+        inventory.setLatency(request -> {
+            checksByProduct.computeIfAbsent(request.getProductId(), id -> new LongAdder()).increment();
+            return INVENTORY_LATENCY_MS;
+        });
+
+        List<User> users = new ArrayList<>(USERS);
+        List<String> tokens = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            String username = "loaduser" + i;
+            User user = userRepository.findByUsername(username).orElseGet(() -> userRepository.save(
+                    User.builder()
+                            .username(username)
+                            .email(username + "@email.com")
+                            .password("encodedPass")
+                            .role(User.Role.ROLE_USER)
+                            .build()));
+            users.add(user);
+            tokens.add(jwtService.generateToken(user));
+        }
+
+        ZipfSampler popularity = new ZipfSampler(PRODUCTS, ZIPF_EXPONENT);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+
+        Histogram latencies = new Histogram(3);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder().executor(clients).build();
+            List<Future<Histogram>> results = new ArrayList<>(CONCURRENCY);
+            for (int c = 0; c < CONCURRENCY; c++) {
+                SplittableRandom random = new SplittableRandom(c);
+                results.add(clients.submit(() -> {
+                    Histogram clientLatencies = new Histogram(3);
+                    while (System.nanoTime() < measureUntil) {
+                        int u = random.nextInt(USERS);
+                        HttpRequest request = checkout(users.get(u), tokens.get(u),
+                                cart(products, popularity, random));
+
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        long end = System.nanoTime();
+
+                        if (start >= measureFrom && end <= measureUntil) {
+                            clientLatencies.recordValue(TimeUnit.NANOSECONDS.toMicros(end - start));
+                            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                        }
+                    }
+                    return clientLatencies;
+                }));
+            }
+            for (Future<Histogram> result : results) {
+                latencies.add(result.get());
+            }
+        }
+
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        long created = statusCounts.getOrDefault(201, 0L);
+
+        System.out.printf("Checkout load: %d clients, %d-%d items per order, %d products (Zipf s=%.2f),"
+                        + " %s, log level %s, %ds measured after %ds warmup%n",
+                CONCURRENCY, CART_MIN, CART_MAX, PRODUCTS, ZIPF_EXPONENT,
+                REAL_POSTGRES ? "PostgreSQL" : "H2", System.getProperty("loadtest.log-level", "INFO"),
+                DURATION_SECONDS, WARMUP_SECONDS);
+        System.out.printf("  throughput: %.1f orders/s, responses by status: %s%n",
+                (double) created / DURATION_SECONDS, statusCounts);
+        System.out.printf("  latency: p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+        System.out.printf("  availability checks to the top 1%% of products: %.1f%%%n",
+                topShare(checksByProduct, Math.max(1, PRODUCTS / 100)) * 100);
+
+        Path report = Path.of("target", "loadtest-checkout.hgrm");
+        Files.createDirectories(report.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report))) {
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+
+        // Строка на прогон: прогоны с разными настройками логов сравниваются в одном файле
+        Path runs = Path.of("target", "loadtest-checkout-runs.csv");
+        boolean newFile = Files.notExists(runs);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(runs,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (newFile) {
+                out.println("log_level,log_sample_every,clients,database,orders_per_second,p50_ms,p99_ms,p99_9_ms");
+            }
+            out.printf(Locale.ROOT, "%s,%s,%d,%s,%.1f,%.2f,%.2f,%.2f%n",
+                    System.getProperty("loadtest.log-level", "INFO"),
+                    System.getProperty("loadtest.log-sample-every", "100"),
+                    CONCURRENCY, REAL_POSTGRES ? "PostgreSQL" : "H2",
+                    (double) created / DURATION_SECONDS,
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)));
+        }
+
+        assertThat(created).isPositive();
+    }
+
+    private HttpRequest checkout(User user, String token, Set<UUID> cart) {
+        StringBuilder body = new StringBuilder("{\"userId\":\"").append(user.getId()).append("\",\"items\":[");
+        for (UUID productId : cart) {
+            if (body.charAt(body.length() - 1) == '}') {
+                body.append(',');
+            }
+            body.append("{\"productId\":\"").append(productId).append("\",\"quantity\":1}");
+        }
+        body.append("]}");
+
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    /** Разные товары корзины, каждый выбран с учётом популярности. */
+    private static Set<UUID> cart(List<UUID> products, ZipfSampler popularity, SplittableRandom random) {
+        int size = Math.min(CART_MIN + random.nextInt(CART_MAX - CART_MIN + 1), products.size());
+        Set<UUID> cart = new LinkedHashSet<>(size);
+        while (cart.size() < size) {
+            cart.add(products.get(popularity.next(random)));
+        }
+        return cart;
+    }
+
+    private static double topShare(Map<String, LongAdder> checksByProduct, int top) {
+        long[] counts = checksByProduct.values().stream().mapToLong(LongAdder::sum).sorted().toArray();
+        long total = Arrays.stream(counts).sum();
+        long hottest = Arrays.stream(counts, Math.max(0, counts.length - top), counts.length).sum();
+        return total == 0 ? 0 : (double) hottest / total;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Номер товара 0..n-1 с вероятностью, пропорциональной 1 / (номер + 1)^exponent: немного
+     * популярных товаров и длинный хвост. exponent = 0 - все товары равновероятны.
+     */
+    static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1 / Math.pow(k + 1, exponent);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.onlinestore.order.benchmark;
+
+import com.onlinestore.order.config.InventoryGrpcClientConfig;
+import com.onlinestore.order.grpc.FakeInventoryServer;
+import com.onlinestore.order.grpc.InventoryServiceGrpc;
+import com.onlinestore.order.grpc.ProductAvailabilityRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * p50/p99 CheckAvailability с hedging и без на in-process сервере,
+ * где 5% ответов "застревают" (GC-пауза, медленная реплика).
+ * Запуск: mvn test -Pbenchmark -Dtest=InventoryHedgingLatencyBenchmark
+ */
+@Tag("benchmark")
+class InventoryHedgingLatencyBenchmark {
+
+    private static final int CALLS = 2_000;
+    private static final double SLOW_RATIO = 0.05;
+    private static final long FAST_MILLIS = 2;
+    private static final long SLOW_MILLIS = 300;
+    private static final Duration CALL_DEADLINE = Duration.ofSeconds(1);
+
+    @Test
+    void hedgingCutsTailLatency() throws Exception {
+        try (FakeInventoryServer server = new FakeInventoryServer()) {
+            server.setLatency(request ->
+                    ThreadLocalRandom.current().nextDouble() < SLOW_RATIO ? SLOW_MILLIS : FAST_MILLIS);
+
+            long[] plain = measure(server, InventoryGrpcClientConfig.serviceConfig(CALL_DEADLINE, 3, null));
+            long[] hedged = measure(server,
+                    InventoryGrpcClientConfig.serviceConfig(CALL_DEADLINE, 3, Duration.ofMillis(20)));
+
+            System.out.printf("CheckAvailability without hedging: p50=%.1fms p99=%.1fms%n",
+                    millis(percentile(plain, 0.50)), millis(percentile(plain, 0.99)));
+            System.out.printf("CheckAvailability with hedging:    p50=%.1fms p99=%.1fms%n",
+                    millis(percentile(hedged, 0.50)), millis(percentile(hedged, 0.99)));
+
+            assertThat(percentile(hedged, 0.99)).isLessThan(percentile(plain, 0.99));
+        }
+    }
+
+    private static long[] measure(FakeInventoryServer server, Map<String, ?> serviceConfig) {
+        InventoryServiceGrpc.InventoryServiceBlockingStub stub =
+                InventoryServiceGrpc.newBlockingStub(server.channel(serviceConfig));
+        ProductAvailabilityRequest request = ProductAvailabilityRequest.newBuilder()
+                .setProductId(UUID.randomUUID().toString())
+                .setRequestedQuantity(1)
+                .build();
+
+        long[] latencies = new long[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            long start = System.nanoTime();
+            stub.withDeadlineAfter(CALL_DEADLINE.toMillis(), TimeUnit.MILLISECONDS).checkAvailability(request);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
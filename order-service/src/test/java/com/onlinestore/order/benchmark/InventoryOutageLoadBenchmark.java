@@ -0,0 +1,158 @@
+package com.onlinestore.order.benchmark;
+
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.grpc.FakeInventoryServer;
+import com.onlinestore.order.kafka.OrderKafkaProducer;
+import com.onlinestore.order.repository.UserRepository;
+import com.onlinestore.order.security.JwtService;
+import com.onlinestore.order.service.TransactionalOutboxService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inventory Service "завис" (отвечает через минуту), на order-service идёт поток оформлений заказов.
+ * Bulkhead ограничивает число потоков Tomcat, ждущих inventory, circuit breaker после серии ошибок
+ * отвечает 503 сразу - поэтому /api/users/me продолжает отвечать быстро.
+ * Запуск: mvn test -Pbenchmark -Dtest=InventoryOutageLoadBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "grpc.client.inventory-service.address=in-process:" + InventoryOutageLoadBenchmark.INVENTORY_SERVER,
+        "server.tomcat.threads.max=50",
+        "resilience4j.bulkhead.instances.inventory.max-concurrent-calls=20"
+})
+@ActiveProfiles("test")
+class InventoryOutageLoadBenchmark {
+
+    static final String INVENTORY_SERVER = "inventory-outage-benchmark";
+
+    private static final int CONCURRENT_CHECKOUTS = 1000;
+    private static final int PROFILE_REQUESTS = 200;
+    private static final long INVENTORY_HANG_MS = 60_000;
+
+    private static FakeInventoryServer inventory;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private CircuitBreaker inventoryCircuitBreaker;
+
+    @MockBean
+    private TransactionalOutboxService transactionalOutboxService;
+
+    @MockBean
+    private OrderKafkaProducer orderKafkaProducer;
+
+    @BeforeAll
+    static void startInventory() throws IOException {
+        inventory = new FakeInventoryServer(INVENTORY_SERVER);
+    }
+
+    @AfterAll
+    static void stopInventory() throws InterruptedException {
+        inventory.close();
+    }
+
+    @Test
+    void staysResponsiveDuringInventoryOutage() throws Exception {
+        User user = userRepository.findByUsername("outageuser").orElseGet(() -> userRepository.save(
+                User.builder()
+                        .username("outageuser")
+                        .email("outage@email.com")
+                        .password("encodedPass")
+                        .role(User.Role.ROLE_USER)
+                        .build()));
+        String token = jwtService.generateToken(user);
+        inventory.setLatency(request -> INVENTORY_HANG_MS);
+
+        String body = """
+                {"userId":"%s","items":[{"productId":"%s","quantity":1}]}
+                """.formatted(user.getId(), UUID.randomUUID());
+        HttpRequest checkout = HttpRequest.newBuilder(uri("/api/orders"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpRequest profile = HttpRequest.newBuilder(uri("/api/users/me"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+
+            List<CompletableFuture<Integer>> checkouts = IntStream.range(0, CONCURRENT_CHECKOUTS)
+                    .mapToObj(i -> client.sendAsync(checkout, HttpResponse.BodyHandlers.discarding())
+                            .thenApply(HttpResponse::statusCode)
+                            .exceptionally(ex -> -1))
+                    .toList();
+
+            long[] profileLatencies = new long[PROFILE_REQUESTS];
+            for (int i = 0; i < PROFILE_REQUESTS; i++) {
+                long start = System.nanoTime();
+                HttpResponse<Void> response = client.send(profile, HttpResponse.BodyHandlers.discarding());
+                profileLatencies[i] = System.nanoTime() - start;
+                assertThat(response.statusCode()).isEqualTo(200);
+            }
+            Arrays.sort(profileLatencies);
+
+            Map<Integer, Long> checkoutStatuses = checkouts.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+            System.out.printf("Checkouts during outage by status: %s, inventory calls: %d, circuit: %s%n",
+                    checkoutStatuses, inventory.getCalls(), inventoryCircuitBreaker.getState());
+            System.out.printf("/api/users/me during outage: p50=%.1fms p99=%.1fms%n",
+                    millis(percentile(profileLatencies, 0.50)), millis(percentile(profileLatencies, 0.99)));
+
+            assertThat(checkoutStatuses).containsKey(503);
+            assertThat(inventory.getCalls()).isLessThan(CONCURRENT_CHECKOUTS);
+            assertThat(millis(percentile(profileLatencies, 0.99))).isLessThan(1_000);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.onlinestore.order.benchmark;
+
+import com.onlinestore.order.security.JwtService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JwtService на каждом аутентифицированном запросе: JwtAuthenticationFilter вызывает
+ * extractUsername, затем isTokenValid, и каждый вызов заново разбирает токен и проверяет
+ * HMAC-подпись. filterPath показывает их суммарную цену, extractUsername - один разбор.
+ * Результаты - в target/jmh-jwt-service.json.
+ * Запуск: mvn test -Pbenchmark -Dtest=JwtServiceBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    // Как jwt.secret в application.yml
+    private static final String SECRET = "your-256-bit-secret-change-this-in-production-minimum-32-chars";
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", TimeUnit.HOURS.toMillis(24));
+
+        user = User.withUsername("benchuser")
+                .password("encodedPass")
+                .authorities("ROLE_USER")
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    /** Выдача токена при логине и регистрации. */
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    /** Всё, что JwtAuthenticationFilter делает с токеном, кроме загрузки пользователя. */
+    @Benchmark
+    public boolean filterPath() {
+        return jwtService.extractUsername(token) != null && jwtService.isTokenValid(token, user);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(JwtServiceBenchmark.class.getName())
+                        .addProfiler(GCProfiler.class)
+                        .resultFormat(ResultFormatType.JSON)
+                        .result("target/jmh-jwt-service.json")
+                        .build())
+                .run();
+    }
+
+    @Test
+    void filterPathAcceptsIssuedToken() {
+        setUp();
+
+        assertThat(extractUsername()).isEqualTo("benchuser");
+        assertThat(filterPath()).isTrue();
+    }
+}
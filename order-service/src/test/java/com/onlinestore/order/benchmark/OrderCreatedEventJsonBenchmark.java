@@ -0,0 +1,121 @@
+package com.onlinestore.order.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.order.entity.Order;
+import com.onlinestore.order.entity.OrderItem;
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.entity.UuidV7;
+import com.onlinestore.order.kafka.OrderCreatedEvent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OrderCreatedEvent в JSON на пути outbox -> Kafka: запись payload в outbox при создании заказа,
+ * чтение его планировщиком и сериализация JsonSerializer при отправке в топик orders.
+ * ObjectMapper собран как в Spring Boot, у JsonSerializer - собственный, как в приложении.
+ * Результаты - в target/jmh-order-created-event-json.json.
+ * Запуск: mvn test -Pbenchmark -Dtest=OrderCreatedEventJsonBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderCreatedEventJsonBenchmark {
+
+    @Param({"1", "20"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private JsonSerializer<OrderCreatedEvent> kafkaSerializer;
+    private OrderCreatedEvent event;
+    private String payload;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        kafkaSerializer = new JsonSerializer<>();
+
+        Random random = new Random(42);
+        Order order = Order.builder()
+                .id(UuidV7.next())
+                .user(User.builder().id(UuidV7.next()).build())
+                .build();
+        for (int i = 0; i < items; i++) {
+            order.addItem(OrderItem.builder()
+                    .productId(UuidV7.next())
+                    .productName("Product " + i)
+                    .quantity(1 + random.nextInt(5))
+                    .priceCents(100 + random.nextInt(500_000))
+                    .discountBasisPoints(random.nextInt(4) == 0 ? random.nextInt(5_000) : 0)
+                    .build());
+        }
+        event = OrderCreatedEvent.from(order);
+        payload = objectMapper.writeValueAsString(event);
+    }
+
+    /** TransactionalOutboxService.saveOrderCreatedEvent - в транзакции создания заказа. */
+    @Benchmark
+    public String outboxWrite() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    /** TransactionalOutboxService.sendEventToKafka - payload из outbox обратно в событие. */
+    @Benchmark
+    public OrderCreatedEvent outboxRead() throws JsonProcessingException {
+        return objectMapper.readValue(payload, OrderCreatedEvent.class);
+    }
+
+    /** Тело сообщения Kafka. */
+    @Benchmark
+    public byte[] kafkaSerialize() {
+        return kafkaSerializer.serialize("orders", event);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(OrderCreatedEventJsonBenchmark.class.getName())
+                        .addProfiler(GCProfiler.class)
+                        .resultFormat(ResultFormatType.JSON)
+                        .result("target/jmh-order-created-event-json.json")
+                        .build())
+                .run();
+    }
+
+    @Test
+    void outboxPayloadRoundTrips() throws JsonProcessingException {
+        items = 20;
+        setUp();
+
+        assertThat(outboxRead()).isEqualTo(event);
+        assertThat(kafkaSerialize()).isNotEmpty();
+    }
+}
@@ -0,0 +1,204 @@
+package com.onlinestore.order.benchmark;
+
+import com.onlinestore.order.entity.Order;
+import com.onlinestore.order.entity.OrderItem;
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.repository.OrderRepository;
+import com.onlinestore.order.repository.UserRepository;
+import com.onlinestore.order.service.OrderIntentProcessor;
+import com.onlinestore.order.service.TransactionalOutboxService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Обращения к БД при сохранении заказа с N позициями: по одному INSERT на строку
+ * (batch_size=1) и пачками из application.yml. Каждый execute/executeBatch считается одним
+ * обращением - так их видит PostgreSQL с reWriteBatchedInserts. H2 в режиме PostgreSQL,
+ * поэтому время на заказ показывает только накладные расходы Hibernate и JDBC, без сети.
+ * Запуск: mvn test -Pbenchmark -Dtest=OrderInsertBatchingBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:batching;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class OrderInsertBatchingBenchmark {
+
+    private static final int MEASURED_ORDERS = 500;
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch");
+    private static final AtomicLong ROUND_TRIPS = new AtomicLong();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Без опроса outbox и order_intents по расписанию: их запросы попали бы в счётчик
+    @MockBean
+    private TransactionalOutboxService transactionalOutboxService;
+
+    @MockBean
+    private OrderIntentProcessor orderIntentProcessor;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("batchuser").orElseGet(() -> userRepository.save(
+                User.builder()
+                        .username("batchuser")
+                        .email("batch@email.com")
+                        .password("encodedPass")
+                        .role(User.Role.ROLE_USER)
+                        .build()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20, 50})
+    void roundTripsPerOrder(int items) {
+        long unbatched = roundTrips(items, 1);
+        long batched = roundTrips(items, null);
+
+        double unbatchedMs = millisPerOrder(items, 1);
+        double batchedMs = millisPerOrder(items, null);
+
+        System.out.printf("Order with %d items: %d round trips unbatched (%.3f ms/order),"
+                        + " %d round trips batched (%.3f ms/order)%n",
+                items, unbatched, unbatchedMs, batched, batchedMs);
+
+        assertThat(unbatched).isEqualTo(1 + items);
+        assertThat(batched).isEqualTo(2);
+    }
+
+    /** Обращения к БД за flush одного заказа; batchSize null - значение из конфигурации. */
+    private long roundTrips(int items, Integer batchSize) {
+        return transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            long before = ROUND_TRIPS.get();
+            orderRepository.save(order(items));
+            entityManager.flush();
+            return ROUND_TRIPS.get() - before;
+        });
+    }
+
+    private double millisPerOrder(int items, Integer batchSize) {
+        for (int i = 0; i < MEASURED_ORDERS / 5; i++) {
+            roundTrips(items, batchSize);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            roundTrips(items, batchSize);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ORDERS;
+    }
+
+    private Order order(int items) {
+        Order order = Order.builder().user(user).build();
+        for (int i = 0; i < items; i++) {
+            order.addItem(OrderItem.builder()
+                    .productId(UUID.randomUUID())
+                    .productName("Product " + i)
+                    .quantity(1 + i % 3)
+                    .priceCents(19_999)
+                    .build());
+        }
+        return order;
+    }
+
+    @TestConfiguration
+    static class RoundTripCountingConfig {
+
+        @Bean
+        static BeanPostProcessor roundTripCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /** Оборачивает соединения так, что каждый execute* любого Statement увеличивает ROUND_TRIPS. */
+    private static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection connection) {
+            return proxy(Connection.class, connection, result ->
+                    result instanceof Statement statement
+                            ? proxy(statementInterface(statement), statement, null)
+                            : result);
+        }
+
+        private static Class<?> statementInterface(Statement statement) {
+            if (statement instanceof CallableStatement) {
+                return CallableStatement.class;
+            }
+            return statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<?> type, Object target, UnaryOperator<Object> results) {
+            return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (EXECUTE_METHODS.contains(method.getName())) {
+                    ROUND_TRIPS.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return results != null ? results.apply(result) : result;
+            });
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.onlinestore.order.benchmark;
+
+import com.onlinestore.order.entity.Money;
+import com.onlinestore.order.entity.Order;
+import com.onlinestore.order.entity.OrderItem;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Итог заказа из 100 позиций: прежний расчёт на BigDecimal (price * (1 - sale / 100) * quantity
+ * по каждой позиции) и Money.lineTotal в копейках. GCProfiler показывает выделение памяти на
+ * операцию (gc.alloc.rate.norm). Результаты - в target/jmh-order-total.json.
+ * Запуск: mvn test -Pbenchmark -Dtest=OrderTotalBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({"100"})
+    public int items;
+
+    private Order order;
+    private BigDecimal[] prices;
+    private BigDecimal[] sales;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        order = Order.builder().build();
+        prices = new BigDecimal[items];
+        sales = new BigDecimal[items];
+        quantities = new int[items];
+        for (int i = 0; i < items; i++) {
+            long priceCents = 100 + random.nextInt(500_000);
+            int discountBasisPoints = random.nextInt(4) == 0 ? random.nextInt(5_000) : 0;
+            int quantity = 1 + random.nextInt(5);
+            order.addItem(OrderItem.builder()
+                    .productId(UUID.randomUUID())
+                    .productName("Product " + i)
+                    .quantity(quantity)
+                    .priceCents(priceCents)
+                    .discountBasisPoints(discountBasisPoints)
+                    .build());
+            prices[i] = Money.toDecimal(priceCents);
+            sales[i] = Money.toPercent(discountBasisPoints);
+            quantities[i] = quantity;
+        }
+    }
+
+    /** Как OrderItem.getTotalPrice и Order.calculateTotalPrice до перехода на копейки. */
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < items; i++) {
+            BigDecimal priceWithDiscount = prices[i]
+                    .multiply(BigDecimal.ONE.subtract(sales[i].divide(BigDecimal.valueOf(100))));
+            total = total.add(priceWithDiscount.multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long cents() {
+        return order.calculateTotalCents();
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(OrderTotalBenchmark.class.getName())
+                        .addProfiler(GCProfiler.class)
+                        .resultFormat(ResultFormatType.JSON)
+                        .result("target/jmh-order-total.json")
+                        .build())
+                .run();
+    }
+
+    @Test
+    void totalsAgreeWithinRoundingOfEachItem() {
+        items = 100;
+        setUp();
+        // Прежний расчёт округлял только итог, Money - каждую позицию: до полкопейки на позицию
+        assertThat(Math.abs(Money.toCents(bigDecimal()) - cents())).isLessThanOrEqualTo(items / 2);
+    }
+}
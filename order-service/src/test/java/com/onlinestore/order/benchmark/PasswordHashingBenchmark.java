@@ -0,0 +1,72 @@
+package com.onlinestore.order.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пропускная способность BCrypt (хэшей в секунду на ядро) для выбора
+ * security.password.bcrypt-strength и security.password.hashing.pool-size.
+ * Запуск: mvn test -Pbenchmark -Dtest=PasswordHashingBenchmark
+ */
+@Tag("benchmark")
+class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "password123";
+    private static final int WARMUP_HASHES = 5;
+    private static final int MEASURED_HASHES_PER_THREAD = 20;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 11, 12})
+    void bcryptHashesPerSecondPerCore(int strength) throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String encoded = encoder.encode(PASSWORD);
+        for (int i = 0; i < WARMUP_HASHES; i++) {
+            encoder.matches(PASSWORD, encoded);
+        }
+
+        // Один поток
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_HASHES_PER_THREAD; i++) {
+            assertThat(encoder.matches(PASSWORD, encoded)).isTrue();
+        }
+        double singleThreadRate = MEASURED_HASHES_PER_THREAD / seconds(start);
+
+        // Все ядра
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(cores);
+        try {
+            start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < cores; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < MEASURED_HASHES_PER_THREAD; i++) {
+                        encoder.matches(PASSWORD, encoded);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double allCoresRate = (double) cores * MEASURED_HASHES_PER_THREAD / seconds(start);
+
+        System.out.printf("BCrypt strength=%d: %.1f hashes/s (1 thread), %.1f hashes/s (%d threads), %.1f hashes/s per core%n",
+                strength, singleThreadRate, allCoresRate, cores, allCoresRate / cores);
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.onlinestore.order.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=false",
+        "orders.db.pool-size=500"
+})
+@ActiveProfiles("test")
+class PlatformThreadCheckoutLoadBenchmark extends AbstractCheckoutLoadBenchmark {
+
+    @Override
+    protected String threadingMode() {
+        return "platform threads";
+    }
+}
@@ -0,0 +1,117 @@
+package com.onlinestore.order.benchmark;
+
+import com.onlinestore.order.entity.UuidV7;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Вставка в таблицу с первичным ключом UUID v4 (случайный) и v7 (упорядоченный по времени) в
+ * PostgreSQL 15: строк в секунду по отрезкам (падение скорости по мере роста индекса), размер
+ * таблицы и индекса первичного ключа после -Dbenchmark.rows строк (по умолчанию 10M).
+ * Запуск: mvn test -Pbenchmark -Dtest=UuidKeyInsertBenchmark (нужен Docker)
+ */
+@Tag("benchmark")
+class UuidKeyInsertBenchmark {
+
+    private static final long ROWS = Long.getLong("benchmark.rows", 10_000_000L);
+    private static final int BATCH_SIZE = 1_000;
+    private static final int SEGMENTS = 10;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static HikariDataSource dataSource;
+
+    @BeforeAll
+    static void setUp() {
+        // shared_buffers меньше индекса на 10M строк: v4 начинает читать страницы с диска
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                .withCommand("postgres", "-c", "shared_buffers=256MB", "-c", "synchronous_commit=off");
+        postgres.start();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"v4", "v7"})
+    void insertThroughputAndIndexSize(String version) throws Exception {
+        Supplier<UUID> keys = "v7".equals(version) ? UuidV7::next : UUID::randomUUID;
+        String table = "orders_" + version;
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        // Как orders: ключ и пара полей фиксированной длины
+        jdbcTemplate.execute("CREATE TABLE " + table + " ("
+                + " id UUID PRIMARY KEY,"
+                + " user_id UUID NOT NULL,"
+                + " created_at TIMESTAMP NOT NULL DEFAULT now())");
+
+        UUID userId = UUID.randomUUID();
+        long segmentRows = ROWS / SEGMENTS;
+        StringBuilder segments = new StringBuilder();
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO " + table + " (id, user_id) VALUES (?, ?)")) {
+            connection.setAutoCommit(false);
+            long segmentStart = start;
+            for (long row = 1; row <= ROWS; row++) {
+                insert.setObject(1, keys.get());
+                insert.setObject(2, userId);
+                insert.addBatch();
+                if (row % BATCH_SIZE == 0 || row == ROWS) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (row % segmentRows == 0) {
+                    long now = System.nanoTime();
+                    segments.append(String.format(" %.0f", segmentRows / seconds(segmentStart, now)));
+                    segmentStart = now;
+                }
+            }
+        }
+        double elapsed = seconds(start, System.nanoTime());
+
+        long tableBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(?::regclass)", Long.class, table);
+        long indexBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(?::regclass)", Long.class, table + "_pkey");
+        long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+
+        System.out.printf("UUID %s: %,d rows in %.1f s, %.0f rows/s; rows/s per %,d rows:%s;"
+                        + " table %.1f MB, primary key index %.1f MB%n",
+                version, count, elapsed, count / elapsed, segmentRows, segments,
+                tableBytes / (1024.0 * 1024), indexBytes / (1024.0 * 1024));
+
+        assertThat(count).isEqualTo(ROWS);
+        jdbcTemplate.execute("DROP TABLE " + table);
+    }
+
+    private static double seconds(long startNanos, long endNanos) {
+        return (endNanos - startNanos) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.onlinestore.order.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "orders.db.pool-size=500"
+})
+@ActiveProfiles("test")
+class VirtualThreadCheckoutLoadBenchmark extends AbstractCheckoutLoadBenchmark {
+
+    @Override
+    protected String threadingMode() {
+        return "virtual threads";
+    }
+}
@@ -0,0 +1,42 @@
+package com.onlinestore.order.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DataSourcePoolConfigTest {
+
+    @Test
+    void poolSize_WhenNotConfigured_IsDerivedFromConcurrency() {
+        int required = DataSourcePoolConfig.requiredPoolSize(16, 10, 2);
+
+        assertThat(DataSourcePoolConfig.poolSize(0, required)).isEqualTo(28);
+    }
+
+    @Test
+    void poolSize_WhenConfiguredLarger_UsesConfigured() {
+        assertThat(DataSourcePoolConfig.poolSize(500, 28)).isEqualTo(500);
+    }
+
+    @Test
+    void poolSize_WhenConfiguredSmaller_FailsStartup() {
+        assertThatThrownBy(() -> DataSourcePoolConfig.poolSize(20, 28))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("DB_POOL_SIZE");
+    }
+
+    @Test
+    void requireSameMaximum_WhenHikariMaximumDisagrees_FailsStartup() {
+        assertThatThrownBy(() -> DataSourcePoolConfig.requireSameMaximum(500, 28))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("orders.db.pool-size");
+    }
+
+    @Test
+    void requireSameMaximum_WhenHikariMaximumUnsetOrEqual_Passes() {
+        assertThatCode(() -> DataSourcePoolConfig.requireSameMaximum(null, 28)).doesNotThrowAnyException();
+        assertThatCode(() -> DataSourcePoolConfig.requireSameMaximum(28, 28)).doesNotThrowAnyException();
+    }
+}
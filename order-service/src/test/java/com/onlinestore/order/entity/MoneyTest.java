@@ -0,0 +1,50 @@
+package com.onlinestore.order.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void lineTotal_shouldApplyDiscountAndRoundHalfUpToCent() {
+        assertThat(Money.lineTotal(100_000, 1_000, 2)).isEqualTo(180_000);
+        // 2 x 1299.99 x 0.845 = 2196.9831
+        assertThat(Money.lineTotal(129_999, 1_550, 2)).isEqualTo(219_698);
+        // 0.01 x 0.5 = 0.005 -> 0.01
+        assertThat(Money.lineTotal(1, 5_000, 1)).isEqualTo(1);
+        assertThat(Money.lineTotal(9_999, 0, 3)).isEqualTo(29_997);
+        assertThat(Money.lineTotal(9_999, Money.FULL_BASIS_POINTS, 3)).isZero();
+    }
+
+    @Test
+    void lineTotal_shouldMatchBigDecimalCalculation() {
+        for (long cents = 0; cents < 20_000; cents += 37) {
+            for (int basisPoints = 0; basisPoints <= 10_000; basisPoints += 333) {
+                BigDecimal expected = Money.toDecimal(cents)
+                        .multiply(BigDecimal.ONE.subtract(Money.toPercent(basisPoints).movePointLeft(2)))
+                        .multiply(BigDecimal.valueOf(7));
+                assertThat(Money.lineTotal(cents, basisPoints, 7)).isEqualTo(Money.toCents(expected));
+            }
+        }
+    }
+
+    @Test
+    void lineTotal_shouldFailOnOverflow() {
+        assertThatThrownBy(() -> Money.lineTotal(Long.MAX_VALUE / 100, 0, 1_000))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void conversions_shouldKeepTwoDecimalPlaces() {
+        assertThat(Money.toCents(new BigDecimal("1299.99"))).isEqualTo(129_999);
+        assertThat(Money.toCents(1299.99)).isEqualTo(129_999);
+        assertThat(Money.toBasisPoints(new BigDecimal("15.5"))).isEqualTo(1_550);
+        assertThat(Money.toBasisPoints(15.5)).isEqualTo(1_550);
+        assertThat(Money.toDecimal(129_999)).isEqualTo(new BigDecimal("1299.99"));
+        assertThat(Money.toPercent(1_550)).isEqualTo(new BigDecimal("15.50"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.onlinestore.order.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-process Inventory Service для тестов gRPC-клиента.
+ * Задержка ответа задаётся функцией от запроса и выдерживается через планировщик,
+ * а не sleep - hedged-попытки и отменённые вызовы не занимают потоки сервера.
+ */
+public class FakeInventoryServer implements AutoCloseable {
+
+    private final String name;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+    private final List<ManagedChannel> channels = new CopyOnWriteArrayList<>();
+    private final Set<String> unavailableProducts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger cancelledCalls = new AtomicInteger();
+    private final Set<ServerCallStreamObserver<ProductChangeEvent>> watchers = ConcurrentHashMap.newKeySet();
+    private final List<ProductChangeEvent> changeLog = new CopyOnWriteArrayList<>();
+    private final List<Long> watchFromSequences = new CopyOnWriteArrayList<>();
+    private final Server server;
+
+    private volatile ToLongFunction<ProductAvailabilityRequest> latencyMillis = request -> 0;
+    private volatile Status failure;
+
+    public FakeInventoryServer() throws IOException {
+        this(InProcessServerBuilder.generateName());
+    }
+
+    /**
+     * @param name имя in-process сервера, для Spring-контекста - адрес in-process:&lt;name&gt;
+     */
+    public FakeInventoryServer(String name) throws IOException {
+        this.name = name;
+        this.server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new InventoryServiceGrpc.InventoryServiceImplBase() {
+                    @Override
+                    public void checkAvailability(ProductAvailabilityRequest request,
+                                                  StreamObserver<ProductAvailabilityResponse> responseObserver) {
+                        handle(request, (ServerCallStreamObserver<ProductAvailabilityResponse>) responseObserver);
+                    }
+
+                    @Override
+                    public void watchProducts(WatchProductsRequest request,
+                                              StreamObserver<ProductChangeEvent> responseObserver) {
+                        ServerCallStreamObserver<ProductChangeEvent> watcher =
+                                (ServerCallStreamObserver<ProductChangeEvent>) responseObserver;
+                        watcher.setOnCancelHandler(() -> watchers.remove(watcher));
+                        watchFromSequences.add(request.getFromSequence());
+                        changeLog.stream()
+                                .filter(event -> request.getFromSequence() > 0
+                                        && event.getSequence() > request.getFromSequence())
+                                .forEach(watcher::onNext);
+                        watchers.add(watcher);
+                    }
+                })
+                .build()
+                .start();
+    }
+
+    public void setLatency(ToLongFunction<ProductAvailabilityRequest> latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    // null - сервер снова отвечает успешно
+    public void setFailure(Status failure) {
+        this.failure = failure;
+    }
+
+    public void markUnavailable(String productId) {
+        unavailableProducts.add(productId);
+    }
+
+    public int getWatcherCount() {
+        return watchers.size();
+    }
+
+    /**
+     * Записывает изменение в журнал и рассылает подключённым WatchProducts.
+     * Переподключившийся с from_sequence клиент получит пропущенные события из журнала.
+     */
+    public synchronized void publishChange(UUID productId, ProductChangeEvent.Type type, long priceCents) {
+        ProductChangeEvent event = ProductChangeEvent.newBuilder()
+                .setSequence(changeLog.size() + 1)
+                .setProductId(productId.toString())
+                .setType(type)
+                .setName("Product " + productId)
+                .setPriceCents(priceCents)
+                .build();
+        changeLog.add(event);
+        watchers.forEach(watcher -> watcher.onNext(event));
+    }
+
+    /**
+     * Рассылает подключённым событие с уже выданным sequence, не записывая его в журнал:
+     * так приходит изменение транзакции, закоммиченной позже транзакций с большими sequence.
+     */
+    public void deliverLate(ProductChangeEvent event) {
+        watchers.forEach(watcher -> watcher.onNext(event));
+    }
+
+    // from_sequence всех подписок WatchProducts по порядку
+    public List<Long> getWatchFromSequences() {
+        return watchFromSequences;
+    }
+
+    // Обрыв всех потоков WatchProducts со стороны сервера
+    public void dropWatchers(Status status) {
+        watchers.forEach(watcher -> watcher.onError(status.asRuntimeException()));
+        watchers.clear();
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    public int getCancelledCalls() {
+        return cancelledCalls.get();
+    }
+
+    /**
+     * @param serviceConfig service config канала (retry/hedging), null - без него
+     */
+    public ManagedChannel channel(Map<String, ?> serviceConfig) {
+        InProcessChannelBuilder builder = InProcessChannelBuilder.forName(name).directExecutor();
+        if (serviceConfig != null) {
+            builder.defaultServiceConfig(serviceConfig).enableRetry();
+        }
+        ManagedChannel channel = builder.build();
+        channels.add(channel);
+        return channel;
+    }
+
+    private void handle(ProductAvailabilityRequest request,
+                        ServerCallStreamObserver<ProductAvailabilityResponse> responseObserver) {
+        calls.incrementAndGet();
+        responseObserver.setOnCancelHandler(cancelledCalls::incrementAndGet);
+
+        long delay = latencyMillis.applyAsLong(request);
+        scheduler.schedule(() -> respond(request, responseObserver), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void respond(ProductAvailabilityRequest request,
+                         ServerCallStreamObserver<ProductAvailabilityResponse> responseObserver) {
+        if (responseObserver.isCancelled()) {
+            return;
+        }
+
+        Status currentFailure = failure;
+        if (currentFailure != null) {
+            responseObserver.onError(currentFailure.asRuntimeException());
+            return;
+        }
+
+        boolean available = !unavailableProducts.contains(request.getProductId());
+        responseObserver.onNext(ProductAvailabilityResponse.newBuilder()
+                .setProductId(request.getProductId())
+                .setProductName("Product " + request.getProductId())
+                .setPriceCents(10_000)
+                .setAvailableQuantity(available ? 1000 : 0)
+                .setIsAvailable(available)
+                .setMessage(available ? "Product is available" : "Insufficient quantity")
+                .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        channels.forEach(ManagedChannel::shutdownNow);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,338 @@
+package com.onlinestore.order.grpc;
+
+import com.onlinestore.order.config.InventoryGrpcClientConfig;
+import com.onlinestore.order.dto.CreateOrderRequest;
+import com.onlinestore.order.exception.InventoryServiceException;
+import com.onlinestore.order.exception.InventoryUnavailableException;
+import com.onlinestore.order.exception.ProductNotAvailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.grpc.Deadline;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InventoryGrpcClientTest {
+
+    private static final Duration CALL_DEADLINE = Duration.ofMillis(500);
+    private static final Duration ORDER_DEADLINE = Duration.ofSeconds(2);
+
+    private FakeInventoryServer server;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private ProductMetadataCache productMetadataCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeInventoryServer();
+        circuitBreaker = CircuitBreaker.of("inventory", CircuitBreakerConfig.custom()
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMillis(200))
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .build());
+        bulkhead = bulkhead(10);
+        productMetadataCache = new ProductMetadataCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void checkAvailability_WhenInventoryIsSlow_FailsAtCallDeadline() {
+        server.setLatency(request -> 5_000);
+        InventoryGrpcClient client = client(null);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.checkAvailability(UUID.randomUUID(), 1))
+                .isInstanceOf(InventoryServiceException.class);
+
+        assertThat(elapsedMillis(start)).isLessThan(2_000);
+    }
+
+    @Test
+    void checkAvailability_WhenFirstAttemptIsSlow_HedgedAttemptAnswers() {
+        AtomicInteger attempt = new AtomicInteger();
+        server.setLatency(request -> attempt.getAndIncrement() == 0 ? 5_000 : 0);
+        InventoryGrpcClient client = client(
+                InventoryGrpcClientConfig.serviceConfig(CALL_DEADLINE, 3, Duration.ofMillis(50)));
+
+        long start = System.nanoTime();
+        ProductAvailabilityResponse response = client.checkAvailability(UUID.randomUUID(), 1);
+
+        assertThat(response.getIsAvailable()).isTrue();
+        assertThat(elapsedMillis(start)).isLessThan(CALL_DEADLINE.toMillis());
+        assertThat(server.getCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void checkAvailability_WhenInventoryUnavailable_RetriesCall() {
+        AtomicInteger attempt = new AtomicInteger();
+        server.setFailure(Status.UNAVAILABLE);
+        server.setLatency(request -> {
+            if (attempt.incrementAndGet() == 2) {
+                server.setFailure(null);
+            }
+            return 0;
+        });
+        InventoryGrpcClient client = client(
+                InventoryGrpcClientConfig.serviceConfig(CALL_DEADLINE, 3, null));
+
+        ProductAvailabilityResponse response = client.checkAvailability(UUID.randomUUID(), 1);
+
+        assertThat(response.getIsAvailable()).isTrue();
+        assertThat(server.getCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void checkAvailabilityOrThrow_ChecksItemsConcurrently() {
+        server.setLatency(request -> 300);
+        InventoryGrpcClient client = client(null);
+        List<CreateOrderRequest.OrderItemRequest> items = IntStream.range(0, 5)
+                .mapToObj(i -> new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1))
+                .toList();
+
+        long start = System.nanoTime();
+        List<ProductAvailabilityResponse> responses = client.checkAvailabilityOrThrow(items);
+
+        assertThat(responses).extracting(ProductAvailabilityResponse::getProductId)
+                .containsExactlyElementsOf(items.stream().map(item -> item.getProductId().toString()).toList());
+        assertThat(elapsedMillis(start)).isLessThan(1_000);
+    }
+
+    @Test
+    void checkAvailabilityOrThrow_WhenOneItemUnavailable_FailsFastAndCancelsOthers() throws Exception {
+        UUID unavailable = UUID.randomUUID();
+        server.markUnavailable(unavailable.toString());
+        server.setLatency(request -> request.getProductId().equals(unavailable.toString()) ? 0 : 5_000);
+        InventoryGrpcClient client = client(null);
+        List<CreateOrderRequest.OrderItemRequest> items = List.of(
+                new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1),
+                new CreateOrderRequest.OrderItemRequest(unavailable, 1),
+                new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.checkAvailabilityOrThrow(items))
+                .isInstanceOf(ProductNotAvailableException.class);
+
+        assertThat(elapsedMillis(start)).isLessThan(ORDER_DEADLINE.toMillis());
+        // Отмена доходит до сервера асинхронно
+        awaitCancelledCalls(2);
+    }
+
+    @Test
+    void checkAvailability_WhenInventoryKeepsFailing_OpensCircuitAndFailsFast() {
+        server.setFailure(Status.UNAVAILABLE);
+        InventoryGrpcClient client = client(null);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.checkAvailability(UUID.randomUUID(), 1))
+                    .isInstanceOf(InventoryServiceException.class)
+                    .isNotInstanceOf(InventoryUnavailableException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> client.checkAvailability(UUID.randomUUID(), 1))
+                .isInstanceOf(InventoryUnavailableException.class);
+        assertThat(server.getCalls()).isEqualTo(4);
+    }
+
+    @Test
+    void checkAvailability_WhenInventoryRecovers_HalfOpenProbesCloseCircuit() throws Exception {
+        server.setFailure(Status.UNAVAILABLE);
+        InventoryGrpcClient client = client(null);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.checkAvailability(UUID.randomUUID(), 1))
+                    .isInstanceOf(InventoryServiceException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        server.setFailure(null);
+        Thread.sleep(300);
+
+        // Первый вызов после wait-duration переводит breaker в HALF_OPEN, пробные вызовы успешны
+        client.checkAvailability(UUID.randomUUID(), 1);
+        client.checkAvailability(UUID.randomUUID(), 1);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void checkAvailability_WhenProductUnavailable_DoesNotCountAsFailure() {
+        UUID productId = UUID.randomUUID();
+        server.markUnavailable(productId.toString());
+        InventoryGrpcClient client = client(null);
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> client.checkAvailabilityOrThrow(productId, 1))
+                    .isInstanceOf(ProductNotAvailableException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void checkAvailability_WhenBulkheadFull_RejectsWithoutCallingInventory() throws Exception {
+        server.setLatency(request -> 300);
+        bulkhead = bulkhead(2);
+        InventoryGrpcClient client = client(null);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<CompletableFuture<ProductAvailabilityResponse>> inFlight = IntStream.range(0, 2)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(
+                            () -> client.checkAvailability(UUID.randomUUID(), 1), executor))
+                    .toList();
+            awaitCalls(2);
+
+            assertThatThrownBy(() -> client.checkAvailability(UUID.randomUUID(), 1))
+                    .isInstanceOf(InventoryUnavailableException.class);
+
+            inFlight.forEach(CompletableFuture::join);
+        }
+        assertThat(server.getCalls()).isEqualTo(2);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void checkAvailabilityOrThrow_TakesOneBulkheadPermitPerOrder() throws Exception {
+        server.setLatency(request -> 300);
+        bulkhead = bulkhead(2);
+        InventoryGrpcClient client = client(null);
+        List<CreateOrderRequest.OrderItemRequest> items = IntStream.range(0, 5)
+                .mapToObj(i -> new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1))
+                .toList();
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            CompletableFuture<List<ProductAvailabilityResponse>> order =
+                    CompletableFuture.supplyAsync(() -> client.checkAvailabilityOrThrow(items), executor);
+            awaitCalls(5);
+
+            // Товаров больше, чем мест в bulkhead, но заказ занимает одно
+            assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+            assertThat(order.join()).hasSize(5);
+        }
+        assertThat(server.getCalls()).isEqualTo(5);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void checkAvailability_WhenCallSetupFails_ReleasesBulkheadPermit() {
+        InventoryGrpcClient client = client(null);
+
+        // buildRequest падает до отправки вызова
+        assertThatThrownBy(() -> client.checkAvailability(null, 1))
+                .isInstanceOf(NullPointerException.class);
+        CompletableFuture<ProductAvailabilityResponse> async =
+                client.checkAvailabilityAsync(null, 1, Deadline.after(1, TimeUnit.SECONDS));
+
+        assertThat(async).isCompletedExceptionally();
+        assertThat(server.getCalls()).isZero();
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(10);
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+
+    @Test
+    void getProductMetadata_ServedFromCacheAfterFirstCall() {
+        UUID productId = UUID.randomUUID();
+        InventoryGrpcClient client = client(null);
+
+        ProductMetadata first = client.getProductMetadata(productId);
+        ProductMetadata second = client.getProductMetadata(productId);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(first.name()).isEqualTo("Product " + productId);
+        assertThat(server.getCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void checkAvailability_KeepsCachedMetadataButAlwaysCallsInventory() {
+        UUID productId = UUID.randomUUID();
+        // Запись из события PRICE_CHANGED свежее ответа из ProductCatalog inventory
+        productMetadataCache.put(productId, new ProductMetadata("Renamed by event", 100, 0));
+        InventoryGrpcClient client = client(null);
+
+        client.checkAvailabilityOrThrow(productId, 1);
+
+        assertThat(server.getCalls()).isEqualTo(1);
+        assertThat(productMetadataCache.get(productId).name()).isEqualTo("Renamed by event");
+    }
+
+    @Test
+    void checkAvailability_FillsMetadataCacheOnMiss() {
+        UUID productId = UUID.randomUUID();
+        InventoryGrpcClient client = client(null);
+
+        client.checkAvailabilityOrThrow(productId, 1);
+
+        assertThat(productMetadataCache.get(productId).name()).isEqualTo("Product " + productId);
+    }
+
+    @Test
+    void validateLogSampling_WhenSampleEveryIsZero_FailsStartup() {
+        InventoryGrpcClient client = client(null);
+        ReflectionTestUtils.setField(client, "logSampleEvery", 0);
+
+        assertThatThrownBy(client::validateLogSampling)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("log-sample-every");
+    }
+
+    private InventoryGrpcClient client(Map<String, ?> serviceConfig) {
+        ManagedChannel channel = server.channel(serviceConfig);
+        InventoryGrpcClient client = new InventoryGrpcClient(circuitBreaker, bulkhead, productMetadataCache);
+        ReflectionTestUtils.setField(client, "inventoryStub", InventoryServiceGrpc.newBlockingStub(channel));
+        ReflectionTestUtils.setField(client, "inventoryFutureStub", InventoryServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(client, "callDeadline", CALL_DEADLINE);
+        ReflectionTestUtils.setField(client, "orderDeadline", ORDER_DEADLINE);
+        return client;
+    }
+
+    private static Bulkhead bulkhead(int maxConcurrentCalls) {
+        return Bulkhead.of("inventory", BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    private void awaitCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (server.getCalls() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitCancelledCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (server.getCancelledCalls() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(server.getCancelledCalls()).isEqualTo(expected);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
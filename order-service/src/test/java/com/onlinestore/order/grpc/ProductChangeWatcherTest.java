@@ -0,0 +1,141 @@
+package com.onlinestore.order.grpc;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductChangeWatcherTest {
+
+    private FakeInventoryServer server;
+    private ProductMetadataCache cache;
+    private ProductChangeWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeInventoryServer();
+        cache = new ProductMetadataCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        watcher = new ProductChangeWatcher(cache);
+        ReflectionTestUtils.setField(watcher, "inventoryAsyncStub", InventoryServiceGrpc.newStub(server.channel(null)));
+        ReflectionTestUtils.setField(watcher, "watchEnabled", true);
+        ReflectionTestUtils.setField(watcher, "reconnectDelay", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(watcher, "resumeOverlap", Duration.ZERO);
+        watcher.start();
+        await(() -> server.getWatcherCount() == 1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        watcher.stop();
+        server.close();
+    }
+
+    @Test
+    void onPriceChange_UpdatesOnlyChangedProduct() throws Exception {
+        UUID changed = UUID.randomUUID();
+        UUID unchanged = UUID.randomUUID();
+        cache.put(changed, new ProductMetadata("Changed", 10_000, 0));
+        cache.put(unchanged, new ProductMetadata("Unchanged", 5_000, 0));
+
+        server.publishChange(changed, ProductChangeEvent.Type.PRICE_CHANGED, 8_000);
+
+        await(() -> cache.get(changed).priceCents() == 8_000);
+        assertThat(cache.get(unchanged).priceCents()).isEqualTo(5_000);
+    }
+
+    @Test
+    void onDelete_RemovesProductFromCache() throws Exception {
+        UUID productId = UUID.randomUUID();
+        cache.put(productId, new ProductMetadata("Product", 10_000, 0));
+
+        server.publishChange(productId, ProductChangeEvent.Type.DELETED, 0);
+
+        await(() -> cache.get(productId) == null);
+    }
+
+    @Test
+    void onStreamFailure_ResumesFromLastSequenceWithoutClearingCache() throws Exception {
+        UUID cached = UUID.randomUUID();
+        UUID changedWhileDisconnected = UUID.randomUUID();
+        cache.put(cached, new ProductMetadata("Cached", 1_000, 0));
+        UUID created = UUID.randomUUID();
+        server.publishChange(created, ProductChangeEvent.Type.CREATED, 100);
+        await(() -> cache.get(created) != null);
+
+        server.dropWatchers(Status.UNAVAILABLE);
+        server.publishChange(changedWhileDisconnected, ProductChangeEvent.Type.PRICE_CHANGED, 4_200);
+
+        // Пропущенное событие досылается из журнала после переподключения
+        await(() -> cache.get(changedWhileDisconnected) != null);
+        assertThat(cache.get(changedWhileDisconnected).priceCents()).isEqualTo(4_200);
+        assertThat(cache.get(cached)).isNotNull();
+    }
+
+    @Test
+    void onStreamFailureBeforeAnyEvent_ClearsCacheAndResubscribes() throws Exception {
+        UUID productId = UUID.randomUUID();
+        cache.put(productId, new ProductMetadata("Product", 10_000, 0));
+
+        server.dropWatchers(Status.UNAVAILABLE);
+
+        await(() -> server.getWatcherCount() == 1);
+        assertThat(cache.get(productId)).isNull();
+    }
+
+    @Test
+    void onLateOlderEvent_KeepsNewerState() throws Exception {
+        ReflectionTestUtils.setField(watcher, "resumeOverlap", Duration.ofMinutes(1));
+        UUID productId = UUID.randomUUID();
+        server.publishChange(productId, ProductChangeEvent.Type.CREATED, 1_000);
+        server.publishChange(productId, ProductChangeEvent.Type.PRICE_CHANGED, 2_000);
+        await(() -> cache.get(productId) != null && cache.get(productId).priceCents() == 2_000);
+
+        server.deliverLate(ProductChangeEvent.newBuilder()
+                .setSequence(1)
+                .setProductId(productId.toString())
+                .setType(ProductChangeEvent.Type.PRICE_CHANGED)
+                .setName("Stale")
+                .setPriceCents(500)
+                .build());
+        UUID marker = UUID.randomUUID();
+        server.publishChange(marker, ProductChangeEvent.Type.CREATED, 100);
+        await(() -> cache.get(marker) != null);
+
+        assertThat(cache.get(productId).priceCents()).isEqualTo(2_000);
+    }
+
+    @Test
+    void onStreamFailure_ResumesFromSequenceOlderThanOverlap() throws Exception {
+        ReflectionTestUtils.setField(watcher, "resumeOverlap", Duration.ofMillis(500));
+        UUID first = UUID.randomUUID();
+        server.publishChange(first, ProductChangeEvent.Type.CREATED, 100);
+        await(() -> cache.get(first) != null);
+        Thread.sleep(600);
+        UUID recent = UUID.randomUUID();
+        server.publishChange(recent, ProductChangeEvent.Type.CREATED, 200);
+        await(() -> cache.get(recent) != null);
+
+        server.dropWatchers(Status.UNAVAILABLE);
+
+        // Событие 2 получено меньше resume-overlap назад - его транзакцию могли обогнать
+        await(() -> server.getWatchFromSequences().size() == 2);
+        assertThat(server.getWatchFromSequences().get(1)).isEqualTo(1L);
+        assertThat(cache.get(recent)).isNotNull();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
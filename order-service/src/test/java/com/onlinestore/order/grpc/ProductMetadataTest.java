@@ -0,0 +1,31 @@
+package com.onlinestore.order.grpc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductMetadataTest {
+
+    @Test
+    void from_shouldReadPriceInCents() {
+        ProductMetadata metadata = ProductMetadata.from(ProductAvailabilityResponse.newBuilder()
+                .setProductName("iPhone 15 Pro")
+                .setPriceCents(129_999)
+                .setDiscountBasisPoints(1_550)
+                .build());
+
+        assertThat(metadata).isEqualTo(new ProductMetadata("iPhone 15 Pro", 129_999, 1_550));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void from_shouldFallBackToDoubleFieldsOfOlderInventoryService() {
+        ProductMetadata metadata = ProductMetadata.from(ProductChangeEvent.newBuilder()
+                .setName("iPhone 15 Pro")
+                .setPrice(1299.99)
+                .setDiscount(15.50)
+                .build());
+
+        assertThat(metadata).isEqualTo(new ProductMetadata("iPhone 15 Pro", 129_999, 1_550));
+    }
+}
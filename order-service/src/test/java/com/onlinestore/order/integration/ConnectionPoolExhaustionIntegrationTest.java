@@ -0,0 +1,126 @@
+package com.onlinestore.order.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.order.dto.CreateOrderRequest;
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.grpc.InventoryGrpcClient;
+import com.onlinestore.order.grpc.ProductAvailabilityResponse;
+import com.onlinestore.order.kafka.OrderCreatedEvent;
+import com.onlinestore.order.repository.UserRepository;
+import com.onlinestore.order.service.TransactionalOutboxService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Настоящее исчерпание пула order-db: все соединения заняты, checkout ждёт connection-timeout
+ * и получает 503 с Retry-After. Без @Transactional - иначе запрос шёл бы в соединении теста.
+ */
+@SpringBootTest(properties = {
+        "orders.async.pool-size=1",
+        "orders.db.request-connections=1",
+        "orders.db.background-connections=0",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConnectionPoolExhaustionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private TransactionalOutboxService transactionalOutboxService;
+
+    @MockBean
+    private InventoryGrpcClient inventoryClient;
+
+    @MockBean
+    private KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private User user;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (user != null) {
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    void poolSize_IsDerivedFromConcurrencySettings() throws Exception {
+        // orders.async.pool-size + request-connections + background-connections
+        assertThat(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(2);
+    }
+
+    @Test
+    void createOrder_WhenAllConnectionsBusy_ReturnsServiceUnavailable() throws Exception {
+        user = userRepository.save(User.builder()
+                .username("pooluser")
+                .email("pool@email.com")
+                .password("encodedPass")
+                .role(User.Role.ROLE_USER)
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(inventoryClient.checkAvailabilityOrThrow(anyList()))
+                .thenReturn(List.of(ProductAvailabilityResponse.newBuilder()
+                        .setProductName("iPhone 15 Pro")
+                        .setPriceCents(129_999)
+                        .setIsAvailable(true)
+                        .build()));
+        CreateOrderRequest request = new CreateOrderRequest(
+                user.getId(),
+                List.of(new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1))
+        );
+
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < pool.getMaximumPoolSize(); i++) {
+                held.add(pool.getConnection());
+            }
+
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(request)))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+}
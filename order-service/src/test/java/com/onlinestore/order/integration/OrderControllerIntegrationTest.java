@@ -3,11 +3,13 @@ package com.onlinestore.order.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onlinestore.order.dto.CreateOrderRequest;
 import com.onlinestore.order.entity.Order;
+import com.onlinestore.order.entity.OrderItem;
 import com.onlinestore.order.entity.User;
 import com.onlinestore.order.exception.ProductNotAvailableException;
 import com.onlinestore.order.kafka.OrderCreatedEvent;
 import com.onlinestore.order.repository.OrderRepository;
 import com.onlinestore.order.repository.UserRepository;
+import com.onlinestore.order.service.OrderIntentProcessor;
 import com.onlinestore.order.service.TransactionalOutboxService;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -24,16 +26,23 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -52,6 +61,9 @@ class OrderControllerIntegrationTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderIntentProcessor orderIntentProcessor;
+
     @MockBean
     private TransactionalOutboxService transactionalOutboxService;
 
@@ -77,15 +89,18 @@ class OrderControllerIntegrationTest {
         );
 
         // Настраиваем успешный ответ от Inventory Service по умолчанию
-        when(inventoryClient.checkAvailabilityOrThrow(any(UUID.class), anyInt()))
-                .thenReturn(
-                        com.onlinestore.order.grpc.ProductAvailabilityResponse.newBuilder()
-                                .setProductName("iPhone 15 Pro")
-                                .setPrice(1299.99)
-                                .setDiscount(15.50)
-                                .setIsAvailable(true)
-                                .build()
-                );
+        when(inventoryClient.checkAvailabilityOrThrow(anyList()))
+                .thenAnswer(invocation -> {
+                    List<?> items = invocation.getArgument(0);
+                    return items.stream()
+                            .map(item -> com.onlinestore.order.grpc.ProductAvailabilityResponse.newBuilder()
+                                    .setProductName("iPhone 15 Pro")
+                                    .setPriceCents(129_999)
+                                    .setDiscountBasisPoints(1_550)
+                                    .setIsAvailable(true)
+                                    .build())
+                            .toList();
+                });
 
         // Мокаем успешную отправку в Kafka
         when(kafkaTemplate.send(anyString(), anyString(), any(OrderCreatedEvent.class)))
@@ -122,7 +137,10 @@ class OrderControllerIntegrationTest {
                 .andExpect(jsonPath("$.items[0].productId").value(productId.toString()))
                 .andExpect(jsonPath("$.items[0].productName").value("iPhone 15 Pro"))
                 .andExpect(jsonPath("$.items[0].price").value(1299.99))
-                .andExpect(jsonPath("$.items[0].sale").value(15.50));
+                .andExpect(jsonPath("$.items[0].sale").value(15.50))
+                // 2 x 1299.99 со скидкой 15.50% = 2196.9831, округляется до копейки
+                .andExpect(jsonPath("$.items[0].totalPrice").value(2196.98))
+                .andExpect(jsonPath("$.totalPrice").value(2196.98));
 
         // Проверяем что заказ сохранен в БД
         List<Order> orders = orderRepository.findAll();
@@ -130,7 +148,8 @@ class OrderControllerIntegrationTest {
         assertThat(orders.get(0).getUser().getId()).isEqualTo(testUser.getId());
 
         // Проверяем вызов gRPC клиента
-        verify(inventoryClient).checkAvailabilityOrThrow(eq(productId), eq(2));
+        verify(inventoryClient).checkAvailabilityOrThrow(
+                List.of(new CreateOrderRequest.OrderItemRequest(productId, 2)));
 
         // Проверяем отправку в Kafka (через аутбокс)
         verify(kafkaTemplate).send(eq("orders"), anyString(), any(OrderCreatedEvent.class));
@@ -175,7 +194,7 @@ class OrderControllerIntegrationTest {
 
         UUID productId = UUID.randomUUID();
         // Мокаем что товар недоступен
-        when(inventoryClient.checkAvailabilityOrThrow(any(UUID.class), anyInt()))
+        when(inventoryClient.checkAvailabilityOrThrow(anyList()))
                 .thenThrow(new ProductNotAvailableException(
                         productId,
                         1,
@@ -196,6 +215,25 @@ class OrderControllerIntegrationTest {
         assertThat(orderRepository.count()).isZero();
     }
 
+    @Test
+    void createOrder_WhenTransactionCannotStart_ReturnsServiceUnavailableWithRetryAfter() throws Exception {
+        authenticateAs(testUser);
+
+        when(inventoryClient.checkAvailabilityOrThrow(anyList()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available"));
+
+        CreateOrderRequest request = new CreateOrderRequest(
+                testUser.getId(),
+                List.of(new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1))
+        );
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
 
     @Test
     void createOrder_WithMultipleItems_AllItemsChecked() throws Exception {
@@ -216,9 +254,10 @@ class OrderControllerIntegrationTest {
                         .content(mapper.writeValueAsString(request)))
                 .andExpect(status().isCreated());
 
-        // Проверяем что оба товара были проверены через gRPC
-        verify(inventoryClient).checkAvailabilityOrThrow(eq(product1), eq(1));
-        verify(inventoryClient).checkAvailabilityOrThrow(eq(product2), eq(3));
+        // Проверяем что оба товара были проверены через gRPC одним пакетом
+        verify(inventoryClient).checkAvailabilityOrThrow(List.of(
+                new CreateOrderRequest.OrderItemRequest(product1, 1),
+                new CreateOrderRequest.OrderItemRequest(product2, 3)));
     }
 
     @Test
@@ -258,4 +297,238 @@ class OrderControllerIntegrationTest {
                         .content(mapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void createOrderAsync_AcceptedThenPlacedByWorker() throws Exception {
+        authenticateAs(testUser);
+
+        UUID productId = UUID.randomUUID();
+        CreateOrderRequest request = new CreateOrderRequest(
+                testUser.getId(),
+                List.of(new CreateOrderRequest.OrderItemRequest(productId, 2))
+        );
+
+        UUID intentId = submitAsync(request);
+        // Inventory Service не вызывался, заказа ещё нет
+        verify(inventoryClient, never()).checkAvailabilityOrThrow(anyList());
+        assertThat(orderRepository.count()).isZero();
+
+        // Транзакция теста не коммитится, поэтому в пул intent не попадает - обрабатываем здесь
+        orderIntentProcessor.process(intentId);
+
+        List<Order> orders = orderRepository.findAll();
+        assertThat(orders).hasSize(1);
+        mockMvc.perform(get("/api/orders/intents/{id}", intentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.orderId").value(orders.get(0).getId().toString()));
+        mockMvc.perform(get("/api/orders/{id}", orders.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].productId").value(productId.toString()))
+                .andExpect(jsonPath("$.totalPrice").value(2196.98));
+    }
+
+    @Test
+    void createOrderAsync_WhenProductNotAvailable_IntentRejected() throws Exception {
+        authenticateAs(testUser);
+
+        UUID productId = UUID.randomUUID();
+        when(inventoryClient.checkAvailabilityOrThrow(anyList()))
+                .thenThrow(new ProductNotAvailableException(productId, 5, 1, "test message"));
+
+        UUID intentId = submitAsync(new CreateOrderRequest(
+                testUser.getId(),
+                List.of(new CreateOrderRequest.OrderItemRequest(productId, 5))
+        ));
+        orderIntentProcessor.process(intentId);
+
+        mockMvc.perform(get("/api/orders/intents/{id}", intentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REJECTED"))
+                .andExpect(jsonPath("$.orderId").doesNotExist())
+                .andExpect(jsonPath("$.error").isNotEmpty());
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    @Test
+    void createOrderAsync_WhenUserIdMismatch_ReturnsBadRequest() throws Exception {
+        authenticateAs(testUser);
+
+        CreateOrderRequest request = new CreateOrderRequest(
+                UUID.randomUUID(),
+                List.of(new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1))
+        );
+
+        mockMvc.perform(post("/api/orders/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getOrderIntent_OfAnotherUser_ReturnsNotFound() throws Exception {
+        User otherUser = userRepository.save(User.builder()
+                .username("otheruser")
+                .email("other@email.com")
+                .password("encodedPass")
+                .role(User.Role.ROLE_USER)
+                .build());
+        authenticateAs(otherUser);
+        UUID intentId = submitAsync(new CreateOrderRequest(
+                otherUser.getId(),
+                List.of(new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1))
+        ));
+
+        authenticateAs(testUser);
+        mockMvc.perform(get("/api/orders/intents/{id}", intentId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void quoteOrder_PricesItemsWithoutStockCheck() throws Exception {
+        authenticateAs(testUser);
+
+        UUID productId = UUID.randomUUID();
+        when(inventoryClient.getProductMetadata(productId))
+                .thenReturn(new com.onlinestore.order.grpc.ProductMetadata("iPhone 15 Pro", 100_000, 1_000));
+        CreateOrderRequest request = new CreateOrderRequest(
+                testUser.getId(),
+                List.of(new CreateOrderRequest.OrderItemRequest(productId, 2))
+        );
+
+        mockMvc.perform(post("/api/orders/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].productName").value("iPhone 15 Pro"))
+                .andExpect(jsonPath("$.items[0].totalPrice").value(1800.0))
+                .andExpect(jsonPath("$.totalPrice").value(1800.0));
+
+        // Наличие не проверяется, заказ не создаётся
+        verify(inventoryClient, never()).checkAvailabilityOrThrow(anyList());
+        assertThat(orderRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void getOrders_ReturnsOwnOrdersInKeysetPagesWithSqlTotals() throws Exception {
+        authenticateAs(testUser);
+        Set<UUID> ownOrders = Set.of(saveOrder(testUser), saveOrder(testUser), saveOrder(testUser));
+        saveOrder(userRepository.save(User.builder()
+                .username("otheruser")
+                .email("other@email.com")
+                .password("encodedPass")
+                .role(User.Role.ROLE_USER)
+                .build()));
+
+        String firstPage = mockMvc.perform(get("/api/orders").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].userId").value(testUser.getId().toString()))
+                .andExpect(jsonPath("$.items[0].createdAt").exists())
+                .andExpect(jsonPath("$.items[0].items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].totalPrice").value(2099.97))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = mapper.readTree(firstPage).get("nextCursor").asText();
+
+        String secondPage = mockMvc.perform(get("/api/orders").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        Set<UUID> returned = new HashSet<>();
+        for (String page : List.of(firstPage, secondPage)) {
+            mapper.readTree(page).get("items")
+                    .forEach(order -> returned.add(UUID.fromString(order.get("id").asText())));
+        }
+        assertThat(returned).isEqualTo(ownOrders);
+    }
+
+    @Test
+    void getOrder_ReturnsItemsWithTotals() throws Exception {
+        authenticateAs(testUser);
+        UUID orderId = saveOrder(testUser);
+
+        mockMvc.perform(get("/api/orders/{id}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(orderId.toString()))
+                .andExpect(jsonPath("$.totalPrice").value(2099.97))
+                .andExpect(jsonPath("$.items[?(@.productName == 'iPhone 15 Pro')].totalPrice").value(1800.0))
+                .andExpect(jsonPath("$.items[?(@.productName == 'USB-C Cable')].totalPrice").value(299.97));
+    }
+
+    @Test
+    void createOrder_WithTooManyItems_ReturnsBadRequest() throws Exception {
+        authenticateAs(testUser);
+        CreateOrderRequest request = new CreateOrderRequest(
+                testUser.getId(),
+                IntStream.rangeClosed(0, CreateOrderRequest.MAX_ITEMS)
+                        .mapToObj(i -> new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1))
+                        .toList()
+        );
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(inventoryClient, never()).checkAvailabilityOrThrow(anyList());
+    }
+
+    @Test
+    void getOrder_OfAnotherUser_ReturnsNotFound() throws Exception {
+        User otherUser = userRepository.save(User.builder()
+                .username("otheruser")
+                .email("other@email.com")
+                .password("encodedPass")
+                .role(User.Role.ROLE_USER)
+                .build());
+        UUID orderId = saveOrder(otherUser);
+        authenticateAs(testUser);
+
+        mockMvc.perform(get("/api/orders/{id}", orderId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getOrders_WithInvalidCursor_ReturnsBadRequest() throws Exception {
+        authenticateAs(testUser);
+
+        mockMvc.perform(get("/api/orders").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /** POST /api/orders/async: 202, Location на статус и PENDING в ответе; возвращает id intent. */
+    private UUID submitAsync(CreateOrderRequest request) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/orders/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn();
+
+        UUID intentId = UUID.fromString(mapper.readTree(result.getResponse().getContentAsString()).get("id").asText());
+        assertThat(result.getResponse().getHeader("Location")).isEqualTo("/api/orders/intents/" + intentId);
+        return intentId;
+    }
+
+    // Заказ на 1800.00 (2 x 1000.00 со скидкой 10%) + 299.97 (3 x 99.99)
+    private UUID saveOrder(User user) {
+        Order order = Order.builder().user(user).build();
+        order.addItem(OrderItem.builder()
+                .productId(UUID.randomUUID())
+                .productName("iPhone 15 Pro")
+                .quantity(2)
+                .priceCents(100_000)
+                .discountBasisPoints(1_000)
+                .build());
+        order.addItem(OrderItem.builder()
+                .productId(UUID.randomUUID())
+                .productName("USB-C Cable")
+                .quantity(3)
+                .priceCents(9_999)
+                .build());
+        return orderRepository.save(order).getId();
+    }
 }
@@ -0,0 +1,333 @@
+package com.onlinestore.order.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onlinestore.order.dto.CreateOrderRequest;
+import com.onlinestore.order.entity.OrderIntent;
+import com.onlinestore.order.entity.User;
+import com.onlinestore.order.exception.InventoryServiceException;
+import com.onlinestore.order.grpc.InventoryGrpcClient;
+import com.onlinestore.order.grpc.ProductAvailabilityResponse;
+import com.onlinestore.order.kafka.OrderCreatedEvent;
+import com.onlinestore.order.repository.OrderIntentRepository;
+import com.onlinestore.order.repository.OrderRepository;
+import com.onlinestore.order.repository.UserRepository;
+import com.onlinestore.order.service.OrderIntentCreatedEvent;
+import com.onlinestore.order.service.OrderIntentNotifier;
+import com.onlinestore.order.service.OrderIntentProcessor;
+import com.onlinestore.order.service.OrderService;
+import com.onlinestore.order.service.TransactionalOutboxService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Обработка intent вне транзакции теста: claim, complete и release коммитятся так же,
+ * как в пуле OrderIntentProcessor. Опрос по расписанию отключён - poll и refresh
+ * вызываются из тестов, а intent сохраняются напрямую, без события в пул.
+ */
+@SpringBootTest(properties = {
+        "orders.async.pool-size=1",
+        "orders.async.queue-capacity=1",
+        "orders.async.max-attempts=2",
+        "orders.async.retry-delay=1h",
+        "orders.async.poll-interval-ms=3600000",
+        // requeueStuck другой реплики ждёт блокировку строки intent, пока оформляется заказ
+        "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderIntentProcessingIntegrationTest {
+
+    private static final Duration AWAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderIntentProcessor orderIntentProcessor;
+
+    @SpyBean
+    private OrderIntentNotifier orderIntentNotifier;
+
+    @Autowired
+    private OrderIntentRepository orderIntentRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private OrderService orderService;
+
+    @MockBean
+    private TransactionalOutboxService transactionalOutboxService;
+
+    @MockBean
+    private InventoryGrpcClient inventoryClient;
+
+    @MockBean
+    private KafkaTemplate<String, OrderCreatedEvent> kafkaTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("intentuser")
+                .email("intent@email.com")
+                .password("encodedPass")
+                .role(User.Role.ROLE_USER)
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(inventoryClient.checkAvailabilityOrThrow(anyList()))
+                .thenAnswer(invocation -> available(invocation.<List<?>>getArgument(0).size()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        orderIntentRepository.deleteAll(orderIntentRepository.findAll().stream()
+                .filter(intent -> intent.getUserId().equals(user.getId()))
+                .toList());
+        orderRepository.deleteAll(orderRepository.findByUserId(user.getId()));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void process_WhenClaimIsRequeuedAndTakenByAnotherReplica_DoesNotPlaceOrder() throws Exception {
+        UUID intentId = saveIntent();
+        // Пока эта реплика ждала после claim, intent признан зависшим и взят заново
+        doAnswer(invocation -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                orderIntentRepository.requeueStuck(now.plusMinutes(1), now);
+                orderIntentRepository.claim(intentId, now);
+            });
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(orderIntentNotifier).changed(intentId);
+
+        orderIntentProcessor.process(intentId);
+
+        OrderIntent intent = orderIntentRepository.findById(intentId).orElseThrow();
+        assertThat(intent.getStatus()).isEqualTo(OrderIntent.Status.PROCESSING);
+        assertThat(intent.getAttempts()).isEqualTo(2);
+        assertThat(intent.getOrderId()).isNull();
+        assertThat(orderRepository.findByUserId(user.getId())).isEmpty();
+        verify(orderService, never()).createOrder(any(User.class), any(CreateOrderRequest.class));
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void requeueStuck_WhileOrderIsBeingPlaced_WaitsForCommitAndKeepsIntent() throws Exception {
+        UUID intentId = saveIntent();
+        AtomicReference<CompletableFuture<Integer>> requeue = new AtomicReference<>();
+        // Другая реплика считает intent зависшим, пока эта оформляет заказ
+        doAnswer(invocation -> {
+            requeue.set(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                return orderIntentRepository.requeueStuck(now.plusMinutes(1), now);
+            })));
+            Thread.sleep(100);
+            return invocation.callRealMethod();
+        }).when(orderService).createOrder(any(User.class), any(CreateOrderRequest.class));
+
+        orderIntentProcessor.process(intentId);
+
+        assertThat(requeue.get().get(AWAIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isZero();
+        OrderIntent intent = orderIntentRepository.findById(intentId).orElseThrow();
+        assertThat(intent.getStatus()).isEqualTo(OrderIntent.Status.COMPLETED);
+        assertThat(intent.getAttempts()).isEqualTo(1);
+        assertThat(orderRepository.findByUserId(user.getId())).hasSize(1);
+        verify(kafkaTemplate, times(1)).send(eq("orders"), anyString(), any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void process_WhenInventoryKeepsFailing_FailsAfterMaxAttempts() throws Exception {
+        when(inventoryClient.checkAvailabilityOrThrow(anyList()))
+                .thenThrow(new InventoryServiceException("Inventory unavailable",
+                        new StatusRuntimeException(Status.UNAVAILABLE)));
+        UUID intentId = saveIntent();
+
+        orderIntentProcessor.process(intentId);
+
+        OrderIntent retried = orderIntentRepository.findById(intentId).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(OrderIntent.Status.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        // Повтор - только после retry-delay
+        assertThat(orderIntentRepository.findPendingIds(LocalDateTime.now().minusHours(1), PageRequest.of(0, 10)))
+                .doesNotContain(intentId);
+
+        orderIntentProcessor.process(intentId);
+
+        OrderIntent failed = orderIntentRepository.findById(intentId).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OrderIntent.Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getError()).isEqualTo("Inventory unavailable");
+        assertThat(orderRepository.findByUserId(user.getId())).isEmpty();
+    }
+
+    @Test
+    void poll_RequeuesIntentStuckInProcessing() throws Exception {
+        UUID intentId = saveIntent();
+        transactionTemplate.executeWithoutResult(status ->
+                orderIntentRepository.claim(intentId, LocalDateTime.now()));
+        // Реплика, взявшая intent, упала час назад
+        jdbcTemplate.update("update order_intents set updated_at = ? where id = ?",
+                LocalDateTime.now().minusHours(1), intentId);
+
+        orderIntentProcessor.poll();
+
+        OrderIntent intent = orderIntentRepository.findById(intentId).orElseThrow();
+        assertThat(intent.getStatus()).isEqualTo(OrderIntent.Status.PENDING);
+        assertThat(intent.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void onIntentCreated_WhenWorkerQueueIsFull_LeavesIntentForPoll() throws Exception {
+        CountDownLatch inventoryBlocked = new CountDownLatch(1);
+        when(inventoryClient.checkAvailabilityOrThrow(anyList())).thenAnswer(invocation -> {
+            inventoryBlocked.await(AWAIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            return available(invocation.<List<?>>getArgument(0).size());
+        });
+        UUID running = saveIntent();
+        UUID queued = saveIntent();
+        UUID overflow = saveIntent();
+
+        // Единственный поток пула занят, единственное место в очереди - тоже
+        orderIntentProcessor.onIntentCreated(new OrderIntentCreatedEvent(running));
+        awaitStatus(running, OrderIntent.Status.PROCESSING);
+        orderIntentProcessor.onIntentCreated(new OrderIntentCreatedEvent(queued));
+        orderIntentProcessor.onIntentCreated(new OrderIntentCreatedEvent(overflow));
+
+        OrderIntent waiting = orderIntentRepository.findById(overflow).orElseThrow();
+        assertThat(waiting.getStatus()).isEqualTo(OrderIntent.Status.PENDING);
+        assertThat(waiting.getAttempts()).isZero();
+
+        inventoryBlocked.countDown();
+        awaitStatus(running, OrderIntent.Status.COMPLETED);
+        awaitStatus(queued, OrderIntent.Status.COMPLETED);
+        assertThat(orderIntentRepository.findById(overflow).orElseThrow().getStatus())
+                .isEqualTo(OrderIntent.Status.PENDING);
+
+        orderIntentProcessor.poll();
+
+        awaitStatus(overflow, OrderIntent.Status.COMPLETED);
+        assertThat(orderRepository.findByUserId(user.getId())).hasSize(3);
+    }
+
+    @Test
+    void streamOrderIntent_SendsEachStatusUntilCompleted() throws Exception {
+        UUID intentId = saveIntent();
+        MvcResult result = mockMvc.perform(get("/api/orders/intents/{id}/events", intentId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        orderIntentProcessor.process(intentId);
+
+        String events = result.getResponse().getContentAsString();
+        assertThat(events).containsSubsequence("\"PENDING\"", "\"PROCESSING\"", "\"COMPLETED\"");
+    }
+
+    @Test
+    void streamOrderIntent_WhenAnotherReplicaChangesStatus_SendsItOnRefresh() throws Exception {
+        UUID intentId = saveIntent();
+        MvcResult result = mockMvc.perform(get("/api/orders/intents/{id}/events", intentId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Другая реплика взяла intent и отклонила его, не уведомив подписчиков этой
+        transactionTemplate.executeWithoutResult(status -> {
+            orderIntentRepository.claim(intentId, LocalDateTime.now());
+            orderIntentRepository.release(intentId, 1, OrderIntent.Status.REJECTED, "Product not available",
+                    LocalDateTime.now());
+        });
+        assertThat(result.getResponse().getContentAsString()).doesNotContain("REJECTED");
+
+        orderIntentNotifier.refresh();
+
+        assertThat(result.getResponse().getContentAsString())
+                .containsSubsequence("\"PENDING\"", "\"REJECTED\"")
+                .doesNotContain("\"PROCESSING\"");
+    }
+
+    private UUID saveIntent() throws Exception {
+        CreateOrderRequest request = new CreateOrderRequest(
+                user.getId(),
+                List.of(new CreateOrderRequest.OrderItemRequest(UUID.randomUUID(), 1))
+        );
+        return orderIntentRepository.save(OrderIntent.builder()
+                .userId(user.getId())
+                .payload(objectMapper.writeValueAsString(request))
+                .build()).getId();
+    }
+
+    private void awaitStatus(UUID intentId, OrderIntent.Status expected) throws InterruptedException {
+        long deadline = System.nanoTime() + AWAIT_TIMEOUT.toNanos();
+        while (orderIntentRepository.findById(intentId).orElseThrow().getStatus() != expected) {
+            assertThat(System.nanoTime()).as("intent %s did not become %s", intentId, expected).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<ProductAvailabilityResponse> available(int items) {
+        return Collections.nCopies(items, ProductAvailabilityResponse.newBuilder()
+                .setProductName("iPhone 15 Pro")
+                .setPriceCents(129_999)
+                .setIsAvailable(true)
+                .build());
+    }
+}
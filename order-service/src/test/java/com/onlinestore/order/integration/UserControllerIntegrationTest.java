@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.onlinestore.order.dto.UpdateUserRequest;
 import com.onlinestore.order.entity.User;
 import com.onlinestore.order.repository.UserRepository;
+import com.onlinestore.order.service.UserService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,6 +41,9 @@ class UserControllerIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserService userService;
+
     private User testUser;
     private User adminUser;
     private final ObjectMapper mapper = new ObjectMapper();
@@ -161,6 +167,44 @@ class UserControllerIntegrationTest {
         assertThat(passwordEncoder.matches("newPassword123", updated.getPassword())).isTrue();
     }
 
+    @Test
+    void updateCurrentUser_EvictsCachedUser() throws Exception {
+        authenticateAs(testUser);
+
+        // Прогреваем кэш по username и id
+        userService.loadUserByUsername("testuser");
+        userService.getUserById(testUser.getId());
+
+        UpdateUserRequest request = UpdateUserRequest.builder()
+                .username("renamedUser")
+                .build();
+
+        mockMvc.perform(put("/api/users/me")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        assertThatThrownBy(() -> userService.loadUserByUsername("testuser"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThat(userService.getUserById(testUser.getId()).getUsername()).isEqualTo("renamedUser");
+    }
+
+    @Test
+    void cachedUser_ChangesToReturnedObjectDoNotLeak() {
+        User first = userService.getUserById(testUser.getId());
+        first.setUsername("changedInRequest");
+        first.setRole(User.Role.ROLE_ADMIN);
+
+        User second = userService.getUserById(testUser.getId());
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getUsername()).isEqualTo("testuser");
+        assertThat(second.getRole()).isEqualTo(User.Role.ROLE_USER);
+
+        User principal = (User) userService.loadUserByUsername("testuser");
+        principal.setPassword("changed");
+        assertThat(userService.loadUserByUsername("testuser").getPassword()).isEqualTo(testUser.getPassword());
+    }
+
     @Test
     void updateCurrentUser_WithExistingUsername_ReturnsBadRequest() throws Exception {
         User anotherUser = userRepository.save(User.builder()
@@ -242,6 +286,8 @@ class UserControllerIntegrationTest {
                 .andExpect(status().isNoContent());
 
         assertThat(userRepository.findByUsername("testuser")).isEmpty();
+        assertThatThrownBy(() -> userService.loadUserByUsername("testuser"))
+                .isInstanceOf(UsernameNotFoundException.class);
     }
 
     // ============ DELETE OTHER USER (ADMIN ONLY) ============
@@ -0,0 +1,27 @@
+package com.onlinestore.order.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    @Test
+    void constructor_shouldRejectQueueTakingMoreThanHalfOfTomcatThreads() {
+        assertThatThrownBy(() -> new PasswordHashingExecutor(2, 99, 200, false, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("server.tomcat.threads.max");
+    }
+
+    @Test
+    void constructor_shouldNotLimitQueueWithVirtualThreads() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(2, 500, 200, true, new SimpleMeterRegistry());
+        try {
+            assertThat(executor.execute(() -> "hashed")).isEqualTo("hashed");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}